@@ -0,0 +1,15 @@
+#!/bin/sh
+# Assemble dex fixtures for benchmarks from smali sources.
+# Usage: SMALI="java -jar smali-2.5.2.jar" ./build-fixtures.sh
+set -e
+cd "$(dirname "$0")"
+SMALI=${SMALI:-smali}
+OUT=../src/jmh/resources/fixtures
+TMP=$(mktemp -d)
+mkdir -p "$OUT" "$TMP/medium" "$TMP/large"
+$SMALI assemble --api 21 -o "$OUT/classes.dex" smali
+python3 gen-large-method.py MediumMethod 200 4 > "$TMP/medium/MediumMethod.smali"
+$SMALI assemble --api 21 -o "$OUT/medium-method.dex" "$TMP/medium"
+python3 gen-large-method.py LargeMethod 1500 40 > "$TMP/large/LargeMethod.smali"
+$SMALI assemble --api 21 -o "$OUT/large-method.dex" "$TMP/large"
+rm -rf "$TMP"
@@ -0,0 +1,94 @@
+#!/usr/bin/env python3
+"""
+Generate smali class with one big synthetic method (thousands of blocks and hundreds of registers)
+for SSA and live variables analysis benchmarks. Output is deterministic (fixed random seed).
+"""
+import random
+import sys
+
+REGS = 200
+
+
+def gen_method(out, name, sections, loops_step, rnd):
+	out.append('.method public static %s([II)I' % name)
+	# locals + array param + int param
+	out.append('    .registers %d' % (REGS + 2))
+	count = 'v%d' % (REGS + 1)
+	# keep array in v1, 'array-length' accepts only 4-bit registers
+	arr = 'v1'
+	out.append('    move-object/from16 v1, v%d' % REGS)
+	for r in range(REGS):
+		if r != 1:
+			out.append('    const/16 v%d, 0x%x' % (r, r + 1))
+	for i in range(sections):
+		# registers used in 'if-testz' kept below v128 to stay in signed byte range
+		a, b = rnd.sample(range(2, 128), 2)
+		c, d, acc = rnd.sample([r for r in range(2, REGS) if r not in (a, b)], 3)
+		# loops and early returns add CFG modifications, keep them rare in big methods
+		step = i % loops_step
+		kind = 1 if step == 1 else 3 if step == 3 else i % 2 * 2
+		if kind == 0:
+			# if/else diamond
+			out.append('    add-int v%d, v%d, v%d' % (a, b, c))
+			out.append('    if-eqz v%d, :else_%d' % (a, i))
+			out.append('    mul-int v%d, v%d, v%d' % (d, a, c))
+			out.append('    goto :join_%d' % i)
+			out.append('    :else_%d' % i)
+			out.append('    sub-int v%d, v%d, v%d' % (d, c, b))
+			out.append('    :join_%d' % i)
+			out.append('    add-int v%d, v%d, v%d' % (acc, acc, d))
+		elif kind == 1:
+			# counted loop
+			out.append('    const/16 v%d, 0x0' % a)
+			out.append('    :loop_%d' % i)
+			out.append('    sub-int v%d, v%d, %s' % (b, a, count))
+			out.append('    if-gez v%d, :loop_end_%d' % (b, i))
+			out.append('    add-int v%d, v%d, v%d' % (c, c, a))
+			out.append('    add-int/lit8 v%d, v%d, 0x1' % (a, a))
+			out.append('    goto :loop_%d' % i)
+			out.append('    :loop_end_%d' % i)
+			out.append('    xor-int v%d, v%d, v%d' % (acc, acc, c))
+		elif kind == 2:
+			# array access with bounds check
+			length = rnd.choice([r for r in range(2, 16) if r not in (a, b)])
+			out.append('    array-length v%d, %s' % (length, arr))
+			out.append('    rem-int/lit8 v%d, v%d, 0x7' % (b, b))
+			out.append('    sub-int v%d, v%d, v%d' % (a, b, length))
+			out.append('    if-gez v%d, :skip_%d' % (a, i))
+			out.append('    if-ltz v%d, :skip_%d' % (b, i))
+			out.append('    aget v%d, %s, v%d' % (d, arr, b))
+			out.append('    add-int v%d, v%d, v%d' % (acc, acc, d))
+			out.append('    :skip_%d' % i)
+		else:
+			# chain of conditions with early exit
+			out.append('    and-int/lit8 v%d, v%d, 0x3' % (a, d))
+			out.append('    if-nez v%d, :next_%d' % (a, i))
+			out.append('    rem-int/lit8 v%d, v%d, 0x65' % (b, acc))
+			out.append('    if-nez v%d, :next_%d' % (b, i))
+			out.append('    return v%d' % c)
+			out.append('    :next_%d' % i)
+			out.append('    or-int v%d, v%d, v%d' % (d, c, b))
+	out.append('    add-int v0, v%d, v%d' % (c, d))
+	out.append('    return v0')
+	out.append('.end method')
+	out.append('')
+
+
+def main():
+	# usage: gen-large-method.py <class name> <sections count> <loops step>
+	cls_name = sys.argv[1]
+	sections = int(sys.argv[2])
+	loops_step = int(sys.argv[3])
+	rnd = random.Random(42)
+	out = [
+		'.class public final Lbench/%s;' % cls_name,
+		'.super Ljava/lang/Object;',
+		'.source "%s.java"' % cls_name,
+		'',
+	]
+	gen_method(out, 'run', sections, loops_step, rnd)
+	sys.stdout.write('\n'.join(out))
+
+
+if __name__ == '__main__':
+	main()
@@ -0,0 +1,232 @@
+package jadx.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generate synthetic resources table (resources.arsc) with one package and 4 types:
+ * string (default and 'de' configs), color, dimen and style (complex entries).
+ * Big tables don't fit into repository, so fixture created at benchmark setup.
+ */
+public final class ArscGenerator {
+	private static final int RES_STRING_POOL_TYPE = 0x0001;
+	private static final int RES_TABLE_TYPE = 0x0002;
+	private static final int RES_TABLE_PACKAGE_TYPE = 0x0200;
+	private static final int RES_TABLE_TYPE_TYPE = 0x0201;
+	private static final int RES_TABLE_TYPE_SPEC_TYPE = 0x0202;
+
+	private static final int UTF8_FLAG = 1 << 8;
+	private static final int CONFIG_SIZE = 64;
+
+	private static final int TYPE_STRING = 0x03;
+	private static final int TYPE_DIMENSION = 0x05;
+	private static final int TYPE_INT_DEC = 0x10;
+	private static final int TYPE_INT_COLOR_ARGB8 = 0x1c;
+
+	private static final String[] TYPES = { "string", "color", "dimen", "style" };
+
+	private final int entriesCount;
+	private final ByteBuffer buf;
+
+	/**
+	 * @param entriesCount entries count in every type
+	 */
+	public ArscGenerator(int entriesCount) {
+		this.entriesCount = entriesCount;
+		// rough upper bound: strings, keys and 5 type chunks (style entries with 3 values)
+		this.buf = ByteBuffer.allocate(4096 + entriesCount * 256);
+		this.buf.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public static File generateFile(int entriesCount) throws IOException {
+		byte[] data = new ArscGenerator(entriesCount).generate();
+		File file = File.createTempFile("jadx-bench-", ".arsc");
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(data);
+		}
+		return file;
+	}
+
+	public byte[] generate() {
+		int start = beginChunk(RES_TABLE_TYPE, 0x000c);
+		buf.putInt(1); // packages count
+		List<String> values = new ArrayList<>(entriesCount * 2);
+		for (int i = 0; i < entriesCount; i++) {
+			values.add("Value of string resource " + i);
+		}
+		for (int i = 0; i < entriesCount; i++) {
+			values.add("Wert der Ressource " + i);
+		}
+		writeStringPool(values);
+		writePackage();
+		endChunk(start);
+
+		byte[] data = new byte[buf.position()];
+		buf.flip();
+		buf.get(data);
+		return data;
+	}
+
+	private void writePackage() {
+		int start = buf.position();
+		buf.putShort((short) RES_TABLE_PACKAGE_TYPE);
+		buf.putShort((short) 0x011c);
+		buf.putInt(0); // size
+		buf.putInt(0x7f); // id
+		String name = "jadx.benchmarks.res";
+		for (int i = 0; i < 128; i++) {
+			buf.putChar(i < name.length() ? name.charAt(i) : 0);
+		}
+		int typeStringsOffsetPos = buf.position();
+		buf.putInt(0); // type strings offset
+		buf.putInt(TYPES.length); // last public type
+		int keyStringsOffsetPos = buf.position();
+		buf.putInt(0); // key strings offset
+		buf.putInt(entriesCount); // last public key
+
+		buf.putInt(typeStringsOffsetPos, buf.position() - start);
+		List<String> types = new ArrayList<>();
+		for (String type : TYPES) {
+			types.add(type);
+		}
+		writeStringPool(types);
+		buf.putInt(keyStringsOffsetPos, buf.position() - start);
+		List<String> keys = new ArrayList<>(entriesCount);
+		for (int i = 0; i < entriesCount; i++) {
+			keys.add("res_key_" + i);
+		}
+		writeStringPool(keys);
+
+		for (int t = 1; t <= TYPES.length; t++) {
+			writeTypeSpec(t);
+			writeType(t, null);
+			if (t == 1) {
+				writeType(t, "de");
+			}
+		}
+		buf.putInt(start + 4, buf.position() - start);
+	}
+
+	private void writeTypeSpec(int typeId) {
+		int start = beginChunk(RES_TABLE_TYPE_SPEC_TYPE, 0x0010);
+		buf.put((byte) typeId);
+		buf.put((byte) 0);
+		buf.putShort((short) 0);
+		buf.putInt(entriesCount);
+		for (int i = 0; i < entriesCount; i++) {
+			buf.putInt(0);
+		}
+		endChunk(start);
+	}
+
+	private void writeType(int typeId, String language) {
+		int headerSize = 20 + CONFIG_SIZE;
+		int start = beginChunk(RES_TABLE_TYPE_TYPE, headerSize);
+		buf.put((byte) typeId);
+		buf.put((byte) 0); // flags
+		buf.putShort((short) 0); // reserved
+		buf.putInt(entriesCount);
+		buf.putInt(headerSize + entriesCount * 4); // entries start
+		// config: only size and language set
+		int configStart = buf.position();
+		buf.putInt(CONFIG_SIZE);
+		buf.putInt(0); // mcc, mnc
+		if (language != null) {
+			buf.put((byte) language.charAt(0));
+			buf.put((byte) language.charAt(1));
+		}
+		buf.position(configStart + CONFIG_SIZE);
+
+		int offsetsPos = buf.position();
+		buf.position(offsetsPos + entriesCount * 4);
+		int entriesStart = buf.position();
+		for (int i = 0; i < entriesCount; i++) {
+			buf.putInt(offsetsPos + i * 4, buf.position() - entriesStart);
+			writeEntry(typeId, i, language != null);
+		}
+		endChunk(start);
+	}
+
+	private void writeEntry(int typeId, int idx, boolean altConfig) {
+		if (TYPES[typeId - 1].equals("style")) {
+			buf.putShort((short) 16);
+			buf.putShort((short) 0x0001); // complex
+			buf.putInt(idx); // key
+			buf.putInt(0); // parent
+			buf.putInt(3); // values count
+			for (int i = 0; i < 3; i++) {
+				buf.putInt(0x01010000 + i); // android attribute
+				writeValue(TYPE_INT_DEC, idx + i);
+			}
+			return;
+		}
+		buf.putShort((short) 8);
+		buf.putShort((short) 0);
+		buf.putInt(idx); // key
+		switch (TYPES[typeId - 1]) {
+			case "string":
+				writeValue(TYPE_STRING, altConfig ? entriesCount + idx : idx);
+				break;
+			case "color":
+				writeValue(TYPE_INT_COLOR_ARGB8, 0xff000000 | idx * 31 & 0xffffff);
+				break;
+			default:
+				// dp values
+				writeValue(TYPE_DIMENSION, (idx % 512) << 8 | 1);
+				break;
+		}
+	}
+
+	private void writeValue(int type, int data) {
+		buf.putShort((short) 8);
+		buf.put((byte) 0);
+		buf.put((byte) type);
+		buf.putInt(data);
+	}
+
+	private void writeStringPool(List<String> strings) {
+		int start = beginChunk(RES_STRING_POOL_TYPE, 0x001c);
+		int count = strings.size();
+		buf.putInt(count);
+		buf.putInt(0); // styles count
+		buf.putInt(UTF8_FLAG);
+		buf.putInt(0x001c + count * 4); // strings start
+		buf.putInt(0); // styles start
+		int offsetsPos = buf.position();
+		buf.position(offsetsPos + count * 4);
+		int dataStart = buf.position();
+		for (int i = 0; i < count; i++) {
+			buf.putInt(offsetsPos + i * 4, buf.position() - dataStart);
+			byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+			// all generated strings are short ASCII, one byte lengths
+			buf.put((byte) bytes.length);
+			buf.put((byte) bytes.length);
+			buf.put(bytes);
+			buf.put((byte) 0);
+		}
+		while (buf.position() % 4 != 0) {
+			buf.put((byte) 0);
+		}
+		endChunk(start);
+	}
+
+	private int beginChunk(int type, int headerSize) {
+		int start = buf.position();
+		buf.putShort((short) type);
+		buf.putShort((short) headerSize);
+		buf.putInt(0); // size, set in endChunk
+		return start;
+	}
+
+	private void endChunk(int start) {
+		buf.putInt(start + 4, buf.position() - start);
+	}
+}
@@ -0,0 +1,269 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.plugins.input.data.attributes.IJadxAttrType;
+import jadx.api.plugins.input.data.attributes.IJadxAttribute;
+import jadx.core.dex.attributes.AFlag;
+import jadx.core.dex.attributes.AType;
+import jadx.core.dex.attributes.AttrNode;
+import jadx.core.dex.attributes.AttributeStorage;
+import jadx.core.dex.attributes.nodes.ForceReturnAttr;
+import jadx.core.dex.attributes.nodes.RenameReasonAttr;
+import jadx.core.dex.nodes.BlockNode;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Packed attribute storage compared with previous layout ({@link EnumSet} flags and {@link IdentityHashMap} attributes)
+ * on synthetic nodes with typical content: two flags and one or two attributes.
+ * Lookups and storages footprint also measured on IR nodes of processed fixture classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkFixtures.JVM_STACK_ARG, BenchmarkFixtures.JOL_FIELDS_ARG })
+public class AttributeStorageBenchmark {
+
+	/**
+	 * Nodes count in one benchmark call
+	 */
+	private static final int NODES_COUNT = 1024;
+
+	private static final RenameReasonAttr RENAME_ATTR = new RenameReasonAttr("benchmark");
+	private static final ForceReturnAttr FORCE_RETURN_ATTR = new ForceReturnAttr(null);
+
+	private AttributeStorage[] storages;
+	private LegacyStorage[] legacyStorages;
+
+	@Setup
+	public void setup() {
+		storages = new AttributeStorage[NODES_COUNT];
+		legacyStorages = new LegacyStorage[NODES_COUNT];
+		for (int i = 0; i < NODES_COUNT; i++) {
+			storages[i] = fill(new AttributeStorage(), i);
+			legacyStorages[i] = fill(new LegacyStorage(), i);
+		}
+	}
+
+	/**
+	 * Fixture classes processed by all passes
+	 */
+	@State(Scope.Benchmark)
+	public static class ProcessedNodes {
+		@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.MEDIUM_METHOD })
+		public String fixture;
+
+		private JadxDecompiler jadx;
+		private List<AttrNode> nodes;
+		private long storageBytes;
+		private long storageCount;
+
+		@Setup
+		public void setup() {
+			jadx = BenchmarkFixtures.loadDecompiler(fixture);
+			RootNode root = jadx.getRoot();
+			List<ClassNode> classes = root.getClassesWithoutInner();
+			for (ClassNode cls : classes) {
+				BenchmarkFixtures.processClass(cls, root.getPasses());
+			}
+			nodes = collectNodes(classes);
+			// retained sizes calculated by JOL, so same for every run
+			GraphLayout layout = GraphLayout.parseInstance(classes.toArray());
+			storageBytes = layout.getClassSizes().count(AttributeStorage.class)
+					+ layout.getClassSizes().count(IJadxAttribute[].class);
+			storageCount = layout.getClassCounts().count(AttributeStorage.class);
+		}
+
+		@TearDown
+		public void close() {
+			jadx.close();
+		}
+	}
+
+	/**
+	 * Attribute storages footprint in processed IR nodes, reported in benchmark results.
+	 * Counters reset by JMH before iteration and summed over iterations,
+	 * so values assigned in benchmark method with one measurement iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class FootprintCounters {
+		/**
+		 * Total size of storage objects with attributes arrays
+		 */
+		public long attrStorageBytes;
+		/**
+		 * Storage objects count (nodes without attributes share one empty storage)
+		 */
+		public long attrStorageCount;
+	}
+
+	@Benchmark
+	public AttributeStorage[] build() {
+		AttributeStorage[] arr = new AttributeStorage[NODES_COUNT];
+		for (int i = 0; i < NODES_COUNT; i++) {
+			arr[i] = fill(new AttributeStorage(), i);
+		}
+		return arr;
+	}
+
+	@Benchmark
+	public LegacyStorage[] buildLegacy() {
+		LegacyStorage[] arr = new LegacyStorage[NODES_COUNT];
+		for (int i = 0; i < NODES_COUNT; i++) {
+			arr[i] = fill(new LegacyStorage(), i);
+		}
+		return arr;
+	}
+
+	/**
+	 * Present and missing flags and attributes, missing checks are most common in passes
+	 */
+	@Benchmark
+	public void lookups(Blackhole bh) {
+		for (AttributeStorage storage : storages) {
+			bh.consume(storage.contains(AFlag.SYNTHETIC));
+			bh.consume(storage.contains(AFlag.DONT_GENERATE));
+			bh.consume(storage.get(AType.RENAME_REASON));
+			bh.consume(storage.get(AType.FORCE_RETURN));
+			bh.consume(storage.get(AType.LOOP_LABEL));
+			bh.consume(storage.contains(AType.JADX_ERROR));
+		}
+	}
+
+	@Benchmark
+	public void lookupsLegacy(Blackhole bh) {
+		for (LegacyStorage storage : legacyStorages) {
+			bh.consume(storage.contains(AFlag.SYNTHETIC));
+			bh.consume(storage.contains(AFlag.DONT_GENERATE));
+			bh.consume(storage.get(AType.RENAME_REASON));
+			bh.consume(storage.get(AType.FORCE_RETURN));
+			bh.consume(storage.get(AType.LOOP_LABEL));
+			bh.consume(storage.contains(AType.JADX_ERROR));
+		}
+	}
+
+	/**
+	 * Lookups in IR nodes of processed fixture classes: classes, fields, methods and instructions
+	 */
+	@Benchmark
+	public void processedNodesLookups(ProcessedNodes state, Blackhole bh) {
+		for (AttrNode node : state.nodes) {
+			bh.consume(node.contains(AFlag.DONT_GENERATE));
+			bh.consume(node.contains(AFlag.REMOVE));
+			bh.consume(node.get(AType.JADX_ERROR));
+			bh.consume(node.get(AType.CODE_COMMENTS));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	public void processedNodesFootprint(ProcessedNodes state, FootprintCounters counters) {
+		counters.attrStorageBytes = state.storageBytes;
+		counters.attrStorageCount = state.storageCount;
+	}
+
+	private static List<AttrNode> collectNodes(List<ClassNode> classes) {
+		List<AttrNode> list = new ArrayList<>();
+		for (ClassNode cls : classes) {
+			list.add(cls);
+			list.addAll(cls.getFields());
+			for (MethodNode mth : cls.getMethods()) {
+				list.add(mth);
+				List<BlockNode> blocks = mth.getBasicBlocks();
+				if (blocks != null) {
+					for (BlockNode block : blocks) {
+						list.add(block);
+						list.addAll(block.getInstructions());
+					}
+				}
+			}
+			list.addAll(collectNodes(cls.getInnerClasses()));
+		}
+		return list;
+	}
+
+	private static AttributeStorage fill(AttributeStorage storage, int i) {
+		storage.add(AFlag.SYNTHETIC);
+		storage.add(AFlag.DONT_RENAME);
+		storage.add(RENAME_ATTR);
+		if (i % 2 == 0) {
+			storage.add(FORCE_RETURN_ATTR);
+		}
+		return storage;
+	}
+
+	private static LegacyStorage fill(LegacyStorage storage, int i) {
+		storage.add(AFlag.SYNTHETIC);
+		storage.add(AFlag.DONT_RENAME);
+		storage.add(RENAME_ATTR);
+		if (i % 2 == 0) {
+			storage.add(FORCE_RETURN_ATTR);
+		}
+		return storage;
+	}
+
+	/**
+	 * Attribute storage layout before packing
+	 */
+	public static final class LegacyStorage {
+		private final Set<AFlag> flags = EnumSet.noneOf(AFlag.class);
+		private Map<IJadxAttrType<?>, IJadxAttribute> attributes;
+
+		public void add(AFlag flag) {
+			flags.add(flag);
+		}
+
+		public void add(IJadxAttribute attr) {
+			if (attributes == null) {
+				attributes = new IdentityHashMap<>(5);
+			}
+			attributes.put(attr.getAttrType(), attr);
+		}
+
+		public boolean contains(AFlag flag) {
+			return flags.contains(flag);
+		}
+
+		public boolean contains(IJadxAttrType<?> type) {
+			return attributes != null && attributes.containsKey(type);
+		}
+
+		@SuppressWarnings("unchecked")
+		public <T extends IJadxAttribute> T get(IJadxAttrType<T> type) {
+			if (attributes == null) {
+				return null;
+			}
+			return (T) attributes.get(type);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package jadx.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.api.impl.NoOpCodeCache;
+import jadx.api.plugins.input.data.ILoadResult;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.LoadStage;
+import jadx.core.dex.nodes.ProcessState;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.plugins.input.dex.DexInputPlugin;
+
+/**
+ * Dex fixtures for benchmarks.
+ * Stored in 'src/jmh/resources/fixtures', sources and generator script in 'fixtures' dir of this module.
+ */
+public final class BenchmarkFixtures {
+	/**
+	 * Small hand-written classes: loops, switches, try/catch, synchronized, inner class
+	 */
+	public static final String CLASSES = "classes.dex";
+	/**
+	 * One generated method: ~900 blocks, 200 registers
+	 */
+	public static final String MEDIUM_METHOD = "medium-method.dex";
+	/**
+	 * One generated method: ~6000 blocks, 200 registers
+	 */
+	public static final String LARGE_METHOD = "large-method.dex";
+
+	/**
+	 * Passes use recursion, generated methods need bigger stack
+	 */
+	public static final String JVM_STACK_ARG = "-Xss64m";
+
+	/**
+	 * Allow JOL to read fields of hidden classes (lambdas) during retained size calculation
+	 */
+	public static final String JOL_FIELDS_ARG = "-Djol.magicFieldOffset=true";
+
+	private static final Map<String, File> FILES = new HashMap<>();
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Dex input plugin loads only files, so copy fixture from classpath into temp dir
+	 */
+	public static synchronized File getFile(String name) {
+		File file = FILES.get(name);
+		if (file != null) {
+			return file;
+		}
+		try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+			if (in == null) {
+				throw new JadxRuntimeException("Fixture not found: " + name);
+			}
+			File tmpFile = File.createTempFile("jadx-bench-", '-' + name);
+			tmpFile.deleteOnExit();
+			try (OutputStream out = new FileOutputStream(tmpFile)) {
+				byte[] buf = new byte[8192];
+				int len;
+				while ((len = in.read(buf)) != -1) {
+					out.write(buf, 0, len);
+				}
+			}
+			FILES.put(name, tmpFile);
+			return tmpFile;
+		} catch (IOException e) {
+			throw new JadxRuntimeException("Failed to copy fixture: " + name, e);
+		}
+	}
+
+	/**
+	 * Single thread, no resources and no code cache (every decompilation done from scratch)
+	 */
+	public static JadxArgs buildArgs() {
+		JadxArgs args = new JadxArgs();
+		args.setSkipResources(true);
+		args.setThreadsCount(1);
+		args.setCodeCache(NoOpCodeCache.INSTANCE);
+		return args;
+	}
+
+	public static ILoadResult loadDex(String name) {
+		List<File> files = new ArrayList<>();
+		files.add(getFile(name));
+		return new DexInputPlugin().loadFiles(files);
+	}
+
+	public static JadxDecompiler loadDecompiler(String name) {
+		JadxDecompiler jadx = new JadxDecompiler(buildArgs());
+		jadx.addCustomLoad(loadDex(name));
+		jadx.load();
+		return jadx;
+	}
+
+	/**
+	 * Load class code and run passes, same steps as in {@link jadx.core.ProcessClass}
+	 */
+	public static void processClass(ClassNode cls, List<IDexTreeVisitor> passes) {
+		cls.unload();
+		cls.setLoadStage(LoadStage.CODEGEN_STAGE);
+		cls.load();
+		cls.setState(ProcessState.PROCESS_STARTED);
+		for (IDexTreeVisitor pass : passes) {
+			DepthTraversal.visit(pass, cls);
+		}
+	}
+
+	/**
+	 * @return passes before pass with {@code passName} (simple class name), pass itself is last element
+	 */
+	public static List<IDexTreeVisitor> getPassesUntil(RootNode root, String passName) {
+		List<IDexTreeVisitor> passes = root.getPasses();
+		for (int i = 0; i < passes.size(); i++) {
+			if (passes.get(i).getClass().getSimpleName().equals(passName)) {
+				return new ArrayList<>(passes.subList(0, i + 1));
+			}
+		}
+		throw new JadxRuntimeException("Pass not found: " + passName);
+	}
+}
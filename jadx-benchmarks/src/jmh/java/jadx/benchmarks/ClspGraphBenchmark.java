@@ -0,0 +1,143 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import jadx.core.clsp.ClsSet;
+import jadx.core.clsp.ClspGraph;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.DecodeException;
+
+/**
+ * Classpath graph startup (bundled 'core.jcst' load and hierarchy build) and hierarchy queries.
+ * Retained heap of loaded graph reported by 'retainedHeap' benchmark, use jmh '-prof gc' for allocations during startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkFixtures.JVM_STACK_ARG, BenchmarkFixtures.JOL_FIELDS_ARG })
+public class ClspGraphBenchmark {
+
+	/**
+	 * Class and expected ancestor pairs, some pairs not related
+	 */
+	private static final String[][] TYPE_PAIRS = {
+			{ "java.util.ArrayList", "java.util.List" },
+			{ "java.util.ArrayList", "java.lang.Iterable" },
+			{ "java.util.HashMap", "java.util.Map" },
+			{ "java.lang.String", "java.lang.CharSequence" },
+			{ "java.lang.Integer", "java.lang.Number" },
+			{ "java.io.FileInputStream", "java.io.Closeable" },
+			{ "java.lang.IllegalStateException", "java.lang.Throwable" },
+			{ "android.widget.Button", "android.view.View" },
+			{ "android.app.Activity", "android.content.Context" },
+			{ "java.util.ArrayList", "java.util.Map" },
+			{ "java.lang.StringBuilder", "java.lang.Number" },
+			{ "java.util.LinkedList", "java.util.ArrayList" },
+	};
+
+	private RootNode root;
+	private ClsSet clsSet;
+	private ClspGraph graph;
+
+	@Setup
+	public void setup() throws IOException, DecodeException {
+		root = new RootNode(BenchmarkFixtures.buildArgs());
+		clsSet = new ClsSet(root);
+		clsSet.loadFromClstFile();
+		graph = loadGraph();
+	}
+
+	/**
+	 * Retained heap of loaded graph, reported in benchmark results.
+	 * Counters reset by JMH before iteration and summed over iterations,
+	 * so values assigned in benchmark method with one measurement iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+		/**
+		 * Graph size without root node (calculated by JOL, so same for every run)
+		 */
+		public long graphBytes;
+		public long graphClasses;
+
+		private long bytes;
+
+		@Setup
+		public void setup(ClspGraphBenchmark bench) {
+			GraphLayout graphLayout = GraphLayout.parseInstance(bench.graph);
+			bytes = graphLayout.subtract(GraphLayout.parseInstance(bench.root)).totalSize();
+		}
+	}
+
+	/**
+	 * Full startup: read and parse classpath file, build hierarchy
+	 */
+	@Benchmark
+	public ClspGraph loadGraph() throws IOException, DecodeException {
+		ClspGraph clsp = new ClspGraph(root);
+		clsp.load();
+		clsp.initCache();
+		return clsp;
+	}
+
+	/**
+	 * Hierarchy build only, classpath file already parsed
+	 */
+	@Benchmark
+	public ClspGraph initCache() {
+		ClspGraph clsp = new ClspGraph(root);
+		clsp.addClasspath(clsSet);
+		clsp.initCache();
+		return clsp;
+	}
+
+	@Benchmark
+	public void isImplements(Blackhole bh) {
+		for (String[] pair : TYPE_PAIRS) {
+			bh.consume(graph.isImplements(pair[0], pair[1]));
+		}
+	}
+
+	@Benchmark
+	public void commonAncestor(Blackhole bh) {
+		for (String[] pair : TYPE_PAIRS) {
+			bh.consume(graph.getCommonAncestor(pair[0], pair[1]));
+		}
+	}
+
+	@Benchmark
+	public void superTypes(Blackhole bh) {
+		for (String[] pair : TYPE_PAIRS) {
+			for (String superType : graph.getSuperTypes(pair[0])) {
+				bh.consume(superType);
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	public void retainedHeap(HeapCounters counters) {
+		counters.graphBytes = counters.bytes;
+		counters.graphClasses = clsSet.getClassesCount();
+	}
+}
@@ -0,0 +1,72 @@
+package jadx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.codegen.CodeGen;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.ProcessState;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+
+/**
+ * Code generation ({@code CodeGen.generate}) for processed classes.
+ * Code generation changes some attributes, so classes processed again before every invocation (not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class CodeGenBenchmark {
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.MEDIUM_METHOD })
+	public String fixture;
+
+	private JadxDecompiler jadx;
+	private List<ClassNode> classes;
+	private List<IDexTreeVisitor> passes;
+
+	@Setup
+	public void setup() {
+		jadx = BenchmarkFixtures.loadDecompiler(fixture);
+		classes = jadx.getRoot().getClassesWithoutInner();
+		passes = jadx.getRoot().getPasses();
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare() {
+		for (ClassNode cls : classes) {
+			BenchmarkFixtures.processClass(cls, passes);
+			cls.setState(ProcessState.PROCESS_COMPLETE);
+		}
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public void generate(Blackhole bh) {
+		for (ClassNode cls : classes) {
+			bh.consume(CodeGen.generate(cls));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.JavaClass;
+import jadx.api.plugins.input.data.AccessFlags;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.DecompilerScheduler;
+
+/**
+ * Decompilation batches planning for synthetic classes graph.
+ * Generated classes don't have methods, so measured time is mostly dependencies handling and sorting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class DecompilerSchedulerBenchmark {
+
+	/**
+	 * Part of classes without dependencies, other classes get up to {@link #MAX_DEPS} random dependencies
+	 */
+	private static final double NO_DEPS_RATIO = 0.4;
+	private static final int MAX_DEPS = 8;
+
+	@Param({ "1000", "10000", "100000" })
+	public int classesCount;
+
+	private JadxDecompiler jadx;
+	private List<JavaClass> classes;
+
+	@Setup
+	public void setup() {
+		// load requires inputs, fixture classes added to schedule too
+		jadx = BenchmarkFixtures.loadDecompiler(BenchmarkFixtures.CLASSES);
+		RootNode root = jadx.getRoot();
+		List<ClassNode> clsNodes = new ArrayList<>(classesCount);
+		for (int i = 0; i < classesCount; i++) {
+			clsNodes.add(ClassNode.addSyntheticClass(root, "bench.gen.Cls" + i, AccessFlags.PUBLIC));
+		}
+		// random graph with cycles, fixed seed for same schedule in every run
+		Random rnd = new Random(42);
+		for (ClassNode cls : clsNodes) {
+			if (rnd.nextDouble() < NO_DEPS_RATIO) {
+				continue;
+			}
+			int depsCount = 1 + rnd.nextInt(MAX_DEPS);
+			List<ClassNode> deps = new ArrayList<>(depsCount);
+			for (int d = 0; d < depsCount; d++) {
+				ClassNode dep = clsNodes.get(rnd.nextInt(classesCount));
+				if (dep != cls && !deps.contains(dep)) {
+					deps.add(dep);
+				}
+			}
+			cls.setDependencies(deps);
+		}
+		classes = jadx.getClasses();
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public List<List<JavaClass>> buildBatches() {
+		return new DecompilerScheduler().buildBatches(classes);
+	}
+}
@@ -0,0 +1,101 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.custom.Consumer;
+
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.IFieldData;
+import jadx.api.plugins.input.data.ILoadResult;
+import jadx.api.plugins.input.data.IMethodData;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.data.ISeqConsumer;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Inputs load: dex files open and parse ({@code DexFileLoader}) and class nodes creation ({@code RootNode.loadClasses})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class DexLoadBenchmark {
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.LARGE_METHOD })
+	public String fixture;
+
+	private List<ILoadResult> loadedInputs;
+
+	@Setup
+	public void setup() {
+		loadedInputs = Collections.singletonList(BenchmarkFixtures.loadDex(fixture));
+	}
+
+	@TearDown
+	public void close() throws IOException {
+		for (ILoadResult loadedInput : loadedInputs) {
+			loadedInput.close();
+		}
+	}
+
+	/**
+	 * Open dex file and read all classes, fields and methods declarations
+	 */
+	@Benchmark
+	public void loadDex(final Blackhole bh) throws IOException {
+		try (ILoadResult result = BenchmarkFixtures.loadDex(fixture)) {
+			result.visitClasses(new Consumer<IClassData>() {
+				@Override
+				public void accept(IClassData cls) {
+					bh.consume(cls.getType());
+					bh.consume(cls.getSuperType());
+					bh.consume(cls.getInterfacesTypes());
+					cls.visitFieldsAndMethods(new ISeqConsumer<IFieldData>() {
+						@Override
+						public void accept(IFieldData fld) {
+							bh.consume(fld.getName());
+							bh.consume(fld.getType());
+						}
+					}, new ISeqConsumer<IMethodData>() {
+						@Override
+						public void accept(IMethodData mth) {
+							IMethodRef mthRef = mth.getMethodRef();
+							mthRef.load();
+							bh.consume(mthRef.getName());
+							bh.consume(mth.getCodeReader());
+						}
+					});
+				}
+			});
+		}
+	}
+
+	/**
+	 * Build class nodes from already opened dex
+	 */
+	@Benchmark
+	public RootNode loadClasses() {
+		RootNode root = new RootNode(BenchmarkFixtures.buildArgs());
+		root.loadClasses(loadedInputs);
+		return root;
+	}
+}
@@ -0,0 +1,159 @@
+package jadx.benchmarks;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.custom.Consumer;
+
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.IFieldData;
+import jadx.api.plugins.input.data.IMethodData;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.data.ISeqConsumer;
+import jadx.api.plugins.input.insns.InsnData;
+import jadx.core.utils.files.FileUtils;
+import jadx.plugins.input.dex.DexReader;
+import jadx.plugins.input.dex.sections.SectionReader;
+import jadx.plugins.input.dex.utils.MUtf8;
+
+/**
+ * Strings and types lookups in dex: instructions decoding with index resolving
+ * and random lookups through strings cache compared with MUTF-8 decoding on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class DexStringsBenchmark {
+
+	/**
+	 * Lookups count in one random lookups call
+	 */
+	private static final int LOOKUPS_COUNT = 10_000;
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.LARGE_METHOD })
+	public String fixture;
+
+	private byte[] content;
+	private DexReader dexReader;
+	private int[] lookups;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream in = new FileInputStream(BenchmarkFixtures.getFile(fixture))) {
+			content = FileUtils.streamToByteArray(in);
+		}
+		dexReader = new DexReader(0, fixture, content);
+		// fixed seed, same lookups sequence in every run
+		Random rnd = new Random(42);
+		int stringsCount = dexReader.getHeader().getStringIdsSize();
+		lookups = new int[LOOKUPS_COUNT];
+		for (int i = 0; i < LOOKUPS_COUNT; i++) {
+			lookups[i] = rnd.nextInt(stringsCount);
+		}
+	}
+
+	/**
+	 * Decode all instructions and resolve indexes, strings cache already filled by previous calls
+	 */
+	@Benchmark
+	public void decodeInstructions(Blackhole bh) {
+		visitInstructions(dexReader, bh);
+	}
+
+	/**
+	 * Same as {@link #decodeInstructions(Blackhole)}, but with new reader and empty cache
+	 */
+	@Benchmark
+	public void decodeInstructionsColdCache(Blackhole bh) {
+		visitInstructions(new DexReader(0, fixture, content), bh);
+	}
+
+	@Benchmark
+	public void cachedStringLookups(Blackhole bh) {
+		SectionReader in = new SectionReader(dexReader, 0);
+		for (int idx : lookups) {
+			bh.consume(in.getString(idx));
+		}
+	}
+
+	/**
+	 * String decoding without cache, as done before strings cache
+	 */
+	@Benchmark
+	public void decodeStringLookups(Blackhole bh) {
+		SectionReader in = new SectionReader(dexReader, 0);
+		int stringIdsOff = dexReader.getHeader().getStringIdsOff();
+		for (int idx : lookups) {
+			in.absPos(stringIdsOff + idx * 4);
+			in.absPos(in.readInt());
+			bh.consume(MUtf8.decode(in));
+		}
+	}
+
+	private static void visitInstructions(DexReader dexReader, final Blackhole bh) {
+		final Consumer<InsnData> insnConsumer = new Consumer<InsnData>() {
+			@Override
+			public void accept(InsnData insn) {
+				insn.decode();
+				switch (insn.getIndexType()) {
+					case STRING_REF:
+						bh.consume(insn.getIndexAsString());
+						break;
+					case TYPE_REF:
+						bh.consume(insn.getIndexAsType());
+						break;
+					case FIELD_REF:
+						bh.consume(insn.getIndexAsField().getName());
+						break;
+					case METHOD_REF:
+						IMethodRef mthRef = insn.getIndexAsMethod();
+						mthRef.load();
+						bh.consume(mthRef.getName());
+						break;
+					default:
+						bh.consume(insn.getOpcode());
+						break;
+				}
+			}
+		};
+		dexReader.visitClasses(new Consumer<IClassData>() {
+			@Override
+			public void accept(IClassData cls) {
+				cls.visitFieldsAndMethods(new ISeqConsumer<IFieldData>() {
+					@Override
+					public void accept(IFieldData fld) {
+						bh.consume(fld.getType());
+					}
+				}, new ISeqConsumer<IMethodData>() {
+					@Override
+					public void accept(IMethodData mth) {
+						ICodeReader codeReader = mth.getCodeReader();
+						if (codeReader != null) {
+							codeReader.visitInstructions(insnConsumer);
+						}
+					}
+				});
+			}
+		});
+	}
+}
@@ -0,0 +1,123 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Class, method and field infos interning from several threads into one shared {@code InfoStorage}.
+ * Storage filled at setup, so most calls are lookups of existing instances, as in decompilation passes.
+ * Threads count can be changed with jmh '-t' option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+@Threads(4)
+public class InfoStorageBenchmark {
+
+	/**
+	 * Classes count, every class have one method and one field
+	 */
+	private static final int CLASSES_COUNT = 4096;
+	/**
+	 * Infos requested in one benchmark call
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	private static final List<ArgType> MTH_ARGS = Collections.singletonList(ArgType.INT);
+
+	private RootNode root;
+	private ArgType[] types;
+	private ClassInfo[] classes;
+	private String[] names;
+
+	/**
+	 * Threads start from different positions to avoid same keys in same time
+	 */
+	@State(Scope.Thread)
+	public static class ThreadPos {
+		private static final AtomicInteger THREAD_NUM = new AtomicInteger();
+
+		private int pos;
+
+		@Setup
+		public void setup() {
+			pos = THREAD_NUM.getAndIncrement() * 997 % CLASSES_COUNT;
+		}
+
+		int next() {
+			pos = pos + 1 == CLASSES_COUNT ? 0 : pos + 1;
+			return pos;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		root = new RootNode(BenchmarkFixtures.buildArgs());
+		types = new ArgType[CLASSES_COUNT];
+		classes = new ClassInfo[CLASSES_COUNT];
+		names = new String[CLASSES_COUNT];
+		for (int i = 0; i < CLASSES_COUNT; i++) {
+			types[i] = ArgType.object("bench.gen.Cls" + i);
+			classes[i] = ClassInfo.fromType(root, types[i]);
+			names[i] = "member" + i;
+			MethodInfo.fromDetails(root, classes[i], names[i], MTH_ARGS, ArgType.VOID);
+			FieldInfo.from(root, classes[i], names[i], ArgType.INT);
+		}
+	}
+
+	@Benchmark
+	public List<Object> classInfo(ThreadPos threadPos) {
+		List<Object> result = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			result.add(ClassInfo.fromType(root, types[threadPos.next()]));
+		}
+		return result;
+	}
+
+	/**
+	 * New method info created and interned on every call (same as {@code MethodInfo.fromRef} on cache miss)
+	 */
+	@Benchmark
+	public List<Object> methodInfo(ThreadPos threadPos) {
+		List<Object> result = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			int idx = threadPos.next();
+			result.add(MethodInfo.fromDetails(root, classes[idx], names[idx], MTH_ARGS, ArgType.VOID));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<Object> fieldInfo(ThreadPos threadPos) {
+		List<Object> result = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			int idx = threadPos.next();
+			result.add(FieldInfo.from(root, classes[idx], names[idx], ArgType.INT));
+		}
+		return result;
+	}
+}
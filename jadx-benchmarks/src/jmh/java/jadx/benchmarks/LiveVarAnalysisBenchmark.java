@@ -0,0 +1,111 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.dex.visitors.ssa.LiveVarAnalysis;
+
+/**
+ * Registers liveness analysis and whole SSA transformation (liveness, phi placement, renaming) on generated big methods
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class LiveVarAnalysisBenchmark {
+
+	@Param({ BenchmarkFixtures.MEDIUM_METHOD, BenchmarkFixtures.LARGE_METHOD })
+	public String fixture;
+
+	private JadxDecompiler jadx;
+	private List<ClassNode> classes;
+	private List<IDexTreeVisitor> prevPasses;
+	private IDexTreeVisitor ssaPass;
+
+	/**
+	 * Classes processed once by passes before SSA, liveness analysis don't change method
+	 */
+	@State(Scope.Benchmark)
+	public static class BlocksReady {
+		private final List<MethodNode> methods = new ArrayList<>();
+
+		@Setup
+		public void setup(LiveVarAnalysisBenchmark bench) {
+			for (ClassNode cls : bench.classes) {
+				BenchmarkFixtures.processClass(cls, bench.prevPasses);
+				for (MethodNode mth : cls.getMethods()) {
+					if (mth.getBasicBlocks() != null) {
+						methods.add(mth);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Classes reloaded and processed by passes before SSA for every invocation (not measured)
+	 */
+	@State(Scope.Benchmark)
+	public static class BlocksReloaded {
+		@Setup(Level.Invocation)
+		public void prepare(LiveVarAnalysisBenchmark bench) {
+			for (ClassNode cls : bench.classes) {
+				BenchmarkFixtures.processClass(cls, bench.prevPasses);
+			}
+		}
+	}
+
+	@Setup
+	public void setup() {
+		jadx = BenchmarkFixtures.loadDecompiler(fixture);
+		classes = jadx.getRoot().getClassesWithoutInner();
+		List<IDexTreeVisitor> passes = BenchmarkFixtures.getPassesUntil(jadx.getRoot(), "SSATransform");
+		ssaPass = passes.remove(passes.size() - 1);
+		prevPasses = passes;
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public void liveVarAnalysis(BlocksReady state, Blackhole bh) {
+		for (MethodNode mth : state.methods) {
+			LiveVarAnalysis la = new LiveVarAnalysis(mth);
+			la.runAnalysis();
+			bh.consume(la.isLive(0, 0));
+			la.release();
+		}
+	}
+
+	@Benchmark
+	public void ssaTransform(BlocksReloaded state) {
+		for (ClassNode cls : classes) {
+			DepthTraversal.visit(ssaPass, cls);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package jadx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+
+/**
+ * Single decompilation pass over all fixture classes.
+ * Classes reloaded and processed by all previous passes before every invocation (not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class PassesBenchmark {
+
+	@Param({ "SSATransform", "TypeInferenceVisitor", "RegionMakerVisitor" })
+	public String pass;
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.MEDIUM_METHOD })
+	public String fixture;
+
+	private JadxDecompiler jadx;
+	private List<ClassNode> classes;
+	private List<IDexTreeVisitor> prevPasses;
+	private IDexTreeVisitor measuredPass;
+
+	@Setup
+	public void setup() {
+		jadx = BenchmarkFixtures.loadDecompiler(fixture);
+		classes = jadx.getRoot().getClassesWithoutInner();
+		List<IDexTreeVisitor> passes = BenchmarkFixtures.getPassesUntil(jadx.getRoot(), pass);
+		measuredPass = passes.remove(passes.size() - 1);
+		prevPasses = passes;
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare() {
+		for (ClassNode cls : classes) {
+			BenchmarkFixtures.processClass(cls, prevPasses);
+		}
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public void runPass() {
+		for (ClassNode cls : classes) {
+			DepthTraversal.visit(measuredPass, cls);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package jadx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.ProcessClass;
+import jadx.core.dex.nodes.ClassNode;
+
+/**
+ * Full class decompilation: load, all passes and code generation ({@code ProcessClass.generateCode}).
+ * Class unloaded after code generation, so every call process class from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class ProcessClassBenchmark {
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.MEDIUM_METHOD })
+	public String fixture;
+
+	private JadxDecompiler jadx;
+	private ProcessClass processClass;
+	private List<ClassNode> classes;
+
+	@Setup
+	public void setup() {
+		jadx = BenchmarkFixtures.loadDecompiler(fixture);
+		processClass = jadx.getRoot().getProcessClasses();
+		classes = jadx.getRoot().getClassesWithoutInner();
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public void generateCode(Blackhole bh) {
+		for (ClassNode cls : classes) {
+			bh.consume(processClass.generateCode(cls));
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package jadx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.usage.UsageIndex;
+
+/**
+ * Bytecode usage index: build from instructions, queries for all nodes and save/load round trip
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class UsageIndexBenchmark {
+
+	@Param({ BenchmarkFixtures.CLASSES, BenchmarkFixtures.LARGE_METHOD })
+	public String fixture;
+
+	private JadxDecompiler jadx;
+	private RootNode root;
+	private UsageIndex index;
+	private byte[] savedIndex;
+
+	@Setup
+	public void setup() throws IOException {
+		jadx = BenchmarkFixtures.loadDecompiler(fixture);
+		root = jadx.getRoot();
+		index = UsageIndex.build(root);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DataOutputStream dataOut = new DataOutputStream(out)) {
+			index.save(dataOut);
+		}
+		savedIndex = out.toByteArray();
+	}
+
+	@TearDown
+	public void close() {
+		jadx.close();
+	}
+
+	@Benchmark
+	public UsageIndex build() {
+		return UsageIndex.build(root);
+	}
+
+	/**
+	 * Usages of every class, method and field
+	 */
+	@Benchmark
+	public void queryAll(Blackhole bh) {
+		for (ClassNode cls : root.getClasses()) {
+			bh.consume(index.getClassUses(cls));
+			for (MethodNode mth : cls.getMethods()) {
+				bh.consume(index.getMethodCalls(mth));
+			}
+			for (FieldNode fld : cls.getFields()) {
+				bh.consume(index.getFieldReads(fld));
+				bh.consume(index.getFieldWrites(fld));
+			}
+		}
+	}
+
+	@Benchmark
+	public byte[] save() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(savedIndex.length);
+		try (DataOutputStream dataOut = new DataOutputStream(out)) {
+			index.save(dataOut);
+		}
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public UsageIndex load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(savedIndex))) {
+			return UsageIndex.load(in, root);
+		}
+	}
+}
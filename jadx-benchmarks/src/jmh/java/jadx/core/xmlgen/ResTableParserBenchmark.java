@@ -0,0 +1,92 @@
+package jadx.core.xmlgen;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jadx.benchmarks.ArscGenerator;
+import jadx.benchmarks.BenchmarkFixtures;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Resources table parsing: byte-by-byte stream reader compared with heap and memory-mapped buffers.
+ * Placed in parser package to access stream based decode used before buffer readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkFixtures.JVM_STACK_ARG)
+public class ResTableParserBenchmark {
+
+	/**
+	 * Entries count in every resource type
+	 */
+	@Param({ "1000", "20000" })
+	public int entries;
+
+	private File arscFile;
+	private RootNode root;
+
+	@Setup
+	public void setup() throws IOException {
+		arscFile = ArscGenerator.generateFile(entries);
+		root = new RootNode(BenchmarkFixtures.buildArgs());
+		ResourceStorage resStorage = mappedBuffer();
+		if (!resStorage.getResources().iterator().hasNext()) {
+			throw new JadxRuntimeException("Generated resources table is empty: " + arscFile);
+		}
+	}
+
+	@Benchmark
+	public ResourceStorage parserStream() throws IOException {
+		ResTableParser parser = new ResTableParser(root);
+		try (InputStream in = new BufferedInputStream(new FileInputStream(arscFile))) {
+			parser.is = new ParserStream(in);
+			parser.decodeTableChunk();
+		}
+		ResourceStorage resStorage = parser.getResStorage();
+		resStorage.finish();
+		return resStorage;
+	}
+
+	@Benchmark
+	public ResourceStorage heapBuffer() throws IOException {
+		ResTableParser parser = new ResTableParser(root);
+		try (InputStream in = new FileInputStream(arscFile)) {
+			parser.decode(in);
+		}
+		return parser.getResStorage();
+	}
+
+	@Benchmark
+	public ResourceStorage mappedBuffer() throws IOException {
+		ResTableParser parser = new ResTableParser(root);
+		try (RandomAccessFile file = new RandomAccessFile(arscFile, "r")) {
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			parser.decode(buffer);
+		}
+		return parser.getResStorage();
+	}
+}
@@ -100,6 +100,50 @@ public class JadxArgs {
 
 	private DecompilationMode decompilationMode = DecompilationMode.AUTO;
 
+	public enum DecompileSchedulerMode {
+		/**
+		 * Batches executed in fixed thread pool
+		 */
+		BATCHES,
+		/**
+		 * Batches split into per-class tasks and executed in fork-join pool
+		 */
+		WORK_STEALING
+	}
+
+	private DecompileSchedulerMode decompileSchedulerMode = DecompileSchedulerMode.BATCHES;
+
+	/**
+	 * Build class nodes for every input part (dex file) in separate thread
+	 */
+	private boolean parallelClassesLoad = false;
+
+	/**
+	 * Collect time and allocations stats for every decompilation pass and classpath lookup counters
+	 */
+	private boolean profilePasses = false;
+
+	/**
+	 * Index generated code for text and symbols search,
+	 * index saved into output directory and reused on next runs
+	 */
+	private boolean buildSearchIndex = false;
+
+	/**
+	 * Processing time limit for one method in milliseconds (0 - no limit, default).
+	 * Method which exceed budget generated in fallback mode.
+	 * Disabled by default: result depends on machine speed and load,
+	 * prefer deterministic {@link #methodStepsBudget}.
+	 */
+	private long methodTimeBudget = 0;
+
+	/**
+	 * Limit for work steps (iterations in type inference, SSA and regions making) for one method
+	 * (0 - no limit, default).
+	 * Method which exceed budget generated in fallback mode.
+	 */
+	private long methodStepsBudget = 0;
+
 	private ICodeData codeData;
 
 	private CommentsLevel commentsLevel = CommentsLevel.INFO;
@@ -488,6 +532,54 @@ public class JadxArgs {
 		this.decompilationMode = decompilationMode;
 	}
 
+	public DecompileSchedulerMode getDecompileSchedulerMode() {
+		return decompileSchedulerMode;
+	}
+
+	public void setDecompileSchedulerMode(DecompileSchedulerMode decompileSchedulerMode) {
+		this.decompileSchedulerMode = decompileSchedulerMode;
+	}
+
+	public boolean isParallelClassesLoad() {
+		return parallelClassesLoad;
+	}
+
+	public void setParallelClassesLoad(boolean parallelClassesLoad) {
+		this.parallelClassesLoad = parallelClassesLoad;
+	}
+
+	public boolean isProfilePasses() {
+		return profilePasses;
+	}
+
+	public void setProfilePasses(boolean profilePasses) {
+		this.profilePasses = profilePasses;
+	}
+
+	public boolean isBuildSearchIndex() {
+		return buildSearchIndex;
+	}
+
+	public void setBuildSearchIndex(boolean buildSearchIndex) {
+		this.buildSearchIndex = buildSearchIndex;
+	}
+
+	public long getMethodTimeBudget() {
+		return methodTimeBudget;
+	}
+
+	public void setMethodTimeBudget(long methodTimeBudget) {
+		this.methodTimeBudget = methodTimeBudget;
+	}
+
+	public long getMethodStepsBudget() {
+		return methodStepsBudget;
+	}
+
+	public void setMethodStepsBudget(long methodStepsBudget) {
+		this.methodStepsBudget = methodStepsBudget;
+	}
+
 	public ICodeCache getCodeCache() {
 		return codeCache;
 	}
@@ -564,7 +656,8 @@ public class JadxArgs {
 				+ insertDebugLines + extractFinally
 				+ debugInfo + useSourceNameAsClassAlias + escapeUnicode + replaceConsts
 				+ respectBytecodeAccModifiers + fsCaseSensitive + renameFlags
-				+ commentsLevel + useDxInput + pluginOptions;
+				+ commentsLevel + useDxInput + pluginOptions
+				+ methodTimeBudget + methodStepsBudget;
 		return FileUtils.md5Sum(argStr.getBytes(StandardCharsets.US_ASCII));
 	}
 
@@ -575,6 +668,12 @@ public class JadxArgs {
 				+ ", outDirSrc=" + outDirSrc
 				+ ", outDirRes=" + outDirRes
 				+ ", threadsCount=" + threadsCount
+				+ ", decompileSchedulerMode=" + decompileSchedulerMode
+				+ ", parallelClassesLoad=" + parallelClassesLoad
+				+ ", profilePasses=" + profilePasses
+				+ ", buildSearchIndex=" + buildSearchIndex
+				+ ", methodTimeBudget=" + methodTimeBudget
+				+ ", methodStepsBudget=" + methodStepsBudget
 				+ ", decompilationMode=" + decompilationMode
 				+ ", showInconsistentCode=" + showInconsistentCode
 				+ ", useImports=" + useImports
@@ -18,12 +18,14 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import com.custom.Consumer;
 
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.impl.SearchIndexCodeCache;
 import jadx.api.metadata.ICodeAnnotation;
 import jadx.api.metadata.ICodeNodeRef;
 import jadx.api.metadata.annotations.NodeDeclareRef;
@@ -34,6 +36,7 @@ import jadx.api.plugins.JadxPluginManager;
 import jadx.api.plugins.input.JadxInputPlugin;
 import jadx.api.plugins.input.data.ILoadResult;
 import jadx.api.plugins.options.JadxPluginOptions;
+import jadx.api.search.CodeSearchIndex;
 import jadx.core.Jadx;
 import jadx.core.dex.attributes.AFlag;
 import jadx.core.dex.nodes.ClassNode;
@@ -41,11 +44,15 @@ import jadx.core.dex.nodes.FieldNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.dex.visitors.SaveCode;
+import jadx.core.dex.visitors.usage.UsageIndex;
 import jadx.core.export.ExportGradleProject;
 import jadx.core.utils.DecompilerScheduler;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.Utils;
+import jadx.core.utils.WorkStealingExecutor;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.utils.files.FileUtils;
+import jadx.core.utils.files.ZipFilePool;
 import jadx.core.xmlgen.BinaryXMLParser;
 import jadx.core.xmlgen.ProtoXMLParser;
 import jadx.core.xmlgen.ResContainer;
@@ -96,6 +103,8 @@ public final class JadxDecompiler implements Closeable {
 	
 	private final List<ILoadResult> customLoads = new ArrayList<>();
 	
+	private final ZipFilePool zipFilePool = new ZipFilePool();
+	
 	public JadxDecompiler() {
 		this(new JadxArgs());
 	}
@@ -109,14 +118,41 @@ public final class JadxDecompiler implements Closeable {
 		JadxArgsValidator.validate(this);
 		LOG.info("loading ...");
 		loadPlugins(args);
+		long loadStart = System.nanoTime();
 		loadInputFiles();
 		
 		root = new RootNode(args);
+		PassesProfiler profiler = root.getPassesProfiler();
+		long start = 0;
+		if (profiler != null) {
+			// profiler created with root node, inputs loaded before it
+			profiler.finishStage(PassesProfiler.STAGE_LOAD_INPUTS, loadStart, -1);
+			start = profiler.start();
+		}
 		root.loadClasses(loadedInputs);
+		if (profiler != null) {
+			profiler.finishStage(PassesProfiler.STAGE_LOAD_CLASSES, start, -1);
+			start = profiler.start();
+		}
 		root.initClassPath();
 		root.loadResources(getResources());
 		root.runPreDecompileStage();
 		root.initPasses();
+		if (profiler != null) {
+			profiler.finishStage(PassesProfiler.STAGE_INIT, start, -1);
+		}
+		initSearchIndex();
+	}
+	
+	private void initSearchIndex() {
+		if (!args.isBuildSearchIndex()) {
+			return;
+		}
+		ICodeCache codeCache = args.getCodeCache();
+		if (!(codeCache instanceof SearchIndexCodeCache)) {
+			File indexFile = new File(args.getOutDir(), SearchIndexCodeCache.INDEX_FILE_NAME);
+			args.setCodeCache(new SearchIndexCodeCache(args, indexFile, codeCache));
+		}
 	}
 	
 	private void loadInputFiles() {
@@ -158,12 +194,14 @@ public final class JadxDecompiler implements Closeable {
 		resources = null;
 		binaryXmlParser = null;
 		protoXmlParser = null;
+		zipFilePool.reset();
 	}
 	
 	@Override
 	public void close() {
 		reset();
 		closeInputs();
+		zipFilePool.close();
 		args.close();
 	}
 	
@@ -218,19 +256,24 @@ public final class JadxDecompiler implements Closeable {
 	
 	@SuppressWarnings("BusyWait")
 	public void save(int intervalInMillis, ProgressListener listener) {
-		ThreadPoolExecutor ex = (ThreadPoolExecutor) getSaveExecutor();
+		ExecutorService ex = getSaveExecutor();
 		ex.shutdown();
 		try {
-			long total = ex.getTaskCount();
-			while (ex.isTerminating()) {
-				long done = ex.getCompletedTaskCount();
-				listener.progress(done, total);
+			while (!ex.isTerminated()) {
+				if (ex instanceof WorkStealingExecutor) {
+					WorkStealingExecutor wsEx = (WorkStealingExecutor) ex;
+					listener.progress(wsEx.getCompletedTaskCount(), wsEx.getTaskCount());
+				} else {
+					ThreadPoolExecutor tpEx = (ThreadPoolExecutor) ex;
+					listener.progress(tpEx.getCompletedTaskCount(), tpEx.getTaskCount());
+				}
 				Thread.sleep(intervalInMillis);
 			}
 		} catch (InterruptedException e) {
 			LOG.error("Save interrupted", e);
 			Thread.currentThread().interrupt();
 		}
+		afterSave();
 	}
 	
 	public void saveSources() {
@@ -251,6 +294,22 @@ public final class JadxDecompiler implements Closeable {
 			LOG.error("Save interrupted", e);
 			Thread.currentThread().interrupt();
 		}
+		afterSave();
+	}
+	
+	private void afterSave() {
+		printPassesReport();
+		ICodeCache codeCache = args.getCodeCache();
+		if (codeCache instanceof SearchIndexCodeCache) {
+			((SearchIndexCodeCache) codeCache).save();
+		}
+	}
+	
+	private void printPassesReport() {
+		PassesProfiler profiler = getPassesProfiler();
+		if (profiler != null) {
+			profiler.printReport();
+		}
 	}
 	
 	public ExecutorService getSaveExecutor() {
@@ -262,23 +321,30 @@ public final class JadxDecompiler implements Closeable {
 	}
 	
 	private ExecutorService getSaveExecutor(boolean saveSources, boolean saveResources) {
-    int threadsCount = args.getThreadsCount();
-    LOG.debug("processing threads count: {}", threadsCount);
-    LOG.info("processing ...");
-    ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
-    List<Runnable> tasks = getSaveTasks(saveSources, saveResources);
-    for (Runnable task : tasks) {
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                task.run();
-            }
-        });
-    }
-    return executor;
-}
-	
-	private List<Runnable> getSaveTasks(final boolean saveSources, final boolean saveResources) {
+		int threadsCount = args.getThreadsCount();
+		LOG.debug("processing threads count: {}", threadsCount);
+		LOG.info("processing ...");
+		ExecutorService executor;
+		List<Runnable> tasks;
+		if (args.getDecompileSchedulerMode() == JadxArgs.DecompileSchedulerMode.WORK_STEALING) {
+			WorkStealingExecutor wsExecutor = new WorkStealingExecutor(root, threadsCount);
+			tasks = getSaveTasks(saveSources, saveResources, wsExecutor);
+			executor = wsExecutor;
+		} else {
+			executor = Executors.newFixedThreadPool(threadsCount);
+			tasks = getSaveTasks(saveSources, saveResources, null);
+		}
+		for (Runnable task : tasks) {
+			executor.execute(task);
+		}
+		return executor;
+	}
+
+	private List<Runnable> getSaveTasks(boolean saveSources, boolean saveResources) {
+		return getSaveTasks(saveSources, saveResources, null);
+	}
+
+	private List<Runnable> getSaveTasks(boolean saveSources, boolean saveResources, @Nullable WorkStealingExecutor wsExecutor) {
     if (root == null) {
         throw new JadxRuntimeException("No loaded files");
     }
@@ -326,20 +392,10 @@ public final class JadxDecompiler implements Closeable {
     List<Runnable> tasks = new ArrayList<>();
     // save resources first because decompilation can hang or fail
     if (saveResources) {
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                appendResourcesSaveTasks(tasks, resOutDir);
-            }
-        });
+        appendResourcesSaveTasks(tasks, resOutDir);
     }
     if (saveSources) {
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                appendSourcesSave(tasks, sourcesOutDir);
-            }
-        });
+        appendSourcesSave(tasks, sourcesOutDir, wsExecutor);
     }
     return tasks;
 }
@@ -374,7 +430,7 @@ public final class JadxDecompiler implements Closeable {
     }
 }
 	
-	private void appendSourcesSave(List<Runnable> tasks, File outDir) {
+	private void appendSourcesSave(List<Runnable> tasks, final File outDir, @Nullable WorkStealingExecutor wsExecutor) {
 		com.custom.ClassFilter classFilter = args.getClassFilter();
 		List<JavaClass> classes = getClasses();
 		List<JavaClass> processQueue = new ArrayList<>(classes.size());
@@ -397,15 +453,28 @@ public final class JadxDecompiler implements Closeable {
 		} catch (Exception e) {
 			throw new JadxRuntimeException("Decompilation batches build failed", e);
 		}
-		for (List<JavaClass> decompileBatch : batches) {
-			tasks.add(() -> {
-				for (JavaClass cls : decompileBatch) {
-					try {
-						ClassNode clsNode = cls.getClassNode();
-						ICodeInfo code = clsNode.getCode();
-						SaveCode.save(outDir, clsNode, code);
-					} catch (Exception e) {
-						LOG.error("Error saving class: {}", cls, e);
+		final Consumer<JavaClass> saveAction = new Consumer<JavaClass>() {
+			@Override
+			public void accept(JavaClass cls) {
+				try {
+					ClassNode clsNode = cls.getClassNode();
+					ICodeInfo code = clsNode.getCode();
+					SaveCode.save(outDir, clsNode, code);
+				} catch (Exception e) {
+					LOG.error("Error saving class: {}", cls, e);
+				}
+			}
+		};
+		for (final List<JavaClass> decompileBatch : batches) {
+			if (wsExecutor != null) {
+				tasks.add(wsExecutor.buildBatchTask(decompileBatch, saveAction));
+				continue;
+			}
+			tasks.add(new Runnable() {
+				@Override
+				public void run() {
+					for (JavaClass cls : decompileBatch) {
+						saveAction.accept(cls);
 					}
 				}
 			});
@@ -498,6 +567,42 @@ public final class JadxDecompiler implements Closeable {
 		return root.getErrorsCounter().getWarnsCount();
 	}
 	
+	/**
+	 * Passes stats, available only if enabled by {@link JadxArgs#setProfilePasses(boolean)}
+	 */
+	@Nullable
+	public PassesProfiler getPassesProfiler() {
+		if (root == null) {
+			return null;
+		}
+		return root.getPassesProfiler();
+	}
+	
+	/**
+	 * Bytecode cross-references index (field reads/writes, method calls, class usages),
+	 * built on first call without code decompilation.
+	 * Return null if called before {@link #load()}.
+	 */
+	@Nullable
+	public UsageIndex getUsageIndex() {
+		if (root == null) {
+			return null;
+		}
+		return root.getUsageIndex();
+	}
+	
+	/**
+	 * Search index over generated code, available only if enabled by {@link JadxArgs#setBuildSearchIndex(boolean)}
+	 */
+	@Nullable
+	public CodeSearchIndex getSearchIndex() {
+		ICodeCache codeCache = args.getCodeCache();
+		if (codeCache instanceof SearchIndexCodeCache) {
+			return ((SearchIndexCodeCache) codeCache).getIndex();
+		}
+		return null;
+	}
+	
 	public void printErrorsReport() {
 		if (root == null) {
 			return;
@@ -514,6 +619,13 @@ public final class JadxDecompiler implements Closeable {
 		return root;
 	}
 	
+	/**
+	 * Opened zip files shared by resource loading tasks
+	 */
+	ZipFilePool getZipFilePool() {
+		return zipFilePool;
+	}
+	
 	synchronized BinaryXMLParser getBinaryXmlParser() {
 		if (binaryXmlParser == null) {
 			binaryXmlParser = new BinaryXMLParser(root);
@@ -565,53 +677,34 @@ public final class JadxDecompiler implements Closeable {
 	}
 	
 	@Nullable
-public JavaClass searchJavaClassByOrigFullName(String fullName) {
-    List<ClassNode> classNodes = getRoot().getClasses();
-    for (ClassNode classNode : classNodes) {
-        if (classNode.getClassInfo().getFullName().equals(fullName)) {
-            return convertClassNode(classNode);
-        }
-    }
-    return null;
-}
+	public JavaClass searchJavaClassByOrigFullName(String fullName) {
+		ClassNode classNode = getRoot().searchClassByOrigFullName(fullName);
+		return classNode != null ? convertClassNode(classNode) : null;
+	}
 	
 	@Nullable
 	public ClassNode searchClassNodeByOrigFullName(String fullName) {
-    List<ClassNode> classNodes = getRoot().getClasses();
-    for (ClassNode classNode : classNodes) {
-        if (classNode.getFullName().equals(fullName)) {
-            return classNode;
-        }
-    }
-    return null;
-}
+		return getRoot().searchClassByOrigFullName(fullName);
+	}
 	
 	// returns parent if class contains DONT_GENERATE flag.
 	@Nullable
 	public JavaClass searchJavaClassOrItsParentByOrigFullName(String fullName) {
-    List<ClassNode> classNodes = getRoot().getClasses();
-    for (ClassNode node : classNodes) {
-        if (node.getClassInfo().getFullName().equals(fullName)) {
-            if (node.contains(AFlag.DONT_GENERATE)) {
-                return convertClassNode(node.getTopParentClass());
-            } else {
-                return convertClassNode(node);
-            }
-        }
-    }
-    return null;
-}
+		ClassNode node = getRoot().searchClassByOrigFullName(fullName);
+		if (node == null) {
+			return null;
+		}
+		if (node.contains(AFlag.DONT_GENERATE)) {
+			return convertClassNode(node.getTopParentClass());
+		}
+		return convertClassNode(node);
+	}
 	
 	@Nullable
 	public JavaClass searchJavaClassByAliasFullName(String fullName) {
-    List<ClassNode> classNodes = getRoot().getClasses();
-    for (ClassNode node : classNodes) {
-        if (node.getClassInfo().getAliasFullName().equals(fullName)) {
-            return convertClassNode(node);
-        }
-    }
-    return null;
-}
+		ClassNode node = getRoot().searchClassByAliasFullName(fullName);
+		return node != null ? convertClassNode(node) : null;
+	}
 	
 	@Nullable
 	public JavaNode getJavaNodeByRef(ICodeNodeRef ann) {
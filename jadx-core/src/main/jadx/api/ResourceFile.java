@@ -2,6 +2,8 @@ package jadx.api;
 
 import java.io.File;
 
+import com.custom.Consumer;
+
 import jadx.api.plugins.utils.ZipSecurity;
 import jadx.core.xmlgen.ResContainer;
 import jadx.core.xmlgen.entry.ResourceEntry;
@@ -70,6 +72,14 @@ public class ResourceFile {
 		return ResourcesLoader.loadContent(decompiler, this);
 	}
 
+	/**
+	 * Same as {@link #loadContent()}, but for resources table values files passed to consumer
+	 * one by one instead of collecting all in sub files list.
+	 */
+	public ResContainer loadContent(Consumer<ResContainer> subFilesConsumer) {
+		return ResourcesLoader.loadContent(decompiler, this, subFilesConsumer);
+	}
+
 	void setZipRef(ZipRef zipRef) {
 		this.zipRef = zipRef;
 	}
@@ -87,6 +97,10 @@ public class ResourceFile {
 		return zipRef;
 	}
 
+	JadxDecompiler getDecompiler() {
+		return decompiler;
+	}
+
 	@Override
 	public String toString() {
 		return "ResourceFile{name='" + name + '\'' + ", type=" + type + '}';
@@ -4,24 +4,36 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import com.custom.Consumer;
+
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.api.ResourceFile.ZipRef;
 import jadx.api.impl.SimpleCodeInfo;
+import jadx.api.plugins.utils.StoredZipEntries;
 import jadx.api.plugins.utils.ZipSecurity;
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.utils.Utils;
 import jadx.core.utils.android.Res9patchStreamDecoder;
 import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.files.FileUtils;
+import jadx.core.utils.files.ZipFilePool;
 import jadx.core.xmlgen.ResContainer;
 import jadx.core.xmlgen.ResProtoParser;
 import jadx.core.xmlgen.ResTableParser;
@@ -33,6 +45,14 @@ import static jadx.core.utils.files.FileUtils.copyStream;
 public final class ResourcesLoader {
 	private static final Logger LOG = LoggerFactory.getLogger(ResourcesLoader.class);
 
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+	private static final ThreadLocal<byte[]> COPY_BUFFER = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[COPY_BUFFER_SIZE];
+		}
+	};
+
 	private final JadxDecompiler jadxRef;
 
 	ResourcesLoader(JadxDecompiler jadxRef) {
@@ -52,6 +72,10 @@ public final class ResourcesLoader {
 		T decode(long size, InputStream is) throws IOException;
 	}
 
+	public interface ResourceBufferDecoder<T> {
+		T decode(ByteBuffer buffer) throws IOException;
+	}
+
 	public static <T> T decodeStream(ResourceFile rf, ResourceDecoder<T> decoder) throws JadxException {
 		try {
 			ZipRef zipRef = rf.getZipRef();
@@ -61,7 +85,8 @@ public final class ResourcesLoader {
 					return decoder.decode(file.length(), inputStream);
 				}
 			} else {
-				try (ZipFile zipFile = new ZipFile(zipRef.getZipFile())) {
+				try (ZipFilePool.Handle zipHandle = acquireZip(rf, zipRef)) {
+					ZipFile zipFile = zipHandle.getZipFile();
 					ZipEntry entry = zipFile.getEntry(zipRef.getEntryName());
 					if (entry == null) {
 						throw new IOException("Zip entry not found: " + zipRef);
@@ -79,9 +104,163 @@ public final class ResourcesLoader {
 		}
 	}
 
+	/**
+	 * Same as {@link #decodeStream(ResourceFile, ResourceDecoder)}, but plain files and stored (not compressed)
+	 * zip entries passed to {@code bufferDecoder} as memory-mapped buffer without copy into heap.
+	 * Android requires resources.arsc to be stored since API 30, so usually it is not loaded into heap.
+	 * Compressed entries decoded by {@code streamDecoder}.
+	 */
+	public static <T> T decodeMapped(ResourceFile rf, ResourceBufferDecoder<T> bufferDecoder,
+			ResourceDecoder<T> streamDecoder) throws JadxException {
+		ByteBuffer buffer;
+		try {
+			buffer = mapResource(rf);
+		} catch (Exception e) {
+			LOG.debug("Failed to map resource: {}, fallback to stream", rf.getOriginalName(), e);
+			buffer = null;
+		}
+		if (buffer == null) {
+			return decodeStream(rf, streamDecoder);
+		}
+		try {
+			return bufferDecoder.decode(buffer);
+		} catch (Exception e) {
+			throw new JadxException("Error decode: " + rf.getDeobfName(), e);
+		}
+	}
+
+	/**
+	 * @return null if resource can't be mapped (compressed zip entry)
+	 */
+	@Nullable
+	private static ByteBuffer mapResource(ResourceFile rf) throws IOException {
+		ZipRef zipRef = rf.getZipRef();
+		if (zipRef == null) {
+			File file = new File(rf.getOriginalName());
+			return mapFile(file, 0, file.length());
+		}
+		try (ZipFilePool.Handle zipHandle = acquireZip(rf, zipRef)) {
+			ZipEntry entry = zipHandle.getZipFile().getEntry(zipRef.getEntryName());
+			if (entry == null || !ZipSecurity.isValidZipEntry(entry)) {
+				// errors reported by stream decoding
+				return null;
+			}
+			StoredZipEntries.Entry storedEntry = zipHandle.getStoredEntry(entry.getName());
+			if (storedEntry == null || storedEntry.getSize() != entry.getSize()) {
+				return null;
+			}
+			return mapFile(zipHandle.getFile(), storedEntry.getDataOffset(), storedEntry.getSize());
+		}
+	}
+
+	@Nullable
+	private static ByteBuffer mapFile(File file, long offset, long size) throws IOException {
+		if (size <= 0 || size > Integer.MAX_VALUE) {
+			return null;
+		}
+		try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+			// mapping stays valid after channel close
+			return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+		}
+	}
+
+	/**
+	 * Save resource file without decoding.
+	 * Stored zip entries transferred from zip file by channels without copy into heap,
+	 * compressed entries inflated through reusable per thread buffer,
+	 * so memory usage not depends on file size.
+	 */
+	public static void saveRawResource(ResourceFile rf, File outFile) throws JadxException {
+		try {
+			ZipRef zipRef = rf.getZipRef();
+			if (zipRef == null) {
+				Files.copy(new File(rf.getOriginalName()).toPath(), outFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				return;
+			}
+			try (ZipFilePool.Handle zipHandle = acquireZip(rf, zipRef)) {
+				ZipFile zipFile = zipHandle.getZipFile();
+				ZipEntry entry = zipFile.getEntry(zipRef.getEntryName());
+				if (entry == null) {
+					throw new IOException("Zip entry not found: " + zipRef);
+				}
+				if (!ZipSecurity.isValidZipEntry(entry)) {
+					return;
+				}
+				StoredZipEntries.Entry storedEntry = zipHandle.getStoredEntry(entry.getName());
+				if (storedEntry != null && storedEntry.getSize() == entry.getSize()) {
+					transferStoredEntry(zipHandle.getFile(), storedEntry, outFile);
+				} else {
+					copyZipEntry(zipFile, entry, outFile);
+				}
+			}
+		} catch (Exception e) {
+			deletePartialFile(outFile);
+			throw new JadxException("Resource file save error: " + rf.getDeobfName(), e);
+		}
+	}
+
+	private static void transferStoredEntry(File zipFile, StoredZipEntries.Entry entry, File outFile) throws IOException {
+		try (FileChannel in = new RandomAccessFile(zipFile, "r").getChannel();
+				FileChannel out = new FileOutputStream(outFile).getChannel()) {
+			long pos = entry.getDataOffset();
+			long remaining = entry.getSize();
+			while (remaining > 0) {
+				long transferred = in.transferTo(pos, remaining, out);
+				if (transferred <= 0) {
+					throw new IOException("Unexpected end of zip file, entry: " + entry);
+				}
+				pos += transferred;
+				remaining -= transferred;
+			}
+		}
+	}
+
+	private static void copyZipEntry(ZipFile zipFile, ZipEntry entry, File outFile) throws IOException {
+		byte[] buffer = COPY_BUFFER.get();
+		try (InputStream in = ZipSecurity.getUnbufferedInputStreamForEntry(zipFile, entry);
+				OutputStream out = new FileOutputStream(outFile)) {
+			while (true) {
+				int count = in.read(buffer);
+				if (count == -1) {
+					break;
+				}
+				out.write(buffer, 0, count);
+			}
+		}
+	}
+
+	private static void deletePartialFile(File file) {
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (Exception e) {
+			LOG.warn("Failed to delete partially written file: {}", file, e);
+		}
+	}
+
+	private static ZipFilePool.Handle acquireZip(ResourceFile rf, ZipRef zipRef) throws IOException {
+		JadxDecompiler decompiler = rf.getDecompiler();
+		if (decompiler != null) {
+			return decompiler.getZipFilePool().acquire(zipRef.getZipFile());
+		}
+		// not pooled, file will be closed on handle release
+		ZipFilePool pool = new ZipFilePool();
+		ZipFilePool.Handle handle = pool.acquire(zipRef.getZipFile());
+		pool.close();
+		return handle;
+	}
+
 	static ResContainer loadContent(JadxDecompiler jadxRef, ResourceFile rf) {
+		return loadContent(jadxRef, rf, null);
+	}
+
+	static ResContainer loadContent(JadxDecompiler jadxRef, ResourceFile rf, @Nullable Consumer<ResContainer> subFilesConsumer) {
 		try {
-			return decodeStream(rf, (size, is) -> loadContent(jadxRef, rf, is));
+			if (rf.getType() == ResourceType.ARSC && !jadxRef.getRoot().isProto()) {
+				return decodeMapped(rf,
+						buf -> loadTableContent(jadxRef, buf, subFilesConsumer),
+						(size, is) -> loadContent(jadxRef, rf, is, subFilesConsumer));
+			}
+			return decodeStream(rf, (size, is) -> loadContent(jadxRef, rf, is, subFilesConsumer));
 		} catch (JadxException e) {
 			LOG.error("Decode error", e);
 			ICodeWriter cw = jadxRef.getRoot().makeCodeWriter();
@@ -92,7 +271,7 @@ public final class ResourcesLoader {
 	}
 
 	private static ResContainer loadContent(JadxDecompiler jadxRef, ResourceFile rf,
-			InputStream inputStream) throws IOException {
+			InputStream inputStream, @Nullable Consumer<ResContainer> subFilesConsumer) throws IOException {
 		RootNode root = jadxRef.getRoot();
 		switch (rf.getType()) {
 			case MANIFEST:
@@ -107,6 +286,12 @@ public final class ResourcesLoader {
 			}
 
 			case ARSC:
+				if (subFilesConsumer != null) {
+					if (root.isProto()) {
+						return new ResProtoParser(root).decodeFiles(inputStream, subFilesConsumer);
+					}
+					return new ResTableParser(root).decodeFiles(inputStream, subFilesConsumer);
+				}
 				if (root.isProto()) {
 					return new ResProtoParser(root).decodeFiles(inputStream);
 				} else {
@@ -121,6 +306,15 @@ public final class ResourcesLoader {
 		}
 	}
 
+	private static ResContainer loadTableContent(JadxDecompiler jadxRef, ByteBuffer buffer,
+			@Nullable Consumer<ResContainer> subFilesConsumer) throws IOException {
+		ResTableParser parser = new ResTableParser(jadxRef.getRoot());
+		if (subFilesConsumer != null) {
+			return parser.decodeFiles(buffer, subFilesConsumer);
+		}
+		return parser.decodeFiles(buffer);
+	}
+
 	private static ResContainer decodeImage(ResourceFile rf, InputStream inputStream) {
 		String name = rf.getOriginalName();
 		if (name.endsWith(".9.png")) {
@@ -0,0 +1,405 @@
+package jadx.api.impl;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.ICodeCache;
+import jadx.api.ICodeInfo;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * In-memory code cache with limited size.
+ * <br>
+ * Entries size estimated from code length and metadata entries count,
+ * least recently used entries are evicted then size exceeds {@code maxBytes}.
+ * Evicted entries moved into {@code spillCache} (if set)
+ * or kept by soft references, so they will be reclaimed by GC only on memory pressure.
+ * Spill cache must not keep entries in memory, for disk cache use
+ * {@code new DiskCodeCache(root, dir, NoOpCodeCache.INSTANCE)}
+ * (default {@link DiskCodeCache} constructor wraps {@link InMemoryCodeCache}).
+ * <br>
+ * Spill cache writes done outside of lock, entries stay in pending map (and available for {@link #get(String)})
+ * until written. Entries loaded from spill cache not written again on next eviction.
+ */
+public class BoundedCodeCache implements ICodeCache {
+
+	/**
+	 * Approximate heap size of one metadata entry: boxed key, annotation object and tree map node
+	 */
+	private static final int METADATA_ENTRY_SIZE = 80;
+	private static final int ENTRY_OVERHEAD = 128;
+
+	/**
+	 * Pending spill marker for removed entries
+	 */
+	private static final Entry REMOVED_ENTRY = new Entry(ICodeInfo.EMPTY, 0, false);
+
+	private final long maxBytes;
+	@Nullable
+	private final ICodeCache spillCache;
+
+	private final LinkedHashMap<String, Entry> storage = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, SoftEntry> softStorage = new HashMap<>();
+	private final ReferenceQueue<ICodeInfo> refQueue = new ReferenceQueue<>();
+	/**
+	 * Entries evicted (or removed) but not yet written into spill cache
+	 */
+	private final Map<String, Entry> pendingSpill = new HashMap<>();
+	/**
+	 * Keys currently written into spill cache by some thread
+	 */
+	private final Set<String> spillInProgress = new HashSet<>();
+	private long currentBytes;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong softHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public BoundedCodeCache(long maxBytes) {
+		this(maxBytes, null);
+	}
+
+	public BoundedCodeCache(long maxBytes, @Nullable ICodeCache spillCache) {
+		if (spillCache != null && keepsInMemory(spillCache)) {
+			throw new JadxRuntimeException("Spill cache keeps all entries in memory, size limit will not work: " + spillCache
+					+ ", use NoOpCodeCache as back cache for DiskCodeCache");
+		}
+		this.maxBytes = maxBytes;
+		this.spillCache = spillCache;
+	}
+
+	/**
+	 * Check if cache (or its back caches) is unbounded in-memory cache
+	 */
+	private static boolean keepsInMemory(ICodeCache cache) {
+		ICodeCache current = cache;
+		while (true) {
+			if (current instanceof InMemoryCodeCache) {
+				return true;
+			}
+			if (!(current instanceof DelegateCodeCache)) {
+				return false;
+			}
+			current = ((DelegateCodeCache) current).backCache;
+		}
+	}
+
+	@Override
+	public void add(String clsFullName, ICodeInfo codeInfo) {
+		put(clsFullName, codeInfo, false);
+	}
+
+	/**
+	 * @param onDisk entry loaded from spill cache, no need to write it again on eviction
+	 */
+	private void put(String clsFullName, ICodeInfo codeInfo, boolean onDisk) {
+		Entry entry = new Entry(codeInfo, estimateSize(codeInfo), onDisk);
+		List<String> spillKeys;
+		synchronized (storage) {
+			if (onDisk && (storage.containsKey(clsFullName) || pendingSpill.containsKey(clsFullName))) {
+				// code added or removed while loading from spill cache
+				return;
+			}
+			removeSoft(clsFullName);
+			Entry prev = storage.put(clsFullName, entry);
+			if (prev != null) {
+				currentBytes -= prev.size;
+			}
+			currentBytes += entry.size;
+			spillKeys = evict();
+		}
+		for (String spillKey : spillKeys) {
+			processSpill(spillKey);
+		}
+	}
+
+	@Override
+	public void remove(String clsFullName) {
+		boolean spill;
+		synchronized (storage) {
+			Entry prev = storage.remove(clsFullName);
+			if (prev != null) {
+				currentBytes -= prev.size;
+			}
+			removeSoft(clsFullName);
+			spill = spillCache != null && addPendingSpill(clsFullName, REMOVED_ENTRY);
+		}
+		if (spill) {
+			processSpill(clsFullName);
+		}
+	}
+
+	@NotNull
+	@Override
+	public ICodeInfo get(String clsFullName) {
+		ICodeInfo codeInfo;
+		boolean restore;
+		synchronized (storage) {
+			Entry entry = storage.get(clsFullName);
+			if (entry != null) {
+				hits.incrementAndGet();
+				return entry.codeInfo;
+			}
+			codeInfo = getEvicted(clsFullName);
+			restore = codeInfo != null && codeInfo != ICodeInfo.EMPTY;
+		}
+		if (restore) {
+			softHits.incrementAndGet();
+			// restore strong reference
+			add(clsFullName, codeInfo);
+			return codeInfo;
+		}
+		if (codeInfo == null && spillCache != null) {
+			ICodeInfo spilled = spillCache.get(clsFullName);
+			if (spilled != ICodeInfo.EMPTY) {
+				softHits.incrementAndGet();
+				put(clsFullName, spilled, true);
+				return spilled;
+			}
+		}
+		misses.incrementAndGet();
+		return ICodeInfo.EMPTY;
+	}
+
+	/**
+	 * Search in soft references and in entries waiting for write into spill cache.
+	 *
+	 * @return {@link ICodeInfo#EMPTY} if entry removed and not yet deleted from spill cache,
+	 *         null if spill cache should be checked
+	 */
+	@Nullable
+	private ICodeInfo getEvicted(String clsFullName) {
+		Entry pending = pendingSpill.get(clsFullName);
+		if (pending != null) {
+			return pending.codeInfo;
+		}
+		SoftEntry softEntry = softStorage.get(clsFullName);
+		if (softEntry != null) {
+			return softEntry.get();
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable String getCode(String clsFullName) {
+		ICodeInfo codeInfo = get(clsFullName);
+		if (codeInfo == ICodeInfo.EMPTY) {
+			return null;
+		}
+		return codeInfo.getCodeStr();
+	}
+
+	@Override
+	public boolean contains(String clsFullName) {
+		synchronized (storage) {
+			if (storage.containsKey(clsFullName)) {
+				return true;
+			}
+			ICodeInfo evicted = getEvicted(clsFullName);
+			if (evicted != null) {
+				return evicted != ICodeInfo.EMPTY;
+			}
+		}
+		return spillCache != null && spillCache.contains(clsFullName);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (storage) {
+			storage.clear();
+			softStorage.clear();
+			// writers in progress will find no pending entry and stop
+			pendingSpill.clear();
+			spillInProgress.clear();
+			currentBytes = 0;
+		}
+		if (spillCache != null) {
+			spillCache.close();
+		}
+	}
+
+	/**
+	 * Evict least recently used entries, should be called under lock.
+	 *
+	 * @return keys added into pending spill and claimed for write by current thread
+	 */
+	private List<String> evict() {
+		expungeCleared();
+		if (currentBytes <= maxBytes) {
+			return Collections.emptyList();
+		}
+		List<String> spillKeys = new ArrayList<>();
+		Iterator<Map.Entry<String, Entry>> it = storage.entrySet().iterator();
+		while (currentBytes > maxBytes && it.hasNext()) {
+			Map.Entry<String, Entry> mapEntry = it.next();
+			String clsName = mapEntry.getKey();
+			Entry entry = mapEntry.getValue();
+			it.remove();
+			currentBytes -= entry.size;
+			evictions.incrementAndGet();
+			if (spillCache == null) {
+				softStorage.put(clsName, new SoftEntry(clsName, entry.codeInfo, refQueue));
+			} else if (!entry.onDisk || pendingSpill.containsKey(clsName)) {
+				// entries loaded from spill cache already on disk, just drop them
+				if (addPendingSpill(clsName, entry)) {
+					spillKeys.add(clsName);
+				}
+			}
+		}
+		return spillKeys;
+	}
+
+	/**
+	 * Put entry into pending spill map, should be called under lock.
+	 *
+	 * @return true if key claimed for write by current thread,
+	 *         false if other thread already writing this key (it will pick up new entry)
+	 */
+	private boolean addPendingSpill(String clsFullName, Entry entry) {
+		pendingSpill.put(clsFullName, entry);
+		return spillInProgress.add(clsFullName);
+	}
+
+	/**
+	 * Write pending entries for claimed key into spill cache outside of lock,
+	 * so other threads not blocked on disk I/O.
+	 * Only one thread writes same key, so last pending entry always written last.
+	 */
+	private void processSpill(String clsFullName) {
+		boolean done = false;
+		try {
+			while (!done) {
+				Entry entry;
+				synchronized (storage) {
+					entry = pendingSpill.get(clsFullName);
+					if (entry == null) {
+						done = true;
+						break;
+					}
+				}
+				if (entry == REMOVED_ENTRY) {
+					spillCache.remove(clsFullName);
+				} else {
+					spillCache.add(clsFullName, entry.codeInfo);
+				}
+				synchronized (storage) {
+					if (pendingSpill.get(clsFullName) == entry) {
+						pendingSpill.remove(clsFullName);
+						done = true;
+					}
+				}
+			}
+		} finally {
+			synchronized (storage) {
+				if (!done) {
+					// spill failed, drop pending entry to not hide spill cache content forever
+					pendingSpill.remove(clsFullName);
+				}
+				spillInProgress.remove(clsFullName);
+			}
+		}
+	}
+
+	private void removeSoft(String clsFullName) {
+		SoftEntry softEntry = softStorage.remove(clsFullName);
+		if (softEntry != null) {
+			softEntry.clear();
+		}
+	}
+
+	private void expungeCleared() {
+		while (true) {
+			SoftEntry cleared = (SoftEntry) refQueue.poll();
+			if (cleared == null) {
+				return;
+			}
+			if (softStorage.get(cleared.clsName) == cleared) {
+				softStorage.remove(cleared.clsName);
+			}
+		}
+	}
+
+	private static long estimateSize(ICodeInfo codeInfo) {
+		long size = ENTRY_OVERHEAD + 2L * codeInfo.getCodeStr().length();
+		if (codeInfo.hasMetadata()) {
+			size += (long) METADATA_ENTRY_SIZE * (codeInfo.getCodeMetadata().getAsMap().size()
+					+ codeInfo.getCodeMetadata().getLineMapping().size());
+		}
+		return size;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public long getCurrentBytes() {
+		synchronized (storage) {
+			return currentBytes;
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Hits for entries restored from soft references or from spill cache
+	 */
+	public long getSoftHits() {
+		return softHits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	private static final class Entry {
+		private final ICodeInfo codeInfo;
+		private final long size;
+		private final boolean onDisk;
+
+		private Entry(ICodeInfo codeInfo, long size, boolean onDisk) {
+			this.codeInfo = codeInfo;
+			this.size = size;
+			this.onDisk = onDisk;
+		}
+	}
+
+	private static final class SoftEntry extends SoftReference<ICodeInfo> {
+		private final String clsName;
+
+		private SoftEntry(String clsName, ICodeInfo codeInfo, ReferenceQueue<ICodeInfo> queue) {
+			super(codeInfo, queue);
+			this.clsName = clsName;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BoundedCodeCache: size=" + getCurrentBytes() + '/' + maxBytes
+				+ ", hits=" + getHits()
+				+ ", softHits=" + getSoftHits()
+				+ ", misses=" + getMisses()
+				+ ", evictions=" + getEvictions()
+				+ (spillCache != null ? ", spill=" + spillCache : "");
+	}
+}
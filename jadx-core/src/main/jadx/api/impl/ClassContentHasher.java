@@ -0,0 +1,326 @@
+package jadx.api.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.plugins.input.data.ICallSite;
+import jadx.api.plugins.input.data.ICatch;
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IDebugInfo;
+import jadx.api.plugins.input.data.IFieldData;
+import jadx.api.plugins.input.data.IFieldRef;
+import jadx.api.plugins.input.data.ILocalVar;
+import jadx.api.plugins.input.data.IMethodData;
+import jadx.api.plugins.input.data.IMethodHandle;
+import jadx.api.plugins.input.data.IMethodProto;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.data.ITry;
+import jadx.api.plugins.input.data.annotations.EncodedValue;
+import jadx.api.plugins.input.data.annotations.IAnnotation;
+import jadx.api.plugins.input.data.attributes.IJadxAttribute;
+import jadx.api.plugins.input.data.attributes.types.AnnotationDefaultAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationDefaultClassAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationMethodParamsAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationsAttr;
+import jadx.api.plugins.input.insns.InsnData;
+import jadx.api.plugins.input.insns.Opcode;
+import jadx.api.plugins.input.insns.custom.IArrayPayload;
+import jadx.api.plugins.input.insns.custom.ICustomPayload;
+import jadx.api.plugins.input.insns.custom.ISwitchPayload;
+import jadx.core.utils.input.InsnDataUtils;
+
+/**
+ * Feed class input data into digest: flags, members, decoded instructions, debug info and attributes.
+ * <br>
+ * Works directly with {@link IClassData}, so smali disassembly and dex content copy not needed.
+ * All pool references resolved into names, so hash not changed if only other classes in same dex changed.
+ */
+final class ClassContentHasher {
+	private static final byte[] NULL_MARK = { 0 };
+
+	private final MessageDigest md;
+
+	ClassContentHasher(MessageDigest md) {
+		this.md = md;
+	}
+
+	void addClass(IClassData clsData) {
+		add(clsData.getType());
+		add(clsData.getAccessFlags());
+		add(clsData.getSuperType());
+		addStrings(clsData.getInterfacesTypes());
+		addAttributes(clsData.getAttributes());
+		// use copy: class data can be used concurrently by decompilation
+		clsData.copy().visitFieldsAndMethods(this::addField, this::addMethod);
+	}
+
+	private void addField(IFieldData fld) {
+		addFieldRef(fld);
+		add(fld.getAccessFlags());
+		addAttributes(fld.getAttributes());
+	}
+
+	private void addMethod(IMethodData mth) {
+		addMethodRef(mth.getMethodRef());
+		add(mth.getAccessFlags());
+		addAttributes(mth.getAttributes());
+		ICodeReader codeReader = mth.getCodeReader();
+		if (codeReader == null) {
+			add(-1);
+			return;
+		}
+		add(codeReader.getRegistersCount());
+		add(codeReader.getArgsStartReg());
+		add(codeReader.getUnitsCount());
+		for (ITry tryData : codeReader.getTries()) {
+			add(tryData.getStartOffset());
+			add(tryData.getEndOffset());
+			ICatch catchData = tryData.getCatch();
+			addStrings(catchData.getTypes());
+			addInts(catchData.getHandlers());
+			add(catchData.getCatchAllHandler());
+		}
+		addDebugInfo(codeReader.getDebugInfo());
+		codeReader.copy().visitInstructions(this::addInsn);
+	}
+
+	private void addDebugInfo(@Nullable IDebugInfo debugInfo) {
+		if (debugInfo == null) {
+			add(-1);
+			return;
+		}
+		for (Map.Entry<Integer, Integer> entry : debugInfo.getSourceLineMapping().entrySet()) {
+			add(entry.getKey());
+			add(entry.getValue());
+		}
+		for (ILocalVar var : debugInfo.getLocalVars()) {
+			add(var.getName());
+			add(var.getRegNum());
+			add(var.getType());
+			add(var.getSignature());
+			add(var.getStartOffset());
+			add(var.getEndOffset());
+		}
+	}
+
+	private void addInsn(InsnData insn) {
+		add(insn.getOffset());
+		Opcode opcode = insn.getOpcode();
+		if (opcode == Opcode.UNKNOWN) {
+			add(insn.getRawOpcodeUnit());
+			return;
+		}
+		insn.decode();
+		add(opcode.name());
+		int regsCount = insn.getRegsCount();
+		add(regsCount);
+		for (int i = 0; i < regsCount; i++) {
+			add(insn.getReg(i));
+		}
+		add(insn.getLiteral());
+		switch (insn.getIndexType()) {
+			case STRING_REF:
+				add(insn.getIndexAsString());
+				break;
+			case TYPE_REF:
+				add(insn.getIndexAsType());
+				break;
+			case FIELD_REF:
+				addFieldRef(insn.getIndexAsField());
+				break;
+			case METHOD_REF:
+				addMethodRef(InsnDataUtils.getMethodRef(insn));
+				if (opcode == Opcode.INVOKE_POLYMORPHIC || opcode == Opcode.INVOKE_POLYMORPHIC_RANGE) {
+					// target is proto index
+					addProto(insn.getIndexAsProto(insn.getTarget()));
+					return;
+				}
+				break;
+			case CALL_SITE:
+				ICallSite callSite = InsnDataUtils.getCallSite(insn);
+				if (callSite != null) {
+					callSite.load();
+					addValue(callSite.getValues());
+				}
+				break;
+			default:
+				break;
+		}
+		add(insn.getTarget());
+		addPayload(insn.getPayload());
+	}
+
+	private void addPayload(@Nullable ICustomPayload payload) {
+		if (payload instanceof ISwitchPayload) {
+			ISwitchPayload switchPayload = (ISwitchPayload) payload;
+			addInts(switchPayload.getKeys());
+			addInts(switchPayload.getTargets());
+		} else if (payload instanceof IArrayPayload) {
+			IArrayPayload arrayPayload = (IArrayPayload) payload;
+			add(arrayPayload.getSize());
+			add(arrayPayload.getElementSize());
+			addArrayData(arrayPayload.getData());
+		}
+	}
+
+	private void addArrayData(Object data) {
+		if (data instanceof byte[]) {
+			md.update((byte[]) data);
+		} else if (data instanceof short[]) {
+			for (short value : (short[]) data) {
+				add(value);
+			}
+		} else if (data instanceof int[]) {
+			addInts((int[]) data);
+		} else if (data instanceof long[]) {
+			for (long value : (long[]) data) {
+				add(value);
+			}
+		} else {
+			addValue(data);
+		}
+	}
+
+	private void addAttributes(List<IJadxAttribute> attributes) {
+		for (IJadxAttribute attr : attributes) {
+			add(attr.getClass().getName());
+			if (attr instanceof AnnotationsAttr) {
+				addAnnotations((AnnotationsAttr) attr);
+			} else if (attr instanceof AnnotationMethodParamsAttr) {
+				for (AnnotationsAttr paramAnnotations : ((AnnotationMethodParamsAttr) attr).getParamList()) {
+					addAnnotations(paramAnnotations);
+				}
+			} else if (attr instanceof AnnotationDefaultAttr) {
+				addValue(((AnnotationDefaultAttr) attr).getValue());
+			} else if (attr instanceof AnnotationDefaultClassAttr) {
+				addValue(((AnnotationDefaultClassAttr) attr).getValues());
+			} else {
+				// other attributes contain only strings and numbers
+				addValue(attr);
+			}
+		}
+	}
+
+	private void addAnnotations(@Nullable AnnotationsAttr annotations) {
+		if (annotations == null) {
+			md.update(NULL_MARK);
+			return;
+		}
+		for (IAnnotation annotation : annotations.getList()) {
+			addValue(annotation);
+		}
+	}
+
+	private void addValue(@Nullable Object value) {
+		if (value == null) {
+			md.update(NULL_MARK);
+		} else if (value instanceof EncodedValue) {
+			EncodedValue encodedValue = (EncodedValue) value;
+			add(encodedValue.getType().name());
+			addValue(encodedValue.getValue());
+		} else if (value instanceof IAnnotation) {
+			IAnnotation annotation = (IAnnotation) value;
+			add(annotation.getAnnotationClass());
+			add(annotation.getVisibility().name());
+			addValue(annotation.getValues());
+		} else if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			add(list.size());
+			for (Object element : list) {
+				addValue(element);
+			}
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			add(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				addValue(entry.getKey());
+				addValue(entry.getValue());
+			}
+		} else if (value instanceof IFieldRef) {
+			addFieldRef((IFieldRef) value);
+		} else if (value instanceof IMethodRef) {
+			addMethodRef((IMethodRef) value);
+		} else if (value instanceof IMethodProto) {
+			addProto((IMethodProto) value);
+		} else if (value instanceof IMethodHandle) {
+			IMethodHandle handle = (IMethodHandle) value;
+			handle.load();
+			add(handle.getType().name());
+			if (handle.getType().isField()) {
+				addFieldRef(handle.getFieldRef());
+			} else {
+				addMethodRef(handle.getMethodRef());
+			}
+		} else {
+			add(value.toString());
+		}
+	}
+
+	private void addFieldRef(@Nullable IFieldRef fieldRef) {
+		if (fieldRef == null) {
+			md.update(NULL_MARK);
+			return;
+		}
+		add(fieldRef.getParentClassType());
+		add(fieldRef.getName());
+		add(fieldRef.getType());
+	}
+
+	private void addMethodRef(@Nullable IMethodRef mthRef) {
+		if (mthRef == null) {
+			md.update(NULL_MARK);
+			return;
+		}
+		mthRef.load();
+		add(mthRef.getParentClassType());
+		add(mthRef.getName());
+		addProto(mthRef);
+	}
+
+	private void addProto(IMethodProto proto) {
+		add(proto.getReturnType());
+		addStrings(proto.getArgTypes());
+	}
+
+	private void addStrings(List<String> list) {
+		add(list.size());
+		for (String str : list) {
+			add(str);
+		}
+	}
+
+	private void addStrings(String[] array) {
+		add(array.length);
+		for (String str : array) {
+			add(str);
+		}
+	}
+
+	private void addInts(int[] array) {
+		add(array.length);
+		for (int value : array) {
+			add(value);
+		}
+	}
+
+	private void add(@Nullable String str) {
+		if (str == null) {
+			md.update(NULL_MARK);
+			return;
+		}
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		add(bytes.length);
+		md.update(bytes);
+	}
+
+	private void add(long value) {
+		for (int i = 0; i < 8; i++) {
+			md.update((byte) (value >>> (i * 8)));
+		}
+	}
+}
@@ -0,0 +1,435 @@
+package jadx.api.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.ICodeInfo;
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeMetadata;
+import jadx.api.metadata.ICodeNodeRef;
+import jadx.api.metadata.annotations.InsnCodeOffset;
+import jadx.api.metadata.annotations.NodeDeclareRef;
+import jadx.api.metadata.annotations.NodeEnd;
+import jadx.api.metadata.annotations.VarNode;
+import jadx.api.metadata.annotations.VarRef;
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.instructions.args.PrimitiveType;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Compact binary format for {@link ICodeInfo}: code text, line mapping and code annotations.
+ * <br>
+ * Nodes referenced from annotations are stored by class raw name and method/field short id,
+ * so they can be resolved back only against {@link RootNode} loaded from the same input.
+ */
+public class CodeInfoSerializer {
+
+	private static final int TAG_CLASS = 1;
+	private static final int TAG_METHOD = 2;
+	private static final int TAG_FIELD = 3;
+	private static final int TAG_DECLARATION = 4;
+	private static final int TAG_VAR = 5;
+	private static final int TAG_VAR_REF = 6;
+	private static final int TAG_OFFSET = 7;
+	private static final int TAG_END = 8;
+
+	private static final int TYPE_NULL = 0;
+	private static final int TYPE_PRIMITIVE = 1;
+	private static final int TYPE_OBJECT = 2;
+	private static final int TYPE_GENERIC_TYPE = 3;
+	private static final int TYPE_WILDCARD = 4;
+	private static final int TYPE_GENERIC = 5;
+	private static final int TYPE_OUTER_GENERIC = 6;
+	private static final int TYPE_ARRAY = 7;
+	private static final int TYPE_UNKNOWN = 8;
+
+	private final RootNode root;
+
+	public CodeInfoSerializer(RootNode root) {
+		this.root = root;
+	}
+
+	public void write(DataOutputStream out, ICodeInfo codeInfo) throws IOException {
+		byte[] codeBytes = codeInfo.getCodeStr().getBytes(StandardCharsets.UTF_8);
+		out.writeInt(codeBytes.length);
+		out.write(codeBytes);
+
+		ICodeMetadata metadata = codeInfo.getCodeMetadata();
+		Map<Integer, Integer> lines = new TreeMap<>(metadata.getLineMapping());
+		Map<Integer, ICodeAnnotation> annotations = new TreeMap<>(metadata.getAsMap());
+
+		// annotations written into separate buffer to collect string table first
+		Writer writer = new Writer();
+		DataOutputStream annOut = new DataOutputStream(writer.buffer);
+		writeVarInt(annOut, annotations.size());
+		int prevPos = 0;
+		for (Map.Entry<Integer, ICodeAnnotation> entry : annotations.entrySet()) {
+			int pos = entry.getKey();
+			writeVarInt(annOut, pos - prevPos);
+			writer.writeAnnotation(annOut, entry.getValue());
+			prevPos = pos;
+		}
+		annOut.flush();
+
+		List<String> strings = writer.strings;
+		writeVarInt(out, strings.size());
+		for (String str : strings) {
+			out.writeUTF(str);
+		}
+		writeVarInt(out, lines.size());
+		int prevLine = 0;
+		for (Map.Entry<Integer, Integer> entry : lines.entrySet()) {
+			int line = entry.getKey();
+			writeVarInt(out, line - prevLine);
+			writeVarInt(out, entry.getValue());
+			prevLine = line;
+		}
+		writer.buffer.writeTo(out);
+	}
+
+	/**
+	 * @return null if any of referenced nodes can't be resolved
+	 */
+	@Nullable
+	public ICodeInfo read(DataInput in) throws IOException {
+		int codeLen = in.readInt();
+		byte[] codeBytes = new byte[codeLen];
+		in.readFully(codeBytes);
+		String code = new String(codeBytes, StandardCharsets.UTF_8);
+
+		int stringsCount = readVarInt(in);
+		String[] strings = new String[stringsCount];
+		for (int i = 0; i < stringsCount; i++) {
+			strings[i] = in.readUTF();
+		}
+		int linesCount = readVarInt(in);
+		Map<Integer, Integer> lines = linesCount == 0
+				? Collections.<Integer, Integer>emptyMap()
+				: new HashMap<Integer, Integer>(linesCount);
+		int line = 0;
+		for (int i = 0; i < linesCount; i++) {
+			line += readVarInt(in);
+			lines.put(line, readVarInt(in));
+		}
+		Reader reader = new Reader(strings);
+		int annCount = readVarInt(in);
+		Map<Integer, ICodeAnnotation> annotations = new HashMap<>(annCount);
+		int pos = 0;
+		for (int i = 0; i < annCount; i++) {
+			pos += readVarInt(in);
+			ICodeAnnotation ann = reader.readAnnotation(in);
+			if (ann == null) {
+				return null;
+			}
+			annotations.put(pos, ann);
+		}
+		if (annotations.isEmpty() && lines.isEmpty()) {
+			return new SimpleCodeInfo(code);
+		}
+		return new AnnotatedCodeInfo(code, lines, annotations);
+	}
+
+	private final class Writer {
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private final Map<String, Integer> stringsMap = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+
+		void writeAnnotation(DataOutput out, ICodeAnnotation ann) throws IOException {
+			switch (ann.getAnnType()) {
+				case CLASS:
+					out.writeByte(TAG_CLASS);
+					writeString(out, ((ClassNode) ann).getRawName());
+					break;
+				case METHOD:
+					out.writeByte(TAG_METHOD);
+					writeMethodRef(out, (MethodNode) ann);
+					break;
+				case FIELD: {
+					FieldNode fld = (FieldNode) ann;
+					out.writeByte(TAG_FIELD);
+					writeString(out, fld.getParentClass().getRawName());
+					writeString(out, fld.getFieldInfo().getShortId());
+					break;
+				}
+				case DECLARATION: {
+					NodeDeclareRef declareRef = (NodeDeclareRef) ann;
+					out.writeByte(TAG_DECLARATION);
+					writeAnnotation(out, declareRef.getNode());
+					writeVarInt(out, declareRef.getDefPos());
+					break;
+				}
+				case VAR: {
+					VarNode varNode = (VarNode) ann;
+					out.writeByte(TAG_VAR);
+					writeMethodRef(out, varNode.getMth());
+					writeVarInt(out, varNode.getReg());
+					writeVarInt(out, varNode.getSsa());
+					writeType(out, varNode.getType());
+					writeNullableString(out, varNode.getName());
+					break;
+				}
+				case VAR_REF:
+					out.writeByte(TAG_VAR_REF);
+					writeVarInt(out, ((VarRef) ann).getRefPos());
+					break;
+				case OFFSET:
+					out.writeByte(TAG_OFFSET);
+					writeVarInt(out, ((InsnCodeOffset) ann).getOffset());
+					break;
+				case END:
+					out.writeByte(TAG_END);
+					break;
+				default:
+					throw new JadxRuntimeException("Unknown annotation type: " + ann.getAnnType());
+			}
+		}
+
+		private void writeMethodRef(DataOutput out, MethodNode mth) throws IOException {
+			writeString(out, mth.getParentClass().getRawName());
+			writeString(out, mth.getMethodInfo().getShortId());
+		}
+
+		private void writeType(DataOutput out, @Nullable ArgType type) throws IOException {
+			if (type == null) {
+				out.writeByte(TYPE_NULL);
+			} else if (type.isArray()) {
+				out.writeByte(TYPE_ARRAY);
+				writeType(out, type.getArrayElement());
+			} else if (!type.isTypeKnown()) {
+				out.writeByte(TYPE_UNKNOWN);
+				PrimitiveType[] possibleTypes = type.getPossibleTypes();
+				writeVarInt(out, possibleTypes.length);
+				for (PrimitiveType possibleType : possibleTypes) {
+					out.writeByte(possibleType.ordinal());
+				}
+			} else if (type.isPrimitive()) {
+				out.writeByte(TYPE_PRIMITIVE);
+				out.writeByte(type.getPrimitiveType().ordinal());
+			} else if (type.isGenericType()) {
+				out.writeByte(TYPE_GENERIC_TYPE);
+				writeString(out, type.getObject());
+				writeTypesList(out, type.getExtendTypes());
+			} else if (type.isWildcard()) {
+				out.writeByte(TYPE_WILDCARD);
+				writeType(out, type.getWildcardType());
+				out.writeByte(type.getWildcardBound().getNum());
+			} else if (type.getOuterType() != null) {
+				out.writeByte(TYPE_OUTER_GENERIC);
+				writeType(out, type.getOuterType());
+				writeType(out, type.getInnerType());
+			} else if (type.isGeneric()) {
+				out.writeByte(TYPE_GENERIC);
+				writeString(out, type.getObject());
+				writeTypesList(out, type.getGenericTypes());
+			} else {
+				out.writeByte(TYPE_OBJECT);
+				writeString(out, type.getObject());
+			}
+		}
+
+		private void writeTypesList(DataOutput out, @Nullable List<ArgType> types) throws IOException {
+			if (types == null) {
+				writeVarInt(out, 0);
+				return;
+			}
+			writeVarInt(out, types.size());
+			for (ArgType type : types) {
+				writeType(out, type);
+			}
+		}
+
+		private void writeNullableString(DataOutput out, @Nullable String str) throws IOException {
+			if (str == null) {
+				writeVarInt(out, 0);
+			} else {
+				writeVarInt(out, getStringId(str) + 1);
+			}
+		}
+
+		private void writeString(DataOutput out, String str) throws IOException {
+			writeVarInt(out, getStringId(str));
+		}
+
+		private int getStringId(String str) {
+			Integer id = stringsMap.get(str);
+			if (id != null) {
+				return id;
+			}
+			int newId = strings.size();
+			strings.add(str);
+			stringsMap.put(str, newId);
+			return newId;
+		}
+	}
+
+	private final class Reader {
+		private final String[] strings;
+		private final Map<String, ClassNode> clsCache = new HashMap<>();
+
+		Reader(String[] strings) {
+			this.strings = strings;
+		}
+
+		@Nullable
+		ICodeAnnotation readAnnotation(DataInput in) throws IOException {
+			int tag = in.readByte();
+			switch (tag) {
+				case TAG_CLASS:
+					return resolveCls(readString(in));
+				case TAG_METHOD:
+					return readMethodRef(in);
+				case TAG_FIELD: {
+					ClassNode cls = resolveCls(readString(in));
+					String shortId = readString(in);
+					return cls == null ? null : cls.searchFieldByShortId(shortId);
+				}
+				case TAG_DECLARATION: {
+					ICodeAnnotation node = readAnnotation(in);
+					int defPos = readVarInt(in);
+					if (!(node instanceof ICodeNodeRef)) {
+						return null;
+					}
+					ICodeNodeRef nodeRef = (ICodeNodeRef) node;
+					nodeRef.setDefPosition(defPos);
+					NodeDeclareRef declareRef = new NodeDeclareRef(nodeRef);
+					declareRef.setDefPos(defPos);
+					return declareRef;
+				}
+				case TAG_VAR: {
+					MethodNode mth = readMethodRef(in);
+					int reg = readVarInt(in);
+					int ssa = readVarInt(in);
+					ArgType type = readType(in);
+					String name = readNullableString(in);
+					if (mth == null) {
+						return null;
+					}
+					return new VarNode(mth, reg, ssa, type, name);
+				}
+				case TAG_VAR_REF:
+					return VarRef.fromPos(readVarInt(in));
+				case TAG_OFFSET:
+					return new InsnCodeOffset(readVarInt(in));
+				case TAG_END:
+					return NodeEnd.VALUE;
+				default:
+					throw new IOException("Unknown annotation tag: " + tag);
+			}
+		}
+
+		@Nullable
+		private MethodNode readMethodRef(DataInput in) throws IOException {
+			ClassNode cls = resolveCls(readString(in));
+			String shortId = readString(in);
+			return cls == null ? null : cls.searchMethodByShortId(shortId);
+		}
+
+		@Nullable
+		private ClassNode resolveCls(String rawName) {
+			if (clsCache.containsKey(rawName)) {
+				return clsCache.get(rawName);
+			}
+			ClassNode cls = root.resolveClass(ClassInfo.fromName(root, rawName));
+			clsCache.put(rawName, cls);
+			return cls;
+		}
+
+		@Nullable
+		private ArgType readType(DataInput in) throws IOException {
+			int kind = in.readByte();
+			switch (kind) {
+				case TYPE_NULL:
+					return null;
+				case TYPE_PRIMITIVE:
+					return ArgType.parse(PrimitiveType.values()[in.readByte()].getShortName().charAt(0));
+				case TYPE_OBJECT:
+					return ArgType.object(readString(in));
+				case TYPE_GENERIC_TYPE:
+					return ArgType.genericType(readString(in), readTypesList(in));
+				case TYPE_WILDCARD: {
+					ArgType wildcardType = readType(in);
+					return ArgType.wildcard(wildcardType, ArgType.WildcardBound.getByNum(in.readByte()));
+				}
+				case TYPE_GENERIC:
+					return ArgType.generic(readString(in), readTypesList(in));
+				case TYPE_OUTER_GENERIC: {
+					ArgType outerType = readType(in);
+					return ArgType.outerGeneric(outerType, readType(in));
+				}
+				case TYPE_ARRAY:
+					return ArgType.array(readType(in));
+				case TYPE_UNKNOWN: {
+					int count = readVarInt(in);
+					PrimitiveType[] types = new PrimitiveType[count];
+					for (int i = 0; i < count; i++) {
+						types[i] = PrimitiveType.values()[in.readByte()];
+					}
+					return ArgType.unknown(types);
+				}
+				default:
+					throw new IOException("Unknown type kind: " + kind);
+			}
+		}
+
+		private List<ArgType> readTypesList(DataInput in) throws IOException {
+			int count = readVarInt(in);
+			List<ArgType> list = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				list.add(readType(in));
+			}
+			return list;
+		}
+
+		@Nullable
+		private String readNullableString(DataInput in) throws IOException {
+			int id = readVarInt(in);
+			return id == 0 ? null : strings[id - 1];
+		}
+
+		private String readString(DataInput in) throws IOException {
+			return strings[readVarInt(in)];
+		}
+	}
+
+	public static void writeVarInt(DataOutput out, int value) throws IOException {
+		int v = value;
+		while ((v & ~0x7F) != 0) {
+			out.writeByte((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte(v);
+	}
+
+	public static int readVarInt(DataInput in) throws IOException {
+		int result = 0;
+		int shift = 0;
+		while (true) {
+			int b = in.readByte() & 0xFF;
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+			shift += 7;
+			if (shift > 28) {
+				throw new IOException("Malformed var int");
+			}
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package jadx.api.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ICodeCache;
+import jadx.api.ICodeInfo;
+import jadx.api.data.ICodeComment;
+import jadx.api.data.ICodeData;
+import jadx.api.data.ICodeRename;
+import jadx.core.Jadx;
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Persistent code cache: generated code and metadata stored in {@code baseDir}
+ * and reused on next runs if class content, its dependencies and code options are unchanged.
+ * <br>
+ * Require loaded {@link RootNode}, so should be set after {@code JadxDecompiler.load()}:
+ *
+ * <pre>
+ * <code>
+ * jadx.load();
+ * args.setCodeCache(new DiskCodeCache(jadx.getRoot(), cacheDir));
+ * </code>
+ * </pre>
+ */
+public class DiskCodeCache extends DelegateCodeCache {
+	private static final Logger LOG = LoggerFactory.getLogger(DiskCodeCache.class);
+
+	private static final int DATA_FORMAT_VERSION = 2;
+	private static final byte[] MAGIC = { 'J', 'C', 'C', 'D' };
+
+	private final RootNode root;
+	private final File baseDir;
+	private final CodeInfoSerializer serializer;
+	private final String argsVersion;
+
+	/**
+	 * Code data (renames and comments) used for current {@link #codeVersion},
+	 * checked by reference on every key request, class keys dropped on change
+	 */
+	private volatile ICodeData codeData;
+	private volatile String codeVersion;
+
+	/**
+	 * Cache for hash of class content (including inner classes), used to build keys for dependent classes
+	 */
+	private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
+	/**
+	 * Class keys calculated on first request (before class processing),
+	 * because processing can change class dependencies list
+	 */
+	private final Map<String, String> classKeys = new ConcurrentHashMap<>();
+
+	public DiskCodeCache(RootNode root, File baseDir) {
+		this(root, baseDir, new InMemoryCodeCache());
+	}
+
+	public DiskCodeCache(RootNode root, File baseDir, ICodeCache backCache) {
+		super(backCache);
+		this.root = root;
+		this.baseDir = baseDir;
+		this.serializer = new CodeInfoSerializer(root);
+		this.argsVersion = Jadx.getVersion() + ':' + DATA_FORMAT_VERSION
+				+ ':' + root.getArgs().makeCodeArgsHash();
+		updateCodeVersion(root.getArgs().getCodeData());
+		FileUtils.makeDirs(baseDir);
+	}
+
+	@Override
+	public void add(String clsFullName, ICodeInfo codeInfo) {
+		super.add(clsFullName, codeInfo);
+		ClassNode cls = resolveClass(clsFullName);
+		if (cls == null) {
+			return;
+		}
+		File file = getCacheFile(clsFullName);
+		File tmpFile = new File(file.getPath() + ".tmp");
+		try {
+			FileUtils.makeDirsForFile(file);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.write(MAGIC);
+				out.writeUTF(clsFullName);
+				out.writeUTF(getClassKey(cls));
+				serializer.write(out, codeInfo);
+			}
+			if (file.exists() && !file.delete() || !tmpFile.renameTo(file)) {
+				throw new IOException("Failed to replace cache file: " + file);
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to save code for class {} to disk cache", clsFullName, e);
+			tmpFile.delete();
+		}
+	}
+
+	@Override
+	public void remove(String clsFullName) {
+		super.remove(clsFullName);
+		File file = getCacheFile(clsFullName);
+		if (file.exists() && !file.delete()) {
+			LOG.warn("Failed to remove code cache file: {}", file);
+		}
+	}
+
+	@Override
+	public @NotNull ICodeInfo get(String clsFullName) {
+		ICodeInfo codeInfo = super.get(clsFullName);
+		if (codeInfo != ICodeInfo.EMPTY) {
+			return codeInfo;
+		}
+		ICodeInfo loaded = load(clsFullName);
+		if (loaded == null) {
+			return ICodeInfo.EMPTY;
+		}
+		super.add(clsFullName, loaded);
+		return loaded;
+	}
+
+	@Override
+	public @Nullable String getCode(String clsFullName) {
+		ICodeInfo codeInfo = get(clsFullName);
+		if (codeInfo == ICodeInfo.EMPTY) {
+			return null;
+		}
+		return codeInfo.getCodeStr();
+	}
+
+	@Override
+	public boolean contains(String clsFullName) {
+		if (super.contains(clsFullName)) {
+			return true;
+		}
+		ClassNode cls = resolveClass(clsFullName);
+		if (cls == null) {
+			return false;
+		}
+		File file = getCacheFile(clsFullName);
+		if (!file.exists()) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			return readHeader(in, clsFullName, cls);
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		contentHashes.clear();
+		classKeys.clear();
+		super.close();
+	}
+
+	@Nullable
+	private ICodeInfo load(String clsFullName) {
+		ClassNode cls = resolveClass(clsFullName);
+		if (cls == null) {
+			return null;
+		}
+		File file = getCacheFile(clsFullName);
+		if (!file.exists()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (!readHeader(in, clsFullName, cls)) {
+				return null;
+			}
+			return serializer.read(in);
+		} catch (Exception e) {
+			LOG.warn("Failed to load code for class {} from disk cache", clsFullName, e);
+			return null;
+		}
+	}
+
+	private boolean readHeader(DataInputStream in, String clsFullName, ClassNode cls) throws IOException {
+		byte[] magic = new byte[MAGIC.length];
+		in.readFully(magic);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (magic[i] != MAGIC[i]) {
+				return false;
+			}
+		}
+		return in.readUTF().equals(clsFullName)
+				&& in.readUTF().equals(getClassKey(cls));
+	}
+
+	@Nullable
+	private ClassNode resolveClass(String clsRawName) {
+		return root.resolveClass(ClassInfo.fromName(root, clsRawName));
+	}
+
+	private File getCacheFile(String clsRawName) {
+		String nameHash = FileUtils.md5Sum(clsRawName.getBytes(StandardCharsets.UTF_8));
+		// file name from hash to avoid issues with case-insensitive file systems
+		return new File(baseDir, nameHash.substring(0, 2) + File.separatorChar + nameHash + ".jcc");
+	}
+
+	private String getClassKey(ClassNode cls) {
+		ICodeData currentCodeData = root.getArgs().getCodeData();
+		if (currentCodeData != codeData) {
+			updateCodeVersion(currentCodeData);
+		}
+		String rawName = cls.getRawName();
+		String key = classKeys.get(rawName);
+		if (key == null) {
+			String version = codeVersion;
+			key = buildClassKey(cls, version);
+			if (version.equals(codeVersion)) {
+				// skip key built with outdated code data
+				classKeys.put(rawName, key);
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Key include class content with content of all used classes,
+	 * so changes in dependencies (constants, inlined methods) will invalidate cached code.
+	 */
+	private String buildClassKey(ClassNode cls, String version) {
+		List<String> depHashes = new ArrayList<>(cls.getDependencies().size());
+		for (ClassNode dep : cls.getDependencies()) {
+			depHashes.add(getContentHash(dep));
+		}
+		Collections.sort(depHashes);
+		StringBuilder sb = new StringBuilder();
+		sb.append(version).append(':').append(getContentHash(cls));
+		for (String depHash : depHashes) {
+			sb.append(':').append(depHash);
+		}
+		return FileUtils.md5Sum(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Code data set by {@code JadxArgs.setCodeData()}, replaced (not modified) on every change
+	 */
+	private synchronized void updateCodeVersion(@Nullable ICodeData newCodeData) {
+		if (codeVersion != null && newCodeData == codeData) {
+			return;
+		}
+		codeVersion = argsVersion + ':' + buildCodeDataHash(newCodeData);
+		codeData = newCodeData;
+		classKeys.clear();
+	}
+
+	private String getContentHash(ClassNode cls) {
+		ClassNode topCls = cls.getTopParentClass();
+		String rawName = topCls.getRawName();
+		String hash = contentHashes.get(rawName);
+		if (hash == null) {
+			hash = calcContentHash(topCls);
+			contentHashes.put(rawName, hash);
+		}
+		return hash;
+	}
+
+	private static String calcContentHash(ClassNode cls) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("MD5");
+			addClassContent(md, cls);
+			return FileUtils.bytesToHex(md.digest());
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Failed to build class hash: " + cls, e);
+		}
+	}
+
+	/**
+	 * Hash of user renames and comments, shared with {@link SearchIndexCodeCache}
+	 */
+	static String buildCodeDataHash(@Nullable ICodeData codeData) {
+		if (codeData == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (ICodeComment comment : codeData.getComments()) {
+			sb.append(comment.getNodeRef()).append(comment.getCodeRef()).append(comment.getComment()).append('\n');
+		}
+		for (ICodeRename rename : codeData.getRenames()) {
+			sb.append(rename.getNodeRef()).append(rename.getCodeRef()).append(rename.getNewName()).append('\n');
+		}
+		return FileUtils.md5Sum(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void addClassContent(MessageDigest md, ClassNode cls) {
+		md.update(cls.getRawName().getBytes(StandardCharsets.UTF_8));
+		if (cls.getClsData() != null) {
+			new ClassContentHasher(md).addClass(cls.getClsData());
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			addClassContent(md, innerCls);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DiskCodeCache: dir=" + baseDir + ", back=" + backCache;
+	}
+}
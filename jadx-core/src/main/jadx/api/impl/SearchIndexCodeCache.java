@@ -0,0 +1,151 @@
+package jadx.api.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ICodeCache;
+import jadx.api.ICodeInfo;
+import jadx.api.JadxArgs;
+import jadx.api.data.ICodeData;
+import jadx.api.search.CodeSearchIndex;
+import jadx.core.Jadx;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Code cache wrapper which put code of every generated class (or class served by back cache) into {@link CodeSearchIndex}.
+ * <br>
+ * Index loaded from {@code indexFile} on creation (if saved by same jadx version
+ * for same inputs, code options, renames and comments) and saved back by {@link #save()} or on close,
+ * so queries can be answered on next runs without decompilation.
+ * Index doesn't keep code in memory: code requested from back cache or read from saved index file.
+ * If renames or comments changed after creation, index not saved, because it can contain outdated classes code.
+ */
+public class SearchIndexCodeCache extends DelegateCodeCache {
+	private static final Logger LOG = LoggerFactory.getLogger(SearchIndexCodeCache.class);
+
+	public static final String INDEX_FILE_NAME = "jadx-search.idx";
+
+	private final JadxArgs args;
+	private final File indexFile;
+	@Nullable
+	private final ICodeData codeData;
+	private final String version;
+	private final CodeSearchIndex index;
+
+	public SearchIndexCodeCache(JadxArgs args, File indexFile, ICodeCache backCache) {
+		super(backCache);
+		this.args = args;
+		this.indexFile = indexFile;
+		this.codeData = args.getCodeData();
+		this.version = buildVersion(args);
+		CodeSearchIndex loaded = load(indexFile, version);
+		this.index = loaded != null ? loaded : new CodeSearchIndex();
+		this.index.setCodeLoader(new CodeSearchIndex.ICodeLoader() {
+			@Override
+			public @Nullable String getCode(String clsRawName) {
+				return backCache.getCode(clsRawName);
+			}
+		});
+	}
+
+	public CodeSearchIndex getIndex() {
+		return index;
+	}
+
+	public File getIndexFile() {
+		return indexFile;
+	}
+
+	@Override
+	public void add(String clsFullName, ICodeInfo codeInfo) {
+		super.add(clsFullName, codeInfo);
+		try {
+			index.add(clsFullName, codeInfo);
+		} catch (Exception e) {
+			LOG.warn("Failed to add class {} into search index", clsFullName, e);
+		}
+	}
+
+	@Override
+	public @NotNull ICodeInfo get(String clsFullName) {
+		ICodeInfo codeInfo = super.get(clsFullName);
+		if (codeInfo != ICodeInfo.EMPTY && !index.contains(clsFullName)) {
+			// code restored by back cache (like disk cache) without generation
+			try {
+				index.add(clsFullName, codeInfo);
+			} catch (Exception e) {
+				LOG.warn("Failed to add class {} into search index", clsFullName, e);
+			}
+		}
+		return codeInfo;
+	}
+
+	@Override
+	public void remove(String clsFullName) {
+		super.remove(clsFullName);
+		index.remove(clsFullName);
+	}
+
+	/**
+	 * Write index to file if changed
+	 */
+	public void save() {
+		if (!index.isModified()) {
+			return;
+		}
+		if (args.getCodeData() != codeData) {
+			LOG.debug("Search index not saved: renames or comments changed");
+			return;
+		}
+		try {
+			index.save(indexFile, version);
+			LOG.debug("Search index saved: {}, classes: {}", indexFile, index.getClassesCount());
+		} catch (Exception e) {
+			LOG.warn("Failed to save search index to {}", indexFile, e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		save();
+		index.close();
+		super.close();
+	}
+
+	@Nullable
+	private static CodeSearchIndex load(File indexFile, String version) {
+		if (!indexFile.exists()) {
+			return null;
+		}
+		try {
+			CodeSearchIndex index = CodeSearchIndex.load(indexFile, version);
+			if (index == null) {
+				LOG.debug("Search index {} ignored: created for other inputs or options", indexFile);
+			} else {
+				LOG.debug("Search index loaded: {}, classes: {}", indexFile, index.getClassesCount());
+			}
+			return index;
+		} catch (Exception e) {
+			LOG.warn("Failed to load search index from {}", indexFile, e);
+			return null;
+		}
+	}
+
+	private static String buildVersion(JadxArgs args) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(Jadx.getVersion()).append(':').append(args.makeCodeArgsHash())
+				.append(':').append(DiskCodeCache.buildCodeDataHash(args.getCodeData()));
+		for (File file : args.getInputFiles()) {
+			sb.append(':').append(file.getAbsolutePath())
+					.append(':').append(file.length())
+					.append(':').append(file.lastModified());
+		}
+		return FileUtils.md5Sum(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
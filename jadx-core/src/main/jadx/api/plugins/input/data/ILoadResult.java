@@ -1,6 +1,9 @@
 package jadx.api.plugins.input.data;
 
 import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+
 import com.custom.Consumer;
 public interface ILoadResult extends Closeable {
 
@@ -10,4 +13,12 @@ public interface ILoadResult extends Closeable {
     void visitResources(com.custom.Consumer<IResourceData> consumer);
 
 	boolean isEmpty();
+
+	/**
+	 * Split classes into independent parts (for example by input files),
+	 * parts can be visited in parallel. Returned parts shouldn't be closed.
+	 */
+	default List<ILoadResult> splitClassesSources() {
+		return Collections.singletonList(this);
+	}
 }
@@ -13,6 +13,8 @@ import jadx.api.plugins.input.data.attributes.types.SourceFileAttr;
 
 public final class JadxAttrType<T extends IJadxAttribute> implements IJadxAttrType<T> {
 
+	private static int typesCount;
+
 	// class, method, field
 	public static final JadxAttrType<AnnotationsAttr> ANNOTATION_LIST = bind();
 	public static final JadxAttrType<SignatureAttr> SIGNATURE = bind();
@@ -32,9 +34,19 @@ public final class JadxAttrType<T extends IJadxAttribute> implements IJadxAttrTy
 	public static final JadxAttrType<MethodParametersAttr> METHOD_PARAMETERS = bind();
 
 	private static <T extends IJadxAttribute> JadxAttrType<T> bind() {
-		return new JadxAttrType<>();
+		return new JadxAttrType<>(typesCount++);
+	}
+
+	private final int ordinal;
+
+	private JadxAttrType(int ordinal) {
+		this.ordinal = ordinal;
 	}
 
-	private JadxAttrType() {
+	/**
+	 * Sequence number in declaration order
+	 */
+	public int getOrdinal() {
+		return ordinal;
 	}
 }
@@ -0,0 +1,139 @@
+package jadx.api.plugins.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Minimal zip central directory reader to find data offsets of stored (not compressed) entries.
+ * Such entries can be memory-mapped directly from zip file.
+ * <br>
+ * Zip64 archives are not supported (empty list returned).
+ */
+public class StoredZipEntries {
+
+	private static final int EOCD_SIGNATURE = 0x06054b50;
+	private static final int CD_ENTRY_SIGNATURE = 0x02014b50;
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	private static final int EOCD_MIN_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	private static final int CD_ENTRY_SIZE = 46;
+	private static final int LOCAL_HEADER_SIZE = 30;
+
+	private static final int METHOD_STORED = 0;
+
+	public static final class Entry {
+		private final String name;
+		private final long dataOffset;
+		private final long size;
+
+		private Entry(String name, long dataOffset, long size) {
+			this.name = name;
+			this.dataOffset = dataOffset;
+			this.size = size;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getDataOffset() {
+			return dataOffset;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		@Override
+		public String toString() {
+			return name + " (offset: " + dataOffset + ", size: " + size + ')';
+		}
+	}
+
+	public static List<Entry> collect(FileChannel channel) throws IOException {
+		long fileSize = channel.size();
+		if (fileSize < EOCD_MIN_SIZE) {
+			return Collections.emptyList();
+		}
+		int tailSize = (int) Math.min(fileSize, EOCD_MIN_SIZE + MAX_COMMENT_SIZE);
+		ByteBuffer tail = read(channel, fileSize - tailSize, tailSize);
+		int eocdPos = -1;
+		for (int pos = tailSize - EOCD_MIN_SIZE; pos >= 0; pos--) {
+			if (tail.getInt(pos) == EOCD_SIGNATURE) {
+				eocdPos = pos;
+				break;
+			}
+		}
+		if (eocdPos == -1) {
+			return Collections.emptyList();
+		}
+		int entriesCount = tail.getShort(eocdPos + 10) & 0xFFFF;
+		long cdSize = tail.getInt(eocdPos + 12) & 0xFFFFFFFFL;
+		long cdOffset = tail.getInt(eocdPos + 16) & 0xFFFFFFFFL;
+		if (entriesCount == 0xFFFF || cdOffset == 0xFFFFFFFFL || cdOffset + cdSize > fileSize) {
+			// zip64 or broken archive
+			return Collections.emptyList();
+		}
+		ByteBuffer cd = read(channel, cdOffset, (int) cdSize);
+		List<Entry> result = new ArrayList<>();
+		int pos = 0;
+		for (int i = 0; i < entriesCount; i++) {
+			if (pos + CD_ENTRY_SIZE > cdSize || cd.getInt(pos) != CD_ENTRY_SIGNATURE) {
+				return Collections.emptyList();
+			}
+			int method = cd.getShort(pos + 10) & 0xFFFF;
+			long compressedSize = cd.getInt(pos + 20) & 0xFFFFFFFFL;
+			long size = cd.getInt(pos + 24) & 0xFFFFFFFFL;
+			int nameLen = cd.getShort(pos + 28) & 0xFFFF;
+			int extraLen = cd.getShort(pos + 30) & 0xFFFF;
+			int commentLen = cd.getShort(pos + 32) & 0xFFFF;
+			long localHeaderOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+			if (method == METHOD_STORED && compressedSize == size && size != 0xFFFFFFFFL) {
+				byte[] nameBytes = new byte[nameLen];
+				cd.position(pos + CD_ENTRY_SIZE);
+				cd.get(nameBytes);
+				String name = new String(nameBytes, StandardCharsets.UTF_8);
+				long dataOffset = getDataOffset(channel, localHeaderOffset);
+				if (dataOffset != -1 && dataOffset + size <= fileSize) {
+					result.add(new Entry(name, dataOffset, size));
+				}
+			}
+			pos += CD_ENTRY_SIZE + nameLen + extraLen + commentLen;
+		}
+		return result;
+	}
+
+	private static long getDataOffset(FileChannel channel, long localHeaderOffset) throws IOException {
+		ByteBuffer header = read(channel, localHeaderOffset, LOCAL_HEADER_SIZE);
+		if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+			return -1;
+		}
+		// name and extra field lengths in local header can differ from central directory
+		int nameLen = header.getShort(26) & 0xFFFF;
+		int extraLen = header.getShort(28) & 0xFFFF;
+		return localHeaderOffset + LOCAL_HEADER_SIZE + nameLen + extraLen;
+	}
+
+	private static ByteBuffer read(FileChannel channel, long offset, int len) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(len);
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		while (buf.hasRemaining()) {
+			int read = channel.read(buf, offset + buf.position());
+			if (read == -1) {
+				throw new IOException("Unexpected end of file");
+			}
+		}
+		buf.clear();
+		return buf;
+	}
+
+	private StoredZipEntries() {
+	}
+}
@@ -88,6 +88,14 @@ public class ZipSecurity {
 		return new BufferedInputStream(limited);
 	}
 
+	/**
+	 * Same as {@link #getInputStreamForEntry(ZipFile, ZipEntry)} but without buffering,
+	 * for bulk reads into caller buffer
+	 */
+	public static InputStream getUnbufferedInputStreamForEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+		return new LimitedInputStream(zipFile.getInputStream(entry), entry.getSize());
+	}
+
 	/**
 	 * Visit valid entries in zip file.
 	 * Return not null value from visitor to stop iteration.
@@ -0,0 +1,1252 @@
+package jadx.api.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ICodeInfo;
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeNodeRef;
+import jadx.api.metadata.annotations.NodeDeclareRef;
+import jadx.api.metadata.annotations.VarNode;
+import jadx.api.metadata.annotations.VarRef;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Search index over generated code: substring, regex and symbol usages queries
+ * without classes decompilation.
+ * <br>
+ * Text index: code split into identifier words, every distinct word (in lower case) stored once
+ * with ids of classes containing it and words dictionary indexed by char trigrams.
+ * Query split into words in same way: words bounded from both sides checked by exact lookup,
+ * partial words (at query start or end) matched in words dictionary using trigrams.
+ * Candidate classes verified by search in class code.
+ * <br>
+ * Symbol index: positions of classes, methods and fields references and declarations
+ * collected from code annotations, also local variables references inside class.
+ * <br>
+ * Code text not kept in memory: loaded on demand by {@link ICodeLoader} (usually from code cache)
+ * or read from saved index file. Code length and hash stored to check that loaded code is same as indexed.
+ * Class ids of replaced or removed classes dropped from all posting lists and reused.
+ * <br>
+ * Thread-safe, classes can be added directly from decompilation threads.
+ */
+public class CodeSearchIndex implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(CodeSearchIndex.class);
+
+	private static final byte[] MAGIC = { 'J', 'C', 'S', 'I' };
+	private static final int DATA_FORMAT_VERSION = 3;
+
+	/**
+	 * Source of class code for search results verification
+	 */
+	public interface ICodeLoader {
+		@Nullable
+		String getCode(String clsRawName);
+	}
+
+	/**
+	 * Class id to class entry, ids of removed classes set to null and reused
+	 */
+	private final List<ClassEntry> classes = new ArrayList<>();
+	private final Map<String, Integer> classIds = new HashMap<>();
+	private final IdsList freeIds = new IdsList();
+
+	private final Map<String, Integer> wordIds = new HashMap<>();
+	private final List<String> words = new ArrayList<>();
+	private final List<IdsList> wordClasses = new ArrayList<>();
+	private final Map<Long, IdsList> wordTrigrams = new HashMap<>();
+
+	private final Map<String, IdsList> symbolClasses = new HashMap<>();
+
+	private boolean modified;
+
+	@Nullable
+	private volatile ICodeLoader codeLoader;
+
+	/**
+	 * Saved index file with code of entries, guarded by {@link #storeLock}
+	 */
+	private final Object storeLock = new Object();
+	@Nullable
+	private File storeFile;
+	@Nullable
+	private RandomAccessFile storeRaf;
+
+	public void setCodeLoader(@Nullable ICodeLoader codeLoader) {
+		this.codeLoader = codeLoader;
+	}
+
+	public void add(String clsRawName, ICodeInfo codeInfo) {
+		String code = codeInfo.getCodeStr();
+		ClassEntry entry = buildEntry(clsRawName, code, codeInfo.getCodeMetadata().getAsMap());
+		Set<String> clsWords = collectWords(code);
+		synchronized (this) {
+			addEntry(entry, clsWords);
+			modified = true;
+		}
+	}
+
+	public synchronized void remove(String clsRawName) {
+		Integer id = classIds.remove(clsRawName);
+		if (id != null) {
+			removeEntry(id);
+			freeIds.insert(id);
+			modified = true;
+		}
+	}
+
+	public synchronized boolean contains(String clsRawName) {
+		return classIds.containsKey(clsRawName);
+	}
+
+	public synchronized int getClassesCount() {
+		return classIds.size();
+	}
+
+	public synchronized boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * Search text in code of all indexed classes
+	 */
+	public List<SearchResult> search(String text, boolean ignoreCase) {
+		if (text.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<SearchResult> results = new ArrayList<>();
+		int len = text.length();
+		for (ClassEntry entry : getCandidates(text)) {
+			String code = loadCode(entry);
+			if (code == null) {
+				continue;
+			}
+			ResultsBuilder builder = new ResultsBuilder(entry, code, results);
+			int pos = indexOf(code, text, 0, ignoreCase);
+			while (pos != -1) {
+				builder.add(pos, len, false);
+				pos = indexOf(code, text, pos + len, ignoreCase);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Search regex matches.
+	 * Classes filtered by longest literal part of pattern if it can be found.
+	 */
+	public List<SearchResult> searchRegex(Pattern pattern) {
+		String literal = extractRequiredLiteral(pattern);
+		List<ClassEntry> candidates = literal == null ? getAllEntries() : getCandidates(literal);
+		List<SearchResult> results = new ArrayList<>();
+		for (ClassEntry entry : candidates) {
+			String code = loadCode(entry);
+			if (code == null) {
+				continue;
+			}
+			ResultsBuilder builder = new ResultsBuilder(entry, code, results);
+			Matcher matcher = pattern.matcher(code);
+			while (matcher.find()) {
+				builder.add(matcher.start(), matcher.end() - matcher.start(), false);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Search usages and declaration of class, method or field
+	 */
+	public List<SearchResult> searchSymbol(ICodeNodeRef node) {
+		String key = makeSymbolKey(node);
+		if (key == null) {
+			return Collections.emptyList();
+		}
+		return searchSymbol(key);
+	}
+
+	/**
+	 * Search by symbol key, see {@link #makeSymbolKey(ICodeNodeRef)}
+	 */
+	public List<SearchResult> searchSymbol(String symbolKey) {
+		List<ClassEntry> entries = new ArrayList<>();
+		synchronized (this) {
+			IdsList ids = symbolClasses.get(symbolKey);
+			if (ids == null) {
+				return Collections.emptyList();
+			}
+			for (int i = 0; i < ids.size; i++) {
+				entries.add(classes.get(ids.ids[i]));
+			}
+		}
+		List<SearchResult> results = new ArrayList<>();
+		for (ClassEntry entry : entries) {
+			String code = loadCode(entry);
+			if (code == null) {
+				continue;
+			}
+			ResultsBuilder builder = new ResultsBuilder(entry, code, results);
+			String[] keys = entry.symKeys;
+			int[] info = entry.symInfo;
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i].equals(symbolKey)) {
+					int pos = info[i] >>> 1;
+					builder.add(pos, wordLength(code, pos), (info[i] & 1) != 0);
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Search local variable declaration and usages in class code
+	 *
+	 * @param varDefPos
+	 *                  variable declaration position (see {@link VarNode#getDefPosition()})
+	 */
+	public List<SearchResult> searchVarUsages(String clsRawName, int varDefPos) {
+		ClassEntry entry;
+		synchronized (this) {
+			Integer id = classIds.get(clsRawName);
+			if (id == null) {
+				return Collections.emptyList();
+			}
+			entry = classes.get(id);
+		}
+		String code = loadCode(entry);
+		if (code == null) {
+			return Collections.emptyList();
+		}
+		List<SearchResult> results = new ArrayList<>();
+		ResultsBuilder builder = new ResultsBuilder(entry, code, results);
+		int[] varPos = entry.varPos;
+		for (int i = 0; i < varPos.length; i++) {
+			if (entry.varTarget[i] == varDefPos) {
+				int pos = varPos[i];
+				builder.add(pos, wordLength(code, pos), pos == varDefPos);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Key for class, method or field used in symbol index
+	 *
+	 * @return null for unsupported nodes
+	 */
+	@Nullable
+	public static String makeSymbolKey(ICodeNodeRef node) {
+		if (node instanceof ClassNode) {
+			return ((ClassNode) node).getRawName();
+		}
+		if (node instanceof MethodNode) {
+			MethodNode mth = (MethodNode) node;
+			return mth.getParentClass().getRawName() + '.' + mth.getMethodInfo().getShortId();
+		}
+		if (node instanceof FieldNode) {
+			FieldNode fld = (FieldNode) node;
+			return fld.getParentClass().getRawName() + '.' + fld.getFieldInfo().getShortId();
+		}
+		return null;
+	}
+
+	/**
+	 * Load class code from code loader or from saved index file.
+	 *
+	 * @return null if code not available or changed since indexing
+	 */
+	@Nullable
+	private String loadCode(ClassEntry entry) {
+		ICodeLoader loader = codeLoader;
+		if (loader != null) {
+			String code = loader.getCode(entry.getRawName());
+			if (code != null && entry.isSameCode(code)) {
+				return code;
+			}
+		}
+		byte[] stored = readStoredCode(entry);
+		if (stored != null) {
+			String code = new String(stored, StandardCharsets.UTF_8);
+			if (entry.isSameCode(code)) {
+				return code;
+			}
+		}
+		LOG.debug("Code for class {} not available for search index", entry.getRawName());
+		return null;
+	}
+
+	@Nullable
+	private byte[] readStoredCode(ClassEntry entry) {
+		synchronized (storeLock) {
+			long offset = entry.storeOffset;
+			if (offset < 0 || storeFile == null) {
+				return null;
+			}
+			try {
+				RandomAccessFile raf = storeRaf;
+				if (raf == null) {
+					raf = new RandomAccessFile(storeFile, "r");
+					storeRaf = raf;
+				}
+				byte[] data = new byte[entry.storeLength];
+				raf.seek(offset);
+				raf.readFully(data);
+				return data;
+			} catch (IOException e) {
+				LOG.warn("Failed to read class {} code from search index file {}", entry.getRawName(), storeFile, e);
+				return null;
+			}
+		}
+	}
+
+	private synchronized List<ClassEntry> getAllEntries() {
+		List<ClassEntry> list = new ArrayList<>(classIds.size());
+		for (ClassEntry entry : classes) {
+			if (entry != null) {
+				list.add(entry);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Classes which can contain text (checked ignoring case)
+	 */
+	private synchronized List<ClassEntry> getCandidates(String text) {
+		String query = text.toLowerCase(Locale.ROOT);
+		int len = query.length();
+		BitSet result = null;
+		int i = 0;
+		while (i < len) {
+			if (!isWordChar(query.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < len && isWordChar(query.charAt(i))) {
+				i++;
+			}
+			BitSet wordCls = getWordCandidates(query.substring(start, i), start != 0, i != len);
+			if (wordCls != null) {
+				if (result == null) {
+					result = wordCls;
+				} else {
+					result.and(wordCls);
+				}
+				if (result.isEmpty()) {
+					return Collections.emptyList();
+				}
+			}
+		}
+		if (result == null) {
+			return getAllEntries();
+		}
+		List<ClassEntry> list = new ArrayList<>(result.cardinality());
+		for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+			list.add(classes.get(id));
+		}
+		return list;
+	}
+
+	/**
+	 * @param leftBounded  word in text started after non word char, so code word should start with it
+	 * @param rightBounded word in text followed by non word char, so code word should end with it
+	 * @return null if word too short to filter classes
+	 */
+	@Nullable
+	private BitSet getWordCandidates(String word, boolean leftBounded, boolean rightBounded) {
+		BitSet clsSet = new BitSet();
+		if (leftBounded && rightBounded) {
+			Integer wordId = wordIds.get(word);
+			if (wordId != null) {
+				wordClasses.get(wordId).addTo(clsSet);
+			}
+			return clsSet;
+		}
+		int len = word.length();
+		if (len < 3) {
+			return null;
+		}
+		BitSet wordsSet = null;
+		for (int i = 0; i + 3 <= len; i++) {
+			IdsList gramWords = wordTrigrams.get(trigram(word, i));
+			if (gramWords == null) {
+				return clsSet;
+			}
+			BitSet set = new BitSet();
+			gramWords.addTo(set);
+			if (wordsSet == null) {
+				wordsSet = set;
+			} else {
+				wordsSet.and(set);
+			}
+		}
+		for (int w = wordsSet.nextSetBit(0); w >= 0; w = wordsSet.nextSetBit(w + 1)) {
+			String codeWord = words.get(w);
+			boolean match;
+			if (leftBounded) {
+				match = codeWord.startsWith(word);
+			} else if (rightBounded) {
+				match = codeWord.endsWith(word);
+			} else {
+				match = codeWord.contains(word);
+			}
+			if (match) {
+				wordClasses.get(w).addTo(clsSet);
+			}
+		}
+		return clsSet;
+	}
+
+	/**
+	 * Add entry, replaced class keeps its id
+	 */
+	private void addEntry(ClassEntry entry, Set<String> clsWords) {
+		int[] entryWords = new int[clsWords.size()];
+		int w = 0;
+		for (String word : clsWords) {
+			entryWords[w++] = getWordId(word);
+		}
+		addEntry(entry, entryWords);
+	}
+
+	private void addEntry(ClassEntry entry, int[] entryWords) {
+		entry.wordIds = entryWords;
+		Integer prevId = classIds.get(entry.getRawName());
+		int id;
+		if (prevId != null) {
+			id = prevId;
+			removeEntry(id);
+		} else {
+			id = freeIds.size != 0 ? freeIds.removeFirst() : classes.size();
+			classIds.put(entry.getRawName(), id);
+		}
+		if (id == classes.size()) {
+			classes.add(entry);
+		} else {
+			classes.set(id, entry);
+		}
+		for (int wordId : entryWords) {
+			wordClasses.get(wordId).insert(id);
+		}
+		String[] keys = entry.symKeys;
+		for (int i = 0; i < keys.length; i++) {
+			IdsList ids = symbolClasses.get(keys[i]);
+			if (ids == null) {
+				ids = new IdsList();
+				symbolClasses.put(keys[i], ids);
+			}
+			ids.insert(id);
+		}
+	}
+
+	/**
+	 * Remove class id from all posting lists
+	 */
+	private void removeEntry(int id) {
+		ClassEntry entry = classes.get(id);
+		if (entry == null) {
+			return;
+		}
+		classes.set(id, null);
+		for (int wordId : entry.wordIds) {
+			wordClasses.get(wordId).remove(id);
+		}
+		for (String key : entry.symKeys) {
+			IdsList ids = symbolClasses.get(key);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.size == 0) {
+					symbolClasses.remove(key);
+				}
+			}
+		}
+	}
+
+	private int getWordId(String word) {
+		Integer id = wordIds.get(word);
+		if (id != null) {
+			return id;
+		}
+		int newId = words.size();
+		wordIds.put(word, newId);
+		words.add(word);
+		wordClasses.add(new IdsList());
+		for (int i = 0; i + 3 <= word.length(); i++) {
+			Long gram = trigram(word, i);
+			IdsList ids = wordTrigrams.get(gram);
+			if (ids == null) {
+				ids = new IdsList();
+				wordTrigrams.put(gram, ids);
+			}
+			ids.add(newId);
+		}
+		return newId;
+	}
+
+	private static ClassEntry buildEntry(String clsRawName, String code, Map<Integer, ICodeAnnotation> annotations) {
+		List<String> symKeys = new ArrayList<>();
+		List<Integer> symInfo = new ArrayList<>();
+		List<Integer> varPos = new ArrayList<>();
+		List<Integer> varTarget = new ArrayList<>();
+		for (Map.Entry<Integer, ICodeAnnotation> annEntry : new TreeMap<>(annotations).entrySet()) {
+			int pos = annEntry.getKey();
+			ICodeAnnotation ann = annEntry.getValue();
+			switch (ann.getAnnType()) {
+				case CLASS:
+				case METHOD:
+				case FIELD: {
+					String key = makeSymbolKey((ICodeNodeRef) ann);
+					if (key != null) {
+						symKeys.add(key);
+						symInfo.add(pos << 1);
+					}
+					break;
+				}
+				case DECLARATION: {
+					ICodeNodeRef node = ((NodeDeclareRef) ann).getNode();
+					if (node instanceof VarNode) {
+						varPos.add(pos);
+						varTarget.add(pos);
+					} else {
+						String key = makeSymbolKey(node);
+						if (key != null) {
+							symKeys.add(key);
+							symInfo.add(pos << 1 | 1);
+						}
+					}
+					break;
+				}
+				case VAR: {
+					int defPos = ((VarNode) ann).getDefPosition();
+					varPos.add(pos);
+					varTarget.add(defPos != 0 ? defPos : pos);
+					break;
+				}
+				case VAR_REF:
+					varPos.add(pos);
+					varTarget.add(((VarRef) ann).getRefPos());
+					break;
+
+				default:
+					break;
+			}
+		}
+		return new ClassEntry(clsRawName, code.length(), code.hashCode(), symKeys.toArray(new String[0]),
+				toIntArray(symInfo), toIntArray(varPos), toIntArray(varTarget));
+	}
+
+	private static Set<String> collectWords(String code) {
+		Set<String> set = new HashSet<>();
+		int len = code.length();
+		int i = 0;
+		while (i < len) {
+			if (!isWordChar(code.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < len && isWordChar(code.charAt(i))) {
+				i++;
+			}
+			set.add(code.substring(start, i).toLowerCase(Locale.ROOT));
+		}
+		return set;
+	}
+
+	private static boolean isWordChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
+	private static Long trigram(String word, int pos) {
+		return (long) word.charAt(pos) << 32 | (long) word.charAt(pos + 1) << 16 | word.charAt(pos + 2);
+	}
+
+	private static int wordLength(String code, int pos) {
+		int len = code.length();
+		int end = pos;
+		while (end < len && isWordChar(code.charAt(end))) {
+			end++;
+		}
+		return end - pos;
+	}
+
+	private static int indexOf(String code, String text, int from, boolean ignoreCase) {
+		if (!ignoreCase) {
+			return code.indexOf(text, from);
+		}
+		int len = text.length();
+		int last = code.length() - len;
+		for (int i = from; i <= last; i++) {
+			if (code.regionMatches(true, i, text, 0, len)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Nullable
+	private static String extractRequiredLiteral(Pattern pattern) {
+		int flags = pattern.flags();
+		if ((flags & Pattern.LITERAL) != 0) {
+			return pattern.pattern();
+		}
+		if ((flags & Pattern.COMMENTS) != 0) {
+			return null;
+		}
+		return extractRequiredLiteral(pattern.pattern());
+	}
+
+	/**
+	 * Find longest literal string which must be present in any match of regex.
+	 * Only top level (outside of groups) sequences without optional chars are considered.
+	 *
+	 * @return null if not found
+	 */
+	@Nullable
+	static String extractRequiredLiteral(String regex) {
+		if (regex.indexOf('|') != -1) {
+			return null;
+		}
+		String best = "";
+		StringBuilder run = new StringBuilder();
+		int depth = 0;
+		int len = regex.length();
+		int i = 0;
+		while (i < len) {
+			char c = regex.charAt(i++);
+			int literal = -1;
+			switch (c) {
+				case '\\':
+					if (i >= len) {
+						return null;
+					}
+					char next = regex.charAt(i);
+					if (next == 'Q') {
+						return null;
+					}
+					if (!Character.isLetterOrDigit(next)) {
+						literal = next;
+						i++;
+					} else {
+						// escape with letter or digit: not a literal char, skip whole escape sequence
+						i = skipEscape(regex, i);
+						if (i == -1) {
+							return null;
+						}
+					}
+					break;
+				case '[':
+					i = skipCharClass(regex, i);
+					break;
+				case '(':
+					depth++;
+					break;
+				case ')':
+					depth--;
+					break;
+				case '.':
+				case '^':
+				case '$':
+					break;
+				default:
+					literal = c;
+					break;
+			}
+			char quantifier = i < len ? regex.charAt(i) : 0;
+			boolean optional = quantifier == '?' || quantifier == '*' || quantifier == '{';
+			boolean repeated = optional || quantifier == '+';
+			if (literal != -1 && depth == 0 && !optional) {
+				run.append((char) literal);
+			}
+			if (literal == -1 || depth != 0 || repeated) {
+				if (run.length() > best.length()) {
+					best = run.toString();
+				}
+				run.setLength(0);
+			}
+			if (repeated) {
+				i = skipQuantifier(regex, i);
+			}
+		}
+		if (run.length() > best.length()) {
+			best = run.toString();
+		}
+		return best.isEmpty() ? null : best;
+	}
+
+	/**
+	 * Skip escape sequence started with letter or digit ({@code start} points after backslash)
+	 *
+	 * @return position after escape or -1 if escape not supported (back reference)
+	 */
+	private static int skipEscape(String regex, int start) {
+		int len = regex.length();
+		int i = start;
+		char c = regex.charAt(i++);
+		switch (c) {
+			case 'x':
+				if (i < len && regex.charAt(i) == '{') {
+					return skipBraces(regex, i);
+				}
+				return Math.min(len, i + 2);
+			case 'u':
+				return Math.min(len, i + 4);
+			case '0':
+				// \0n, \0nn or \0mnn (m <= 3)
+				int maxDigits = i < len && regex.charAt(i) >= '0' && regex.charAt(i) <= '3' ? 3 : 2;
+				int end = Math.min(len, i + maxDigits);
+				while (i < end && regex.charAt(i) >= '0' && regex.charAt(i) <= '7') {
+					i++;
+				}
+				return i;
+			case 'c':
+				return Math.min(len, i + 1);
+			case 'k':
+				if (i < len && regex.charAt(i) == '<') {
+					int close = regex.indexOf('>', i);
+					return close == -1 ? len : close + 1;
+				}
+				return i;
+			case 'p':
+			case 'P':
+			case 'N':
+			case 'b':
+				if (i < len && regex.charAt(i) == '{') {
+					return skipBraces(regex, i);
+				}
+				return c == 'p' || c == 'P' ? Math.min(len, i + 1) : i;
+			default:
+				if (c >= '1' && c <= '9') {
+					// back reference: digits count depends on groups count
+					return -1;
+				}
+				return i;
+		}
+	}
+
+	private static int skipBraces(String regex, int start) {
+		int close = regex.indexOf('}', start);
+		return close == -1 ? regex.length() : close + 1;
+	}
+
+	private static int skipCharClass(String regex, int start) {
+		int len = regex.length();
+		int i = start;
+		if (i < len && regex.charAt(i) == '^') {
+			i++;
+		}
+		if (i < len && regex.charAt(i) == ']') {
+			i++;
+		}
+		int depth = 1;
+		while (i < len) {
+			char c = regex.charAt(i++);
+			if (c == '\\') {
+				i++;
+			} else if (c == '[') {
+				depth++;
+			} else if (c == ']') {
+				depth--;
+				if (depth == 0) {
+					break;
+				}
+			}
+		}
+		return i;
+	}
+
+	private static int skipQuantifier(String regex, int start) {
+		int len = regex.length();
+		int i = start;
+		if (regex.charAt(i) == '{') {
+			int end = regex.indexOf('}', i);
+			i = end == -1 ? len : end + 1;
+		} else {
+			i++;
+		}
+		// lazy or possessive modifier
+		if (i < len && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int[] toIntArray(List<Integer> list) {
+		int size = list.size();
+		int[] arr = new int[size];
+		for (int i = 0; i < size; i++) {
+			arr[i] = list.get(i);
+		}
+		return arr;
+	}
+
+	/**
+	 * Save index with code of all classes into file.
+	 * Code taken from saved index file or from code loader,
+	 * classes without available code saved without it (code will be requested from code loader on search).
+	 */
+	public synchronized void save(File indexFile, String version) throws IOException {
+		File tmpFile = new File(indexFile.getPath() + ".tmp");
+		int count = classes.size();
+		long[] newOffsets = new long[count];
+		int[] newLengths = new int[count];
+		Arrays.fill(newOffsets, -1);
+		try {
+			FileUtils.makeDirsForFile(indexFile);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				writeIndex(out, version, newOffsets, newLengths);
+			}
+			synchronized (storeLock) {
+				closeStore();
+				storeFile = null;
+				if (indexFile.exists() && !indexFile.delete() || !tmpFile.renameTo(indexFile)) {
+					for (ClassEntry entry : classes) {
+						if (entry != null) {
+							entry.storeOffset = -1;
+						}
+					}
+					throw new IOException("Failed to replace index file: " + indexFile);
+				}
+				storeFile = indexFile;
+				for (int id = 0; id < count; id++) {
+					ClassEntry entry = classes.get(id);
+					if (entry != null) {
+						entry.storeOffset = newOffsets[id];
+						entry.storeLength = newLengths[id];
+					}
+				}
+			}
+		} finally {
+			if (tmpFile.exists()) {
+				tmpFile.delete();
+			}
+		}
+		modified = false;
+	}
+
+	private void writeIndex(DataOutputStream out, String version, long[] newOffsets, int[] newLengths) throws IOException {
+		out.write(MAGIC);
+		out.writeInt(DATA_FORMAT_VERSION);
+		writeString(out, version);
+
+		// skip words not used anymore
+		int[] wordsIdx = new int[words.size()];
+		int usedWords = 0;
+		for (int w = 0; w < wordsIdx.length; w++) {
+			wordsIdx[w] = wordClasses.get(w).size != 0 ? usedWords++ : -1;
+		}
+		out.writeInt(usedWords);
+		for (int w = 0; w < wordsIdx.length; w++) {
+			if (wordsIdx[w] != -1) {
+				writeString(out, words.get(w));
+			}
+		}
+		List<String> keys = new ArrayList<>(symbolClasses.keySet());
+		Map<String, Integer> keysIdx = new HashMap<>(keys.size());
+		out.writeInt(keys.size());
+		for (String key : keys) {
+			keysIdx.put(key, keysIdx.size());
+			writeString(out, key);
+		}
+		out.writeInt(classIds.size());
+		for (int id = 0; id < classes.size(); id++) {
+			ClassEntry entry = classes.get(id);
+			if (entry == null) {
+				continue;
+			}
+			writeString(out, entry.getRawName());
+			out.writeInt(entry.codeLength);
+			out.writeInt(entry.codeHash);
+			int[] entryWords = entry.wordIds;
+			out.writeInt(entryWords.length);
+			for (int wordId : entryWords) {
+				out.writeInt(wordsIdx[wordId]);
+			}
+			int symCount = entry.symKeys.length;
+			out.writeInt(symCount);
+			for (int i = 0; i < symCount; i++) {
+				out.writeInt(keysIdx.get(entry.symKeys[i]));
+				out.writeInt(entry.symInfo[i]);
+			}
+			int varsCount = entry.varPos.length;
+			out.writeInt(varsCount);
+			for (int i = 0; i < varsCount; i++) {
+				out.writeInt(entry.varPos[i]);
+				out.writeInt(entry.varTarget[i]);
+			}
+			byte[] codeBytes = getCodeBytesForSave(entry);
+			if (codeBytes == null) {
+				out.writeInt(-1);
+				continue;
+			}
+			out.writeInt(codeBytes.length);
+			if (out.size() > Integer.MAX_VALUE - codeBytes.length) {
+				throw new IOException("Search index file too big");
+			}
+			newOffsets[id] = out.size();
+			newLengths[id] = codeBytes.length;
+			out.write(codeBytes);
+		}
+	}
+
+	@Nullable
+	private byte[] getCodeBytesForSave(ClassEntry entry) {
+		byte[] stored = readStoredCode(entry);
+		if (stored != null) {
+			return stored;
+		}
+		String code = loadCode(entry);
+		if (code == null) {
+			return null;
+		}
+		return code.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Load index saved by {@link #save(File, String)}.
+	 * Code not loaded, only positions in file stored.
+	 *
+	 * @return null if data saved in other format or with different version string
+	 */
+	@Nullable
+	public static CodeSearchIndex load(File indexFile, String version) throws IOException {
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+				DataInputStream in = new DataInputStream(counter)) {
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, MAGIC) || in.readInt() != DATA_FORMAT_VERSION || !readString(in).equals(version)) {
+				return null;
+			}
+			CodeSearchIndex index = new CodeSearchIndex();
+			int wordsCount = in.readInt();
+			for (int i = 0; i < wordsCount; i++) {
+				index.getWordId(readString(in));
+			}
+			int keysCount = in.readInt();
+			String[] keys = new String[keysCount];
+			for (int i = 0; i < keysCount; i++) {
+				keys[i] = readString(in);
+			}
+			int clsCount = in.readInt();
+			for (int c = 0; c < clsCount; c++) {
+				String rawName = readString(in);
+				int codeLength = in.readInt();
+				int codeHash = in.readInt();
+				int[] entryWords = new int[in.readInt()];
+				for (int i = 0; i < entryWords.length; i++) {
+					entryWords[i] = in.readInt();
+				}
+				int symCount = in.readInt();
+				String[] symKeys = new String[symCount];
+				int[] symInfo = new int[symCount];
+				for (int i = 0; i < symCount; i++) {
+					symKeys[i] = keys[in.readInt()];
+					symInfo[i] = in.readInt();
+				}
+				int varsCount = in.readInt();
+				int[] varPos = new int[varsCount];
+				int[] varTarget = new int[varsCount];
+				for (int i = 0; i < varsCount; i++) {
+					varPos[i] = in.readInt();
+					varTarget[i] = in.readInt();
+				}
+				ClassEntry entry = new ClassEntry(rawName, codeLength, codeHash, symKeys, symInfo, varPos, varTarget);
+				int codeBytesLen = in.readInt();
+				if (codeBytesLen >= 0) {
+					entry.storeOffset = counter.getCount();
+					entry.storeLength = codeBytesLen;
+					skipFully(in, codeBytesLen);
+				}
+				index.addEntry(entry, entryWords);
+			}
+			index.storeFile = indexFile;
+			return index;
+		}
+	}
+
+	/**
+	 * Same encoding as {@link DataOutputStream#writeUTF(String)} (lossless for any chars),
+	 * but with int chars count prefix: words and names can be longer than 64 KB limit of writeUTF
+	 */
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		int len = str.length();
+		out.writeInt(len);
+		for (int i = 0; i < len; i++) {
+			char c = str.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				out.write(c);
+			} else if (c <= 0x07FF) {
+				out.write(0xC0 | c >> 6 & 0x1F);
+				out.write(0x80 | c & 0x3F);
+			} else {
+				out.write(0xE0 | c >> 12 & 0x0F);
+				out.write(0x80 | c >> 6 & 0x3F);
+				out.write(0x80 | c & 0x3F);
+			}
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int len = in.readInt();
+		if (len < 0) {
+			throw new IOException("Invalid string length: " + len);
+		}
+		char[] chars = new char[len];
+		for (int i = 0; i < len; i++) {
+			int b = in.readUnsignedByte();
+			if (b < 0x80) {
+				chars[i] = (char) b;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[i] = (char) ((b & 0x1F) << 6 | in.readUnsignedByte() & 0x3F);
+			} else {
+				int b2 = in.readUnsignedByte();
+				chars[i] = (char) ((b & 0x0F) << 12 | (b2 & 0x3F) << 6 | in.readUnsignedByte() & 0x3F);
+			}
+		}
+		return new String(chars);
+	}
+
+	private static void skipFully(DataInputStream in, int len) throws IOException {
+		int remaining = len;
+		while (remaining > 0) {
+			int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					throw new IOException("Unexpected end of search index file");
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (storeLock) {
+			closeStore();
+		}
+	}
+
+	private void closeStore() {
+		RandomAccessFile raf = storeRaf;
+		if (raf != null) {
+			storeRaf = null;
+			try {
+				raf.close();
+			} catch (IOException e) {
+				LOG.debug("Failed to close search index file", e);
+			}
+		}
+	}
+
+	private static final class ClassEntry {
+		private final String rawName;
+		private final int codeLength;
+		private final int codeHash;
+		private final String[] symKeys;
+		/**
+		 * Symbol position shifted left by one bit, lowest bit set for declaration
+		 */
+		private final int[] symInfo;
+		private final int[] varPos;
+		/**
+		 * Declaration position of referenced variable
+		 */
+		private final int[] varTarget;
+		/**
+		 * Ids of words in class code, set on add into index
+		 */
+		private int[] wordIds;
+		/**
+		 * Code position in saved index file (-1 if not saved), guarded by {@link #storeLock}
+		 */
+		private long storeOffset = -1;
+		private int storeLength;
+
+		ClassEntry(String rawName, int codeLength, int codeHash, String[] symKeys, int[] symInfo, int[] varPos, int[] varTarget) {
+			this.rawName = rawName;
+			this.codeLength = codeLength;
+			this.codeHash = codeHash;
+			this.symKeys = symKeys;
+			this.symInfo = symInfo;
+			this.varPos = varPos;
+			this.varTarget = varTarget;
+		}
+
+		String getRawName() {
+			return rawName;
+		}
+
+		boolean isSameCode(String code) {
+			return code.length() == codeLength && code.hashCode() == codeHash;
+		}
+	}
+
+	/**
+	 * Growable sorted list of ids
+	 */
+	private static final class IdsList {
+		private int[] ids = new int[2];
+		private int size;
+
+		/**
+		 * Append id, should be bigger than all ids in list
+		 */
+		void add(int id) {
+			if (size != 0 && ids[size - 1] == id) {
+				return;
+			}
+			ensureCapacity();
+			ids[size++] = id;
+		}
+
+		void insert(int id) {
+			if (size == 0 || ids[size - 1] < id) {
+				ensureCapacity();
+				ids[size++] = id;
+				return;
+			}
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				return;
+			}
+			int insertPos = -pos - 1;
+			ensureCapacity();
+			System.arraycopy(ids, insertPos, ids, insertPos + 1, size - insertPos);
+			ids[insertPos] = id;
+			size++;
+		}
+
+		void remove(int id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+				size--;
+			}
+		}
+
+		int removeFirst() {
+			int id = ids[0];
+			System.arraycopy(ids, 1, ids, 0, size - 1);
+			size--;
+			return id;
+		}
+
+		void addTo(BitSet set) {
+			for (int i = 0; i < size; i++) {
+				set.set(ids[i]);
+			}
+		}
+
+		private void ensureCapacity() {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+		}
+	}
+
+	private static final class CountingInputStream extends FilterInputStream {
+		private long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		long getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * Create results for one class, positions should be added in increasing order
+	 */
+	private static final class ResultsBuilder {
+		private final ClassEntry entry;
+		private final String code;
+		private final List<SearchResult> results;
+		private int linePos;
+		private int line = 1;
+
+		ResultsBuilder(ClassEntry entry, String code, List<SearchResult> results) {
+			this.entry = entry;
+			this.code = code;
+			this.results = results;
+		}
+
+		void add(int pos, int length, boolean declaration) {
+			if (pos < linePos) {
+				linePos = 0;
+				line = 1;
+			}
+			while (linePos < pos) {
+				if (code.charAt(linePos) == '\n') {
+					line++;
+				}
+				linePos++;
+			}
+			int lineStart = code.lastIndexOf('\n', pos - 1) + 1;
+			int lineEnd = code.indexOf('\n', pos);
+			if (lineEnd == -1) {
+				lineEnd = code.length();
+			}
+			String lineText = code.substring(lineStart, lineEnd).trim();
+			results.add(new SearchResult(entry.getRawName(), pos, length, line, lineText, declaration));
+		}
+	}
+}
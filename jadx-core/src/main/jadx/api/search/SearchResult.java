@@ -0,0 +1,66 @@
+package jadx.api.search;
+
+/**
+ * Match found by {@link CodeSearchIndex}
+ */
+public final class SearchResult {
+	private final String clsRawName;
+	private final int pos;
+	private final int length;
+	private final int line;
+	private final String lineText;
+	private final boolean declaration;
+
+	SearchResult(String clsRawName, int pos, int length, int line, String lineText, boolean declaration) {
+		this.clsRawName = clsRawName;
+		this.pos = pos;
+		this.length = length;
+		this.line = line;
+		this.lineText = lineText;
+		this.declaration = declaration;
+	}
+
+	/**
+	 * Raw name of top level class (key used in code cache)
+	 */
+	public String getClsRawName() {
+		return clsRawName;
+	}
+
+	/**
+	 * Start position of match in class code
+	 */
+	public int getPos() {
+		return pos;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Line number in class code (starting from 1)
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Text of line with match (trimmed)
+	 */
+	public String getLineText() {
+		return lineText;
+	}
+
+	/**
+	 * For symbol search: true if match is a declaration of searched node
+	 */
+	public boolean isDeclaration() {
+		return declaration;
+	}
+
+	@Override
+	public String toString() {
+		return clsRawName + ':' + line + (declaration ? " (declaration)" : "") + ": " + lineText;
+	}
+}
@@ -16,6 +16,7 @@ import jadx.core.dex.nodes.LoadStage;
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.dex.visitors.DepthTraversal;
 import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 import static jadx.core.dex.nodes.ProcessState.GENERATED_AND_UNLOADED;
@@ -74,7 +75,7 @@ public class ProcessClass {
 					cls.setState(PROCESS_COMPLETE);
 				}
 				if (codegen) {
-					ICodeInfo code = CodeGen.generate(cls);
+					ICodeInfo code = generate(cls);
 					if (!cls.contains(AFlag.DONT_UNLOAD_CLASS)) {
 						cls.unload();
 						cls.setState(GENERATED_AND_UNLOADED);
@@ -92,6 +93,28 @@ public class ProcessClass {
 		}
 	}
 
+	private static ICodeInfo generate(ClassNode cls) {
+		PassesProfiler profiler = cls.root().getPassesProfiler();
+		if (profiler == null) {
+			return CodeGen.generate(cls);
+		}
+		long startTime = profiler.start();
+		long startAlloc = profiler.startAlloc();
+		try {
+			return CodeGen.generate(cls);
+		} finally {
+			profiler.finishStage(PassesProfiler.STAGE_CODEGEN, startTime, startAlloc);
+		}
+	}
+
+	/**
+	 * Run all passes for class without code generation.
+	 * Used to prepare dependencies before code generation of dependant classes.
+	 */
+	public void processDependency(ClassNode cls) {
+		process(cls.getTopParentClass(), false);
+	}
+
 	@NotNull
 	public ICodeInfo generateCode(ClassNode cls) {
 		ClassNode topParentClass = cls.getTopParentClass();
@@ -1,7 +1,8 @@
 package jadx.core.clsp;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -23,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.plugins.utils.CommonFileUtils;
 import jadx.api.plugins.utils.ZipSecurity;
 import jadx.core.dex.info.AccessInfo;
 import jadx.core.dex.info.ClassInfo;
@@ -46,7 +48,13 @@ public class ClsSet {
 	private static final String CLST_PATH = "/clst/" + CLST_FILENAME;
 	
 	private static final String JADX_CLS_SET_HEADER = "jadx-cst";
-	private static final int VERSION = 3;
+	/**
+	 * Version 4: methods block of every class prefixed by its size in bytes,
+	 * so it can be skipped at load and decoded on first access.
+	 * Version 3 still supported, methods block skipped by parsing.
+	 */
+	private static final int VERSION = 4;
+	private static final int VERSION_NO_INDEX = 3;
 	
 	private static final String STRING_CHARSET = "US-ASCII";
 	
@@ -69,6 +77,10 @@ public class ClsSet {
 	}
 	
 	private ClspClass[] classes;
+	/**
+	 * Content of loaded file, used for lazy methods loading
+	 */
+	private byte[] data;
 	
 	public void loadFromClstFile() throws IOException, DecodeException {
 		long startTime = System.currentTimeMillis();
@@ -80,11 +92,8 @@ public class ClsSet {
 		}
 		if (LOG.isDebugEnabled()) {
 			long time = System.currentTimeMillis() - startTime;
-			int methodsCount = 0;
-			for (ClspClass clspClass : classes) {
-				methodsCount += clspClass.getMethodsMap().size();
-			}
-			LOG.debug("Clst file loaded in {}ms, classes: {}, methods: {}", time, classes.length, methodsCount);
+			LOG.debug("Clst file loaded in {}ms, classes: {}, size: {} bytes (methods will be loaded on demand)",
+					time, classes.length, data.length);
 		}
 	}
 	
@@ -183,14 +192,20 @@ public class ClsSet {
 			writeString(out, clsName);
 			names.put(clsName, cls);
 		}
+		ByteArrayOutputStream methodsBytes = new ByteArrayOutputStream();
 		for (ClspClass cls : classes) {
 			writeArgTypesArray(out, cls.getParents(), names);
 			writeArgTypesList(out, cls.getTypeParameters(), names);
+			methodsBytes.reset();
+			DataOutputStream methodsOut = new DataOutputStream(methodsBytes);
 			List<ClspMethod> methods = cls.getSortedMethodsList();
-			out.writeShort(methods.size());
+			methodsOut.writeShort(methods.size());
 			for (ClspMethod method : methods) {
-				writeMethod(out, method, names);
+				writeMethod(methodsOut, method, names);
 			}
+			methodsOut.flush();
+			out.writeInt(methodsBytes.size());
+			methodsBytes.writeTo(out);
 		}
 		
 		/* Traditional Method instead of  Lambda Expression*/
@@ -299,31 +314,162 @@ public class ClsSet {
 	}
 	
 	private void load(InputStream input) throws IOException, DecodeException {
-		try (DataInputStream in = new DataInputStream(new BufferedInputStream(input))) {
-			byte[] header = new byte[JADX_CLS_SET_HEADER.length()];
-			int readHeaderLength = in.read(header);
-			int version = in.readByte();
-			if (readHeaderLength != JADX_CLS_SET_HEADER.length()
-			|| !JADX_CLS_SET_HEADER.equals(new String(header, STRING_CHARSET))
-			|| version != VERSION) {
-				throw new DecodeException("Wrong jadx class set header");
+		byte[] bytes = CommonFileUtils.loadBytes(input);
+		DataReader in = new DataReader(bytes, 0);
+		byte[] header = new byte[JADX_CLS_SET_HEADER.length()];
+		int readHeaderLength = in.read(header);
+		int version = in.readByte();
+		if (readHeaderLength != JADX_CLS_SET_HEADER.length()
+		|| !JADX_CLS_SET_HEADER.equals(new String(header, STRING_CHARSET))
+		|| version != VERSION && version != VERSION_NO_INDEX) {
+			throw new DecodeException("Wrong jadx class set header");
+		}
+		int clsCount = in.readInt();
+		classes = new ClspClass[clsCount];
+		for (int i = 0; i < clsCount; i++) {
+			String name = readString(in);
+			classes[i] = new ClspClass(ArgType.object(name), i);
+		}
+		for (int i = 0; i < clsCount; i++) {
+			ClspClass nClass = classes[i];
+			nClass.setParents(readArgTypesArray(in));
+			nClass.setTypeParameters(readArgTypesList(in));
+			if (version == VERSION) {
+				int methodsSize = in.readInt();
+				nClass.setMethodsLoader(new LazyMethods(in.getPos()));
+				in.skipBytes(methodsSize);
+			} else {
+				nClass.setMethodsLoader(new LazyMethods(in.getPos()));
+				skipClsMethods(in);
 			}
-			int clsCount = in.readInt();
-			classes = new ClspClass[clsCount];
-			for (int i = 0; i < clsCount; i++) {
-				String name = readString(in);
-				classes[i] = new ClspClass(ArgType.object(name), i);
+		}
+		this.data = bytes;
+	}
+	
+	/**
+	 * Decode class methods from stored file content on first access
+	 */
+	private final class LazyMethods implements ClspClass.IMethodsLoader {
+		private final int offset;
+		
+		private LazyMethods(int offset) {
+			this.offset = offset;
+		}
+		
+		@Override
+		public List<ClspMethod> load(ClspClass cls) {
+			try {
+				DataReader in = new DataReader(data, offset);
+				return readClsMethods(in, ClassInfo.fromType(root, cls.getClsType()));
+			} catch (Exception e) {
+				throw new JadxRuntimeException("Failed to load methods for class: " + cls, e);
 			}
-			for (int i = 0; i < clsCount; i++) {
-				ClspClass nClass = classes[i];
-				ClassInfo clsInfo = ClassInfo.fromType(root, nClass.getClsType());
-				nClass.setParents(readArgTypesArray(in));
-				nClass.setTypeParameters(readArgTypesList(in));
-				nClass.setMethods(readClsMethods(in, clsInfo));
+		}
+	}
+	
+	/**
+	 * Data input with access to current position in byte array
+	 */
+	private static final class DataReader extends DataInputStream {
+		private final PosInputStream posInput;
+		
+		DataReader(byte[] data, int offset) {
+			this(new PosInputStream(data, offset));
+		}
+		
+		private DataReader(PosInputStream posInput) {
+			super(posInput);
+			this.posInput = posInput;
+		}
+		
+		int getPos() {
+			return posInput.getPos();
+		}
+	}
+	
+	private static final class PosInputStream extends ByteArrayInputStream {
+		PosInputStream(byte[] buf, int offset) {
+			super(buf, offset, buf.length - offset);
+		}
+		
+		int getPos() {
+			return pos;
+		}
+	}
+	
+	private static void skipClsMethods(DataInputStream in) throws IOException {
+		int mCount = in.readShort();
+		for (int j = 0; j < mCount; j++) {
+			skipString(in);
+			skipArgTypesList(in);
+			skipArgType(in);
+			skipArgTypesList(in);
+			skipArgType(in);
+			skipArgTypesList(in);
+			in.skipBytes(4);
+			skipArgTypesList(in);
+		}
+	}
+	
+	private static void skipArgTypesList(DataInputStream in) throws IOException {
+		int count = in.readByte();
+		for (int i = 0; i < count; i++) {
+			skipArgType(in);
+		}
+	}
+	
+	private static void skipArgType(DataInputStream in) throws IOException {
+		int ordinal = in.readByte();
+		if (ordinal == -1) {
+			return;
+		}
+		if (ordinal >= TypeEnum.values().length) {
+			throw new JadxRuntimeException("Incorrect ordinal for type enum: " + ordinal);
+		}
+		switch (TypeEnum.values()[ordinal]) {
+			case WILDCARD:
+			ArgType.WildcardBound bound = ArgType.WildcardBound.getByNum(in.readByte());
+			if (bound != ArgType.WildcardBound.UNBOUND) {
+				skipArgType(in);
 			}
+			break;
+			
+			case OUTER_GENERIC:
+			skipArgType(in);
+			skipArgType(in);
+			break;
+			
+			case GENERIC:
+			in.skipBytes(4);
+			skipArgTypesList(in);
+			break;
+			
+			case GENERIC_TYPE_VARIABLE:
+			skipString(in);
+			skipArgTypesList(in);
+			break;
+			
+			case OBJECT:
+			in.skipBytes(4);
+			break;
+			
+			case ARRAY:
+			skipArgType(in);
+			break;
+			
+			case PRIMITIVE:
+			in.skipBytes(1);
+			break;
+			
+			default:
+			throw new JadxRuntimeException("Unsupported Arg Type: " + ordinal);
 		}
 	}
 	
+	private static void skipString(DataInputStream in) throws IOException {
+		in.skipBytes(readUnsignedByte(in));
+	}
+	
 	private List<ClspMethod> readClsMethods(DataInputStream in, ClassInfo clsInfo) throws IOException {
 		int mCount = in.readShort();
 		List<ClspMethod> methods = new ArrayList<>(mCount);
@@ -17,7 +17,11 @@ public class ClspClass {
 	private final ArgType clsType;
 	private final int id;
 	private ArgType[] parents;
-	private Map<String, ClspMethod> methodsMap = Collections.emptyMap();
+	private volatile Map<String, ClspMethod> methodsMap = Collections.emptyMap();
+	/**
+	 * Set if methods not loaded yet, will be used on first access
+	 */
+	private volatile IMethodsLoader methodsLoader;
 	private List<ArgType> typeParameters = Collections.emptyList();
 
 	public ClspClass(ArgType clsType, int id) {
@@ -46,12 +50,32 @@ public class ClspClass {
 	}
 
 	public Map<String, ClspMethod> getMethodsMap() {
+		if (methodsLoader != null) {
+			loadMethods();
+		}
 		return methodsMap;
 	}
 
+	private synchronized void loadMethods() {
+		IMethodsLoader loader = methodsLoader;
+		if (loader != null) {
+			setMethods(loader.load(this));
+			methodsLoader = null;
+		}
+	}
+
+	void setMethodsLoader(IMethodsLoader methodsLoader) {
+		this.methodsLoader = methodsLoader;
+	}
+
+	public boolean isMethodsLoaded() {
+		return methodsLoader == null;
+	}
+
 	public List<ClspMethod> getSortedMethodsList() {
-		List<ClspMethod> list = new ArrayList<>(methodsMap.size());
-		list.addAll(methodsMap.values());
+		Map<String, ClspMethod> map = getMethodsMap();
+		List<ClspMethod> list = new ArrayList<>(map.size());
+		list.addAll(map.values());
 		Collections.sort(list);
 		return list;
 	}
@@ -76,6 +100,10 @@ public class ClspClass {
 		this.typeParameters = typeParameters;
 	}
 
+	interface IMethodsLoader {
+		List<ClspMethod> load(ClspClass cls);
+	}
+
 	@Override
 	public int hashCode() {
 		return clsType.hashCode();
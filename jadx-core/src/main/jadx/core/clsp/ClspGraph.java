@@ -1,18 +1,26 @@
 package jadx.core.clsp;
 
 import java.io.IOException;
+import java.util.AbstractList;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.core.clsp.ClspLookupStats.Counter;
 import jadx.core.dex.info.MethodInfo;
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.nodes.ClassNode;
@@ -28,14 +36,30 @@ public class ClspGraph {
 	private static final Logger LOG = LoggerFactory.getLogger(ClspGraph.class);
 	
 	private final RootNode root;
+	private static final int[] EMPTY_IDS = new int[0];
+	
 	private Map<String, ClspClass> nameMap;
-	private Map<String, Set<String>> superTypesCache;
-	private Map<String, List<String>> implementsCache;
 	
-	private final Set<String> missingClasses = new HashSet<>();
+	// hierarchy on dense class ids, filled in initCache()
+	private String[] names;
+	private Map<String, Integer> idsMap;
+	private int[][] superTypes;
+	private int[][] sortedSuperTypes;
+	private int[][] implementations;
+	
+	/**
+	 * Written from decompilation threads, check before add to avoid writes on hot path
+	 */
+	private final Set<String> missingClasses = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	/**
+	 * Lookup counters, collected only if passes profiling enabled ({@link jadx.api.JadxArgs#setProfilePasses(boolean)})
+	 */
+	@Nullable
+	private final ClspLookupStats stats;
 	
 	public ClspGraph(RootNode rootNode) {
 		this.root = rootNode;
+		this.stats = rootNode.getArgs().isProfilePasses() ? new ClspLookupStats() : null;
 	}
 	
 	public void load() throws IOException, DecodeException {
@@ -63,8 +87,7 @@ public class ClspGraph {
 	}
 	
 	public void initCache() {
-		fillSuperTypesCache();
-		fillImplementsCache();
+		buildHierarchy();
 	}
 	
 	public boolean isClsKnown(String fullName) {
@@ -72,33 +95,46 @@ public class ClspGraph {
 	}
 	
 	public ClspClass getClsDetails(ArgType type) {
-		return nameMap.get(type.getObject());
+		ClspClass cls = nameMap.get(type.getObject());
+		countLookup(cls != null ? Counter.CLS_HIT : Counter.CLS_MISS);
+		return cls;
 	}
 	
 	@Nullable
 	public IMethodDetails getMethodDetails(MethodInfo methodInfo) {
 		ClspClass cls = nameMap.get(methodInfo.getDeclClass().getRawName());
 		if (cls == null) {
+			countLookup(Counter.MTH_NO_CLS);
 			return null;
 		}
 		ClspMethod clspMethod = getMethodFromClass(cls, methodInfo);
 		if (clspMethod != null) {
+			countLookup(Counter.MTH_HIT);
 			return clspMethod;
 		}
 		// deep search
+		countLookup(Counter.MTH_DEEP_SEARCH);
 		for (ArgType parent : cls.getParents()) {
 			ClspClass clspParent = getClspClass(parent);
 			if (clspParent != null) {
 				ClspMethod methodFromParent = getMethodFromClass(clspParent, methodInfo);
 				if (methodFromParent != null) {
+					countLookup(Counter.MTH_DEEP_HIT);
 					return methodFromParent;
 				}
 			}
 		}
 		// unknown method
+		countLookup(Counter.MTH_UNKNOWN);
 		return new SimpleMethodDetails(methodInfo);
 	}
 	
+	private void countLookup(Counter counter) {
+		if (stats != null) {
+			stats.inc(counter);
+		}
+	}
+	
 	private ClspMethod getMethodFromClass(ClspClass cls, MethodInfo methodInfo) {
 		return cls.getMethodsMap().get(methodInfo.getShortId());
 	}
@@ -115,35 +151,24 @@ public class ClspGraph {
 	* @return {@code clsName} instanceof {@code implClsName}
 	*/
 	public boolean isImplements(String clsName, String implClsName) {
-		Set<String> anc = getSuperTypes(clsName);
-		return anc.contains(implClsName);
+		int clsId = getId(clsName);
+		if (clsId == -1) {
+			return false;
+		}
+		int implId = getId(implClsName);
+		return implId != -1 && Arrays.binarySearch(sortedSuperTypes[clsId], implId) >= 0;
 	}
 	
 	public List<String> getImplementations(String clsName) {
-		List<String> list = implementsCache.get(clsName);
-		return list == null ? Collections.emptyList() : list;
-	}
-	
-	/* Traditional Method instead of  Lambda Expression*/
-	/* By @developer-krushna*/
-	private void fillImplementsCache() {
-		Map<String, List<String>> map = new HashMap<>(nameMap.size());
-		List<String> classes = new ArrayList<>(nameMap.keySet());
-		Collections.sort(classes);
-		
-		for (String cls : classes) {
-			Set<String> superTypes = getSuperTypes(cls);
-			for (String st : superTypes) {
-				List<String> classNames = map.get(st);
-				if (classNames == null) {
-					classNames = new ArrayList<>();
-					map.put(st, classNames);
-				}
-				classNames.add(cls);
-			}
+		int id = getId(clsName);
+		if (id == -1) {
+			return Collections.emptyList();
 		}
-		
-		implementsCache = map;
+		int[] impls = implementations[id];
+		if (impls.length == 0) {
+			return Collections.emptyList();
+		}
+		return new NamesList(impls);
 	}
 	
 	public String getCommonAncestor(String clsName, String implClsName) {
@@ -152,7 +177,7 @@ public class ClspGraph {
 		}
 		ClspClass cls = nameMap.get(implClsName);
 		if (cls == null) {
-			missingClasses.add(clsName);
+			addMissingClass(clsName);
 			return null;
 		}
 		if (isImplements(clsName, implClsName)) {
@@ -179,44 +204,216 @@ public class ClspGraph {
 		return null;
 	}
 	
+	/**
+	 * @return all super types of class, nearest parents first
+	 */
 	public Set<String> getSuperTypes(String clsName) {
-		Set<String> result = superTypesCache.get(clsName);
-		return result == null ? Collections.emptySet() : result;
-	}
-	
-	private void fillSuperTypesCache() {
-		Map<String, Set<String>> map = new HashMap<>(nameMap.size());
-		Set<String> tmpSet = new HashSet<>();
-		for (Map.Entry<String, ClspClass> entry : nameMap.entrySet()) {
-			ClspClass cls = entry.getValue();
-			tmpSet.clear();
-			addSuperTypes(cls, tmpSet);
-			Set<String> result;
-			if (tmpSet.isEmpty()) {
-				result = Collections.emptySet();
-			} else {
-				result = new HashSet<>(tmpSet);
-			}
-			map.put(cls.getName(), result);
+		int id = getId(clsName);
+		if (id == -1) {
+			return Collections.emptySet();
 		}
-		superTypesCache = map;
+		int[] ids = superTypes[id];
+		if (ids.length == 0) {
+			return Collections.emptySet();
+		}
+		return new NamesSet(ids, sortedSuperTypes[id]);
 	}
 	
-	private void addSuperTypes(ClspClass cls, Set<String> result) {
-		for (ArgType parentType : cls.getParents()) {
-			if (parentType == null) {
+	private int getId(String clsName) {
+		Integer id = idsMap.get(clsName);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Assign dense ids for all known classes and unknown parents (in names order)
+	 * and store hierarchy as arrays of ids.
+	 */
+	private void buildHierarchy() {
+		Set<String> allNames = new HashSet<>(nameMap.keySet());
+		for (ClspClass cls : nameMap.values()) {
+			for (ArgType parentType : cls.getParents()) {
+				if (parentType != null) {
+					allNames.add(parentType.getObject());
+				}
+			}
+		}
+		String[] namesArr = allNames.toArray(new String[0]);
+		Arrays.sort(namesArr);
+		int count = namesArr.length;
+		Map<String, Integer> ids = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.put(namesArr[i], i);
+		}
+		// resolve parents ids once
+		int[][] parents = new int[count][];
+		for (int i = 0; i < count; i++) {
+			ClspClass cls = nameMap.get(namesArr[i]);
+			if (cls == null) {
+				parents[i] = EMPTY_IDS;
 				continue;
 			}
-			ClspClass parentCls = getClspClass(parentType);
-			if (parentCls != null) {
-				boolean isNew = result.add(parentCls.getName());
-				if (isNew) {
-					addSuperTypes(parentCls, result);
+			ArgType[] parentTypes = cls.getParents();
+			int[] parentIds = new int[parentTypes.length];
+			int k = 0;
+			for (ArgType parentType : parentTypes) {
+				if (parentType != null) {
+					if (!nameMap.containsKey(parentType.getObject())) {
+						addMissingClass(parentType.getObject());
+					}
+					parentIds[k++] = ids.get(parentType.getObject());
 				}
-			} else {
-				// parent type is unknown
-				result.add(parentType.getObject());
 			}
+			parents[i] = k == parentIds.length ? parentIds : Arrays.copyOf(parentIds, k);
+		}
+		int[][] supers = new int[count][];
+		int[][] sortedSupers = new int[count][];
+		int[] implCounts = new int[count];
+		int[] visited = new int[count];
+		IdsCollector collector = new IdsCollector();
+		for (int i = 0; i < count; i++) {
+			if (parents[i].length == 0) {
+				supers[i] = EMPTY_IDS;
+				sortedSupers[i] = EMPTY_IDS;
+				continue;
+			}
+			// use class index + 1 as visit mark to avoid clearing array
+			collector.reset(i + 1);
+			for (int parentId : parents[i]) {
+				collector.collect(parents, visited, parentId);
+			}
+			int[] result = collector.toArray();
+			supers[i] = result;
+			int[] sorted = result.clone();
+			Arrays.sort(sorted);
+			sortedSupers[i] = sorted;
+			if (nameMap.containsKey(namesArr[i])) {
+				for (int superId : result) {
+					implCounts[superId]++;
+				}
+			}
+		}
+		// classes visited in names order, so implementations lists also sorted by name
+		int[][] impls = new int[count][];
+		for (int i = 0; i < count; i++) {
+			impls[i] = implCounts[i] == 0 ? EMPTY_IDS : new int[implCounts[i]];
+			implCounts[i] = 0;
+		}
+		for (int i = 0; i < count; i++) {
+			if (nameMap.containsKey(namesArr[i])) {
+				for (int superId : supers[i]) {
+					impls[superId][implCounts[superId]++] = i;
+				}
+			}
+		}
+		this.names = namesArr;
+		this.idsMap = ids;
+		this.superTypes = supers;
+		this.sortedSuperTypes = sortedSupers;
+		this.implementations = impls;
+	}
+	
+	/**
+	 * Collect super types ids in depth-first order (same order as parents declared)
+	 */
+	private static final class IdsCollector {
+		private int[] data = new int[16];
+		private int size;
+		private int mark;
+		
+		void reset(int mark) {
+			this.mark = mark;
+			this.size = 0;
+		}
+		
+		void collect(int[][] parents, int[] visited, int id) {
+			if (visited[id] == mark) {
+				return;
+			}
+			visited[id] = mark;
+			if (size == data.length) {
+				data = Arrays.copyOf(data, size * 2);
+			}
+			data[size++] = id;
+			for (int parentId : parents[id]) {
+				collect(parents, visited, parentId);
+			}
+		}
+		
+		int[] toArray() {
+			return Arrays.copyOf(data, size);
+		}
+	}
+	
+	/**
+	 * Read-only set view for super type ids
+	 */
+	private final class NamesSet extends AbstractSet<String> {
+		private final int[] ids;
+		private final int[] sortedIds;
+		
+		private NamesSet(int[] ids, int[] sortedIds) {
+			this.ids = ids;
+			this.sortedIds = sortedIds;
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String)) {
+				return false;
+			}
+			int id = getId((String) o);
+			return id != -1 && Arrays.binarySearch(sortedIds, id) >= 0;
+		}
+		
+		@Override
+		public Iterator<String> iterator() {
+			return new Iterator<String>() {
+				private int pos;
+				
+				@Override
+				public boolean hasNext() {
+					return pos < ids.length;
+				}
+				
+				@Override
+				public String next() {
+					if (pos >= ids.length) {
+						throw new NoSuchElementException();
+					}
+					return names[ids[pos++]];
+				}
+				
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return ids.length;
+		}
+	}
+	
+	/**
+	 * Read-only list view for class ids
+	 */
+	private final class NamesList extends AbstractList<String> implements RandomAccess {
+		private final int[] ids;
+		
+		private NamesList(int[] ids) {
+			this.ids = ids;
+		}
+		
+		@Override
+		public String get(int index) {
+			return names[ids[index]];
+		}
+		
+		@Override
+		public int size() {
+			return ids.length;
 		}
 	}
 	
@@ -224,21 +421,46 @@ public class ClspGraph {
 	private ClspClass getClspClass(ArgType clsType) {
 		ClspClass clspClass = nameMap.get(clsType.getObject());
 		if (clspClass == null) {
-			missingClasses.add(clsType.getObject());
+			countLookup(Counter.CLS_MISS);
+			addMissingClass(clsType.getObject());
+		} else {
+			countLookup(Counter.CLS_HIT);
 		}
 		return clspClass;
 	}
 	
+	private void addMissingClass(String clsName) {
+		// most lookups are repeated, so check first to skip write
+		if (!missingClasses.contains(clsName)) {
+			missingClasses.add(clsName);
+		}
+	}
+	
+	/**
+	 * @return sorted list of referenced but not found classes
+	 */
+	public List<String> getMissingClasses() {
+		List<String> clsNames = new ArrayList<>(missingClasses);
+		Collections.sort(clsNames);
+		return clsNames;
+	}
+	
+	@Nullable
+	public ClspLookupStats getLookupStats() {
+		return stats;
+	}
+	
 	public void printMissingClasses() {
+		if (stats != null && LOG.isDebugEnabled()) {
+			LOG.debug("{}", stats);
+		}
 		int count = missingClasses.size();
 		if (count == 0) {
 			return;
 		}
 		LOG.warn("Found {} references to unknown classes", count);
 		if (LOG.isDebugEnabled()) {
-			List<String> clsNames = new ArrayList<>(missingClasses);
-			Collections.sort(clsNames);
-			for (String cls : clsNames) {
+			for (String cls : getMissingClasses()) {
 				LOG.debug("  {}", cls);
 			}
 		}
@@ -0,0 +1,87 @@
+package jadx.core.clsp;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Classpath lookup counters.
+ * <br>
+ * Counters are stored per thread (no contention on hot path) and merged on read,
+ * so values are exact only after decompilation threads finished.
+ * Collected only if passes profiling enabled, see {@link jadx.api.JadxArgs#setProfilePasses(boolean)}.
+ */
+public class ClspLookupStats {
+
+	public enum Counter {
+		/**
+		 * Class found in classpath
+		 */
+		CLS_HIT,
+		/**
+		 * Class not found in classpath
+		 */
+		CLS_MISS,
+		/**
+		 * Method found in declaring class
+		 */
+		MTH_HIT,
+		/**
+		 * Method not found in declaring class, search in parents started
+		 */
+		MTH_DEEP_SEARCH,
+		/**
+		 * Method found in one of parents
+		 */
+		MTH_DEEP_HIT,
+		/**
+		 * Declaring class known, but method not found
+		 */
+		MTH_UNKNOWN,
+		/**
+		 * Declaring class of method not found in classpath
+		 */
+		MTH_NO_CLS
+	}
+
+	private static final Counter[] COUNTERS = Counter.values();
+
+	private final Queue<long[]> allCounters = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<long[]> threadCounters = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			long[] counters = new long[COUNTERS.length];
+			allCounters.add(counters);
+			return counters;
+		}
+	};
+
+	public void inc(Counter counter) {
+		threadCounters.get()[counter.ordinal()]++;
+	}
+
+	public long get(Counter counter) {
+		int idx = counter.ordinal();
+		long sum = 0;
+		for (long[] counters : allCounters) {
+			sum += counters[idx];
+		}
+		return sum;
+	}
+
+	public void reset() {
+		for (long[] counters : allCounters) {
+			for (int i = 0; i < counters.length; i++) {
+				counters[i] = 0;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Classpath lookups:");
+		for (Counter counter : COUNTERS) {
+			sb.append(' ').append(counter.name().toLowerCase()).append('=').append(get(counter));
+		}
+		return sb.toString();
+	}
+}
@@ -265,6 +265,11 @@ public class MethodGen {
 	}
 	
 	public void addInstructions(ICodeWriter code) throws CodegenException {
+		if (DepthTraversal.isProcessedInFallbackMode(mth)) {
+			// instructions already reloaded and processed by fallback passes
+			addFallbackMethodCode(code, FALLBACK_MODE);
+			return;
+		}
 		JadxArgs args = mth.root().getArgs();
 		switch (args.getDecompilationMode()) {
 			case AUTO:
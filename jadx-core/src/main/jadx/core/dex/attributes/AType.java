@@ -42,6 +42,11 @@ import jadx.core.dex.trycatch.TryCatchBlockAttr;
  */
 public final class AType<T extends IJadxAttribute> implements IJadxAttrType<T> {
 
+	/**
+	 * Counter for ordinals, declared before constants and without initializer to be ready on constants creation
+	 */
+	private static int typesCount;
+
 	// class, method, field, insn
 	public static final AType<AttrList<String>> CODE_COMMENTS = new AType<>();
 
@@ -97,4 +102,19 @@ public final class AType<T extends IJadxAttribute> implements IJadxAttrType<T> {
 
 	// register
 	public static final AType<RegDebugInfoAttr> REG_DEBUG_INFO = new AType<>();
+
+	private final int ordinal;
+
+	public AType() {
+		synchronized (AType.class) {
+			this.ordinal = typesCount++;
+		}
+	}
+
+	/**
+	 * Sequence number in creation order, used for fast presence check in attribute storage
+	 */
+	public int getOrdinal() {
+		return ordinal;
+	}
 }
@@ -1,13 +1,11 @@
 package jadx.core.dex.attributes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.EnumSet;
-import java.util.IdentityHashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.*;
+
 import jadx.api.plugins.input.data.annotations.IAnnotation;
 import jadx.api.plugins.input.data.attributes.IJadxAttrType;
 import jadx.api.plugins.input.data.attributes.IJadxAttribute;
@@ -20,41 +18,62 @@ import jadx.core.utils.exceptions.JadxRuntimeException;
 * Storage for different attribute types:
 * 1. flags - boolean attribute (set or not)
 * 2. attribute - class instance associated with attribute type.
+* <br>
+* Packed representation: flags stored as bits of one long,
+* attributes in small array (nodes usually have only few attributes)
+* with types presence mask for fast negative checks.
 */
 public class AttributeStorage {
 	
 	static {
 		int flagsCount = AFlag.values().length;
 		if (flagsCount >= 64) {
-			throw new JadxRuntimeException("Try to reduce flags count to 64 for use one long in EnumSet, now " + flagsCount);
+			throw new JadxRuntimeException("Try to reduce flags count to 64 for use one long as flags set, now " + flagsCount);
 		}
 	}
 	
-	private final Set<AFlag> flags;
-	private Map<IJadxAttrType<?>, IJadxAttribute> attributes;
+	private static final AFlag[] FLAGS = AFlag.values();
+	
+	private static final IJadxAttribute[] NO_ATTRIBUTES = new IJadxAttribute[0];
+	
+	/**
+	 * Bits in types mask: {@link JadxAttrType} first, {@link AType} after
+	 */
+	private static final int ATYPE_BITS_OFFSET = 16;
+	
+	private long flags;
+	private long typesMask;
+	private IJadxAttribute[] attributes = NO_ATTRIBUTES;
+	private int attributesCount;
 	
 	public AttributeStorage() {
-		flags = EnumSet.noneOf(AFlag.class);
-		attributes = Collections.emptyMap();
 	}
 	
 	public AttributeStorage(List<IJadxAttribute> attributesList) {
-		this();
 		add(attributesList);
 	}
 	
 	public void add(AFlag flag) {
-		flags.add(flag);
+		flags |= 1L << flag.ordinal();
 	}
 	
 	public void add(IJadxAttribute attr) {
-		writeAttributes().put(attr.getAttrType(), attr);
+		IJadxAttrType<?> type = attr.getAttrType();
+		int idx = indexOf(type);
+		if (idx != -1) {
+			attributes[idx] = attr;
+			return;
+		}
+		if (attributesCount == attributes.length) {
+			attributes = Arrays.copyOf(attributes, attributesCount == 0 ? 2 : attributesCount * 2);
+		}
+		attributes[attributesCount++] = attr;
+		typesMask |= typeBit(type);
 	}
 	
 	public void add(List<IJadxAttribute> list) {
-		Map<IJadxAttrType<?>, IJadxAttribute> map = writeAttributes();
 		for (IJadxAttribute attr : list) {
-			map.put(attr.getAttrType(), attr);
+			add(attr);
 		}
 	}
 	
@@ -68,21 +87,61 @@ public class AttributeStorage {
 	}
 	
 	public void addAll(AttributeStorage otherList) {
-		flags.addAll(otherList.flags);
-		writeAttributes().putAll(otherList.attributes);
+		flags |= otherList.flags;
+		IJadxAttribute[] otherAttrs = otherList.attributes;
+		int count = otherList.attributesCount;
+		for (int i = 0; i < count; i++) {
+			add(otherAttrs[i]);
+		}
 	}
 	
 	public boolean contains(AFlag flag) {
-		return flags.contains(flag);
+		return (flags & 1L << flag.ordinal()) != 0;
 	}
 	
 	public <T extends IJadxAttribute> boolean contains(IJadxAttrType<T> type) {
-		return attributes.containsKey(type);
+		return indexOf(type) != -1;
 	}
 	
 	@SuppressWarnings("unchecked")
 	public <T extends IJadxAttribute> T get(IJadxAttrType<T> type) {
-		return (T) attributes.get(type);
+		int idx = indexOf(type);
+		return idx == -1 ? null : (T) attributes[idx];
+	}
+	
+	private int indexOf(IJadxAttrType<?> type) {
+		long bit = typeBit(type);
+		if (bit != 0 && (typesMask & bit) == 0) {
+			return -1;
+		}
+		IJadxAttribute[] attrs = attributes;
+		// bound and null checks for safe reads without lock (like in GUI)
+		int count = Math.min(attributesCount, attrs.length);
+		for (int i = 0; i < count; i++) {
+			IJadxAttribute attr = attrs[i];
+			if (attr != null && attr.getAttrType() == type) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @return bit for type in types mask or 0 if type don't have own bit
+	 */
+	private static long typeBit(IJadxAttrType<?> type) {
+		int bitIdx;
+		if (type instanceof AType) {
+			bitIdx = ATYPE_BITS_OFFSET + ((AType<?>) type).getOrdinal();
+		} else if (type instanceof JadxAttrType) {
+			bitIdx = ((JadxAttrType<?>) type).getOrdinal();
+			if (bitIdx >= ATYPE_BITS_OFFSET) {
+				return 0;
+			}
+		} else {
+			return 0;
+		}
+		return bitIdx < 64 ? 1L << bitIdx : 0;
 	}
 	
 	public IAnnotation getAnnotation(String cls) {
@@ -99,79 +158,79 @@ public class AttributeStorage {
 	}
 	
 	public void remove(AFlag flag) {
-		flags.remove(flag);
+		flags &= ~(1L << flag.ordinal());
 	}
 	
 	public <T extends IJadxAttribute> void remove(IJadxAttrType<T> type) {
-		if (!attributes.isEmpty()) {
-			Iterator<Map.Entry<IJadxAttrType<?>, IJadxAttribute>> iterator = attributes.entrySet().iterator();
-			while (iterator.hasNext()) {
-				Map.Entry<IJadxAttrType<?>, IJadxAttribute> entry = iterator.next();
-				if (entry.getKey() == type) {
-					iterator.remove();
-					break;
-				}
-			}
+		int idx = indexOf(type);
+		if (idx != -1) {
+			removeAt(idx);
 		}
 	}
 	
 	public void remove(IJadxAttribute attr) {
-		if (!attributes.isEmpty()) {
-			IJadxAttrType<? extends IJadxAttribute> type = attr.getAttrType();
-			IJadxAttribute a = attributes.get(type);
-			if (a == attr) {
-				Iterator<Map.Entry<IJadxAttrType<?>, IJadxAttribute>> iterator = attributes.entrySet().iterator();
-				while (iterator.hasNext()) {
-					Map.Entry<IJadxAttrType<?>, IJadxAttribute> entry = iterator.next();
-					if (entry.getKey() == type && entry.getValue() == attr) {
-						iterator.remove();
-						break;
-					}
-				}
-			}
+		int idx = indexOf(attr.getAttrType());
+		if (idx != -1 && attributes[idx] == attr) {
+			removeAt(idx);
 		}
 	}
 	
-	private Map<IJadxAttrType<?>, IJadxAttribute> writeAttributes() {
-		if (attributes.isEmpty()) {
-			attributes = new IdentityHashMap<>(5);
-		}
-		return attributes;
+	private void removeAt(int idx) {
+		IJadxAttribute[] attrs = attributes;
+		typesMask &= ~typeBit(attrs[idx].getAttrType());
+		int last = --attributesCount;
+		attrs[idx] = attrs[last];
+		attrs[last] = null;
 	}
 	
 	public void clear() {
-		flags.clear();
-		if (!attributes.isEmpty()) {
-			attributes.clear();
-		}
+		flags = 0;
+		typesMask = 0;
+		attributes = NO_ATTRIBUTES;
+		attributesCount = 0;
 	}
 	
 	public synchronized void unloadAttributes() {
-		Iterator<Map.Entry<IJadxAttrType<?>, IJadxAttribute>> iterator = attributes.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry<IJadxAttrType<?>, IJadxAttribute> entry = iterator.next();
-			if (!entry.getValue().keepLoaded()) {
-				iterator.remove();
+		IJadxAttribute[] attrs = attributes;
+		int count = attributesCount;
+		int kept = 0;
+		long mask = 0;
+		for (int i = 0; i < count; i++) {
+			IJadxAttribute attr = attrs[i];
+			if (attr.keepLoaded()) {
+				attrs[kept++] = attr;
+				mask |= typeBit(attr.getAttrType());
 			}
 		}
+		if (kept == 0) {
+			attributes = NO_ATTRIBUTES;
+		} else {
+			Arrays.fill(attrs, kept, count, null);
+		}
+		attributesCount = kept;
+		typesMask = mask;
 	}
+	
 	public List<String> getAttributeStrings() {
-		int size = flags.size() + attributes.size() + attributes.size();
+		int size = Long.bitCount(flags) + attributesCount;
 		if (size == 0) {
 			return Collections.emptyList();
 		}
 		List<String> list = new ArrayList<>(size);
-		for (AFlag a : flags) {
-			list.add(a.toString());
+		long flagsBits = flags;
+		while (flagsBits != 0) {
+			int ordinal = Long.numberOfTrailingZeros(flagsBits);
+			list.add(FLAGS[ordinal].toString());
+			flagsBits &= flagsBits - 1;
 		}
-		for (IJadxAttribute a : attributes.values()) {
-			list.add(a.toAttrString());
+		for (int i = 0; i < attributesCount; i++) {
+			list.add(attributes[i].toAttrString());
 		}
 		return list;
 	}
 	
 	public boolean isEmpty() {
-		return flags.isEmpty() && attributes.isEmpty();
+		return flags == 0 && attributesCount == 0;
 	}
 	
 	/* Traditional Method instead of  Lambda Expression*/
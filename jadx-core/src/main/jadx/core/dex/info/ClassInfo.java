@@ -12,6 +12,7 @@ import jadx.core.dex.nodes.RootNode;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public final class ClassInfo implements Comparable<ClassInfo> {
+	private final RootNode root;
 	private final ArgType type;
 	private String name;
 	@Nullable("for inner classes")
@@ -23,6 +24,7 @@ public final class ClassInfo implements Comparable<ClassInfo> {
 	private ClassAliasInfo alias;
 
 	private ClassInfo(RootNode root, ArgType type, boolean inner) {
+		this.root = root;
 		this.type = type;
 		splitAndApplyNames(root, type, inner);
 	}
@@ -60,11 +62,17 @@ public final class ClassInfo implements Comparable<ClassInfo> {
 
 	public void changeShortName(String aliasName) {
 		if (!Objects.equals(name, aliasName)) {
-			ClassAliasInfo newAlias = new ClassAliasInfo(getAliasPkg(), aliasName);
+			String aliasPkg = getAliasPkg();
+			if (alias != null && alias.getShortName().equals(aliasName) && Objects.equals(alias.getPkg(), aliasPkg)) {
+				return;
+			}
+			ClassAliasInfo newAlias = new ClassAliasInfo(aliasPkg, aliasName);
 			fillAliasFullName(newAlias);
 			this.alias = newAlias;
-		} else {
+			root.getClassesIndex().onAliasChange();
+		} else if (alias != null) {
 			this.alias = null;
+			root.getClassesIndex().onAliasChange();
 		}
 	}
 
@@ -76,6 +84,7 @@ public final class ClassInfo implements Comparable<ClassInfo> {
 			ClassAliasInfo newAlias = new ClassAliasInfo(aliasPkg, getAliasShortName());
 			fillAliasFullName(newAlias);
 			this.alias = newAlias;
+			root.getClassesIndex().onAliasChange();
 		}
 	}
 
@@ -125,7 +134,10 @@ public final class ClassInfo implements Comparable<ClassInfo> {
 	}
 
 	public void removeAlias() {
-		this.alias = null;
+		if (alias != null) {
+			this.alias = null;
+			root.getClassesIndex().onAliasChange();
+		}
 	}
 
 	private void splitAndApplyNames(RootNode root, ArgType type, boolean canBeInner) {
@@ -248,15 +260,18 @@ public final class ClassInfo implements Comparable<ClassInfo> {
 	public void notInner(RootNode root) {
 		splitAndApplyNames(root, type, false);
 		this.parentClass = null;
+		root.getClassesIndex().onNameChange();
 	}
 
 	public void convertToInner(ClassNode parent) {
 		splitAndApplyNames(parent.root(), type, true);
 		this.parentClass = parent.getClassInfo();
+		root.getClassesIndex().onNameChange();
 	}
 
 	public void updateNames(RootNode root) {
 		splitAndApplyNames(root, type, isInner());
+		root.getClassesIndex().onNameChange();
 	}
 
 	public ArgType getType() {
@@ -77,7 +77,7 @@ public class ConstStorage {
 		this.replaceEnabled = args.isReplaceConsts();
 	}
 	
-	public void processConstFields(ClassNode cls, List<FieldNode> staticFields) {
+	public synchronized void processConstFields(ClassNode cls, List<FieldNode> staticFields) {
 		if (!replaceEnabled || staticFields.isEmpty()) {
 			return;
 		}
@@ -100,7 +100,7 @@ public class ConstStorage {
 		return null;
 	}
 	
-	public void removeForClass(ClassNode cls) {
+	public synchronized void removeForClass(ClassNode cls) {
 		classes.remove(cls);
 		globalValues.removeForCls(cls);
 	}
@@ -1,61 +1,63 @@
 package jadx.core.dex.info;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import jadx.core.dex.instructions.args.ArgType;
 
+/**
+ * Interning storage for class, method and field info objects.
+ * <br>
+ * Used concurrently from load and decompilation threads, so based on {@link ConcurrentHashMap}:
+ * lookups are lock-free and first added instance always wins.
+ */
 public class InfoStorage {
 
-	private final Map<ArgType, ClassInfo> classes = new HashMap<>();
-	private final Map<FieldInfo, FieldInfo> fields = new HashMap<>();
+	private final ConcurrentMap<ArgType, ClassInfo> classes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<FieldInfo, FieldInfo> fields = new ConcurrentHashMap<>();
 	// use only one MethodInfo instance
-	private final Map<MethodInfo, MethodInfo> uniqueMethods = new HashMap<>();
+	private final ConcurrentMap<MethodInfo, MethodInfo> uniqueMethods = new ConcurrentHashMap<>();
 	// can contain same method with different ids (from different files)
-	private final Map<Integer, MethodInfo> methods = new HashMap<>();
+	private final ConcurrentMap<Integer, MethodInfo> methods = new ConcurrentHashMap<>();
 
 	public ClassInfo getCls(ArgType type) {
 		return classes.get(type);
 	}
 
+	/**
+	 * Add class info if not yet stored.
+	 * First stored instance wins and returned to all callers.
+	 *
+	 * @return stored instance (previous one if exists)
+	 */
 	public ClassInfo putCls(ClassInfo cls) {
-		synchronized (classes) {
-			ClassInfo prev = classes.put(cls.getType(), cls);
-			return prev == null ? cls : prev;
-		}
+		ClassInfo prev = classes.putIfAbsent(cls.getType(), cls);
+		return prev == null ? cls : prev;
 	}
 
 	public MethodInfo getByUniqId(int id) {
-		synchronized (methods) {
-			return methods.get(id);
-		}
+		return methods.get(id);
 	}
 
 	public void putByUniqId(int id, MethodInfo mth) {
-		synchronized (methods) {
-			methods.put(id, mth);
-		}
+		methods.put(id, mth);
 	}
 
 	public MethodInfo putMethod(MethodInfo newMth) {
-		synchronized (uniqueMethods) {
-			MethodInfo prev = uniqueMethods.get(newMth);
-			if (prev != null) {
-				return prev;
-			}
-			uniqueMethods.put(newMth, newMth);
-			return newMth;
+		MethodInfo prev = uniqueMethods.get(newMth);
+		if (prev != null) {
+			return prev;
 		}
+		prev = uniqueMethods.putIfAbsent(newMth, newMth);
+		return prev == null ? newMth : prev;
 	}
 
 	public FieldInfo getField(FieldInfo field) {
-		synchronized (fields) {
-			FieldInfo f = fields.get(field);
-			if (f != null) {
-				return f;
-			}
-			fields.put(field, field);
-			return field;
+		FieldInfo f = fields.get(field);
+		if (f != null) {
+			return f;
 		}
+		f = fields.putIfAbsent(field, field);
+		return f == null ? field : f;
 	}
 }
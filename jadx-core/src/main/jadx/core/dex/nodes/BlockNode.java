@@ -42,9 +42,17 @@ public final class BlockNode extends AttrNode implements IBlock, Comparable<Bloc
 	private List<BlockNode> cleanSuccessors;
 
 	/**
-	 * All dominators, excluding self
+	 * All dominators, excluding self.
+	 * Built lazily from immediate dominators chain (null if not built yet)
 	 */
-	private BitSet doms = EmptyBitSet.EMPTY;
+	private BitSet doms;
+
+	/**
+	 * Position interval in dominator tree walk, used for fast dominance check
+	 * (negative if not computed)
+	 */
+	private int domTreeIn = -1;
+	private int domTreeOut = -1;
 
 	/**
 	 * Dominance frontier
@@ -151,20 +159,61 @@ public final class BlockNode extends AttrNode implements IBlock, Comparable<Bloc
 	 * Check if 'block' dominated on this node
 	 */
 	public boolean isDominator(BlockNode block) {
-		return doms.get(block.getId());
+		if (domTreeIn >= 0 && block.domTreeIn >= 0) {
+			return block != this && block.domTreeIn <= domTreeIn && domTreeOut <= block.domTreeOut;
+		}
+		return getDoms().get(block.getId());
 	}
 
 	/**
 	 * Dominators of this node (exclude itself)
 	 */
 	public BitSet getDoms() {
-		return doms;
+		BitSet domsSet = doms;
+		if (domsSet == null) {
+			domsSet = buildDoms(this);
+		}
+		return domsSet;
 	}
 
 	public void setDoms(BitSet doms) {
 		this.doms = doms;
 	}
 
+	/**
+	 * Set interval of dominator tree walk: block dominates all blocks with interval inside own
+	 */
+	public void setDomTreeInterval(int in, int out) {
+		this.domTreeIn = in;
+		this.domTreeOut = out;
+	}
+
+	/**
+	 * Build dominators sets for block and all not yet built dominators above it,
+	 * walk in loop to avoid deep recursion.
+	 */
+	private static BitSet buildDoms(BlockNode block) {
+		List<BlockNode> chain = new ArrayList<>();
+		BlockNode current = block;
+		while (current != null && current.doms == null) {
+			chain.add(current);
+			current = current.idom;
+		}
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			BlockNode node = chain.get(i);
+			BlockNode nodeIDom = node.idom;
+			if (nodeIDom == null) {
+				node.doms = EmptyBitSet.EMPTY;
+			} else {
+				BitSet set = new BitSet();
+				set.or(nodeIDom.doms);
+				set.set(nodeIDom.getId());
+				node.doms = set;
+			}
+		}
+		return block.doms;
+	}
+
 	public BitSet getDomFrontier() {
 		return domFrontier;
 	}
@@ -30,6 +30,7 @@ import jadx.core.dex.instructions.args.SSAVar;
 import jadx.core.dex.nodes.utils.TypeUtils;
 import jadx.core.dex.regions.Region;
 import jadx.core.dex.trycatch.ExceptionHandler;
+import jadx.core.utils.MethodBudget;
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.DecodeException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
@@ -69,6 +70,7 @@ public class MethodNode extends NotificationAttrNode implements IMethodDetails,
 	private List<ExceptionHandler> exceptionHandlers;
 	private List<LoopInfo> loops;
 	private Region region;
+	private MethodBudget budget;
 	
 	private List<MethodNode> useIn = Collections.emptyList();
 	
@@ -114,6 +116,7 @@ public class MethodNode extends NotificationAttrNode implements IMethodDetails,
 		region = null;
 		exceptionHandlers = Collections.emptyList();
 		loops = Collections.emptyList();
+		budget = null;
 		unloadAttributes();
 	}
 	
@@ -550,6 +553,22 @@ public class MethodNode extends NotificationAttrNode implements IMethodDetails,
 		this.region = region;
 	}
 	
+	/**
+	 * Processing budget for current method load, reset on unload
+	 */
+	public MethodBudget getBudget() {
+		MethodBudget mthBudget = budget;
+		if (mthBudget == null) {
+			mthBudget = MethodBudget.build(root().getArgs());
+			budget = mthBudget;
+		}
+		return mthBudget;
+	}
+	
+	public void setBudget(MethodBudget budget) {
+		this.budget = budget;
+	}
+	
 	@Override
 	public RootNode root() {
 		return parentClass.root();
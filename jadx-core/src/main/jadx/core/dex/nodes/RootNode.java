@@ -6,6 +6,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 
@@ -32,14 +37,17 @@ import jadx.core.dex.info.FieldInfo;
 import jadx.core.dex.info.InfoStorage;
 import jadx.core.dex.info.MethodInfo;
 import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.utils.ClassesIndex;
 import jadx.core.dex.nodes.utils.MethodUtils;
 import jadx.core.dex.nodes.utils.TypeUtils;
 import jadx.core.dex.visitors.DepthTraversal;
 import jadx.core.dex.visitors.IDexTreeVisitor;
 import jadx.core.dex.visitors.typeinference.TypeCompare;
 import jadx.core.dex.visitors.typeinference.TypeUpdate;
+import jadx.core.dex.visitors.usage.UsageIndex;
 import jadx.core.utils.CacheStorage;
 import jadx.core.utils.ErrorsCounter;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.StringUtils;
 import jadx.core.utils.Utils;
 import jadx.core.utils.android.AndroidResourcesUtils;
@@ -67,6 +75,10 @@ public class RootNode {
 	private final TypeUpdate typeUpdate;
 	private final MethodUtils methodUtils;
 	private final TypeUtils typeUtils;
+	private final ClassesIndex classesIndex;
+	private volatile UsageIndex usageIndex;
+	@Nullable
+	private final PassesProfiler passesProfiler;
 	
 	private final Map<ClassInfo, ClassNode> clsMap = new HashMap<>();
 	private List<ClassNode> classes = new ArrayList<>();
@@ -87,11 +99,17 @@ public class RootNode {
 		this.typeUpdate = new TypeUpdate(this);
 		this.methodUtils = new MethodUtils(this);
 		this.typeUtils = new TypeUtils(this);
+		this.classesIndex = new ClassesIndex(this);
+		this.passesProfiler = args.isProfilePasses() ? new PassesProfiler() : null;
 		this.isProto = args.getInputFiles().size() > 0 && args.getInputFiles().get(0).getName().toLowerCase().endsWith(".aab");
 	}
 	public void loadClasses(List<ILoadResult> loadedInputs) {
-		for (ILoadResult loadedInput : loadedInputs) {
-			loadedInput.visitClasses(new CustomClassConsumer());
+		if (args.isParallelClassesLoad() && args.getThreadsCount() > 1) {
+			loadClassesInParallel(loadedInputs);
+		} else {
+			for (ILoadResult loadedInput : loadedInputs) {
+				loadedInput.visitClasses(new CustomClassConsumer());
+			}
 		}
 		
 		if (classes.size() != clsMap.size()) {
@@ -100,6 +118,8 @@ public class RootNode {
 		}
 		
 		classes = new ArrayList<>(clsMap.values());
+		classesIndex.invalidate();
+		usageIndex = null;
 		
 		// Calculate statistics for loaded classes
 		int mthCount = 0;
@@ -136,6 +156,87 @@ public class RootNode {
 		}
 	}
 	
+	/**
+	 * Build class nodes for every input part in parallel,
+	 * results added in inputs order, so duplicated classes resolved same as in sequential load.
+	 */
+	private void loadClassesInParallel(List<ILoadResult> loadedInputs) {
+		List<ILoadResult> parts = new ArrayList<>();
+		for (ILoadResult loadedInput : loadedInputs) {
+			parts.addAll(loadedInput.splitClassesSources());
+		}
+		int threads = Math.min(args.getThreadsCount(), parts.size());
+		if (threads <= 1) {
+			for (ILoadResult part : parts) {
+				part.visitClasses(new CustomClassConsumer());
+			}
+			return;
+		}
+		long start = System.currentTimeMillis();
+		List<Callable<List<LoadedClass>>> tasks = new ArrayList<>(parts.size());
+		for (final ILoadResult part : parts) {
+			tasks.add(new Callable<List<LoadedClass>>() {
+				@Override
+				public List<LoadedClass> call() {
+					return loadPart(part);
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<LoadedClass>>> results = executor.invokeAll(tasks);
+			for (Future<List<LoadedClass>> result : results) {
+				for (LoadedClass loadedClass : result.get()) {
+					if (loadedClass.clsNode != null) {
+						addClassNode(loadedClass.clsNode);
+					} else {
+						addDummyClass(loadedClass.clsData, loadedClass.error);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JadxRuntimeException("Classes load interrupted", e);
+		} catch (ExecutionException e) {
+			throw new JadxRuntimeException("Classes load failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		LOG.debug("Classes from {} inputs loaded in {} ms using {} threads",
+				parts.size(), System.currentTimeMillis() - start, threads);
+	}
+	
+	private List<LoadedClass> loadPart(ILoadResult part) {
+		long start = System.currentTimeMillis();
+		final List<LoadedClass> list = new ArrayList<>();
+		part.visitClasses(new com.custom.Consumer<IClassData>() {
+			@Override
+			public void accept(IClassData cls) {
+				try {
+					list.add(new LoadedClass(new ClassNode(RootNode.this, cls), null, null));
+				} catch (Exception e) {
+					// dummy class will be added at merge stage
+					list.add(new LoadedClass(null, cls.copy(), e));
+				}
+				Utils.checkThreadInterrupt();
+			}
+		});
+		LOG.debug("Loaded {} classes from {} in {} ms", list.size(), part, System.currentTimeMillis() - start);
+		return list;
+	}
+	
+	private static final class LoadedClass {
+		private final ClassNode clsNode;
+		private final IClassData clsData;
+		private final Exception error;
+	
+		private LoadedClass(ClassNode clsNode, IClassData clsData, Exception error) {
+			this.clsNode = clsNode;
+			this.clsData = clsData;
+			this.error = error;
+		}
+	}
+	
 	private void addDummyClass(IClassData classData, Exception exc) {
 		try {
 			String typeStr = classData.getType();
@@ -204,6 +305,8 @@ public class RootNode {
 	public void addClassNode(ClassNode clsNode) {
 		classes.add(clsNode);
 		clsMap.put(clsNode.getClassInfo(), clsNode);
+		classesIndex.invalidate();
+		usageIndex = null;
 	}
 	
 	public void loadResources(List<ResourceFile> resources) {
@@ -213,7 +316,7 @@ public class RootNode {
 			return;
 		}
 		try {
-			IResParser parser = ResourcesLoader.decodeStream(arsc, (size, is) -> ResDecoder.decode(this, arsc, is));
+			IResParser parser = ResDecoder.decode(this, arsc);
 			if (parser != null) {
 				processResources(parser.getResStorage());
 				updateObfuscatedFiles(parser, resources);
@@ -324,6 +427,8 @@ public class RootNode {
 		for (ClassNode classNode : classes) {
 			classNode.updateParentClass();
 		}
+		classesIndex.invalidate();
+		usageIndex = null;
 	}
 	
 	public void runPreDecompileStage() {
@@ -402,20 +507,20 @@ public class RootNode {
 	
 	/**
 	* Searches for ClassNode by its full name (original or alias name)
-	* <br>
-	* Warning: This method has a runtime of O(n) (n = number of classes).
-	* If you need to call it more than once consider {@link #buildFullAliasClassCache()} instead
 	*/
 	@Nullable
 	public ClassNode searchClassByFullAlias(String fullName) {
-		for (ClassNode cls : classes) {
-			ClassInfo classInfo = cls.getClassInfo();
-			if (classInfo.getFullName().equals(fullName)
-			|| classInfo.getAliasFullName().equals(fullName)) {
-				return cls;
-			}
-		}
-		return null;
+		return classesIndex.searchByFullNameOrAlias(fullName);
+	}
+	
+	@Nullable
+	public ClassNode searchClassByOrigFullName(String fullName) {
+		return classesIndex.searchByOrigFullName(fullName);
+	}
+	
+	@Nullable
+	public ClassNode searchClassByAliasFullName(String aliasFullName) {
+		return classesIndex.searchByAliasFullName(aliasFullName);
 	}
 	
 	public Map<String, ClassNode> buildFullAliasClassCache() {
@@ -433,13 +538,7 @@ public class RootNode {
 	}
 	
 	public List<ClassNode> searchClassByShortName(String shortName) {
-		List<ClassNode> list = new ArrayList<>();
-		for (ClassNode cls : classes) {
-			if (cls.getClassInfo().getShortName().equals(shortName)) {
-				list.add(cls);
-			}
-		}
-		return list;
+		return new ArrayList<>(classesIndex.searchByShortName(shortName));
 	}
 	
 	@Nullable
@@ -579,10 +678,46 @@ public class RootNode {
 		return constValues;
 	}
 	
+	public ClassesIndex getClassesIndex() {
+		return classesIndex;
+	}
+
+	/**
+	 * Bytecode usage index, built on first call (in parallel, without decompilation)
+	 */
+	public UsageIndex getUsageIndex() {
+		UsageIndex index = usageIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = usageIndex;
+				if (index == null) {
+					index = UsageIndex.build(this);
+					usageIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Replace usage index, for example with one loaded by {@link UsageIndex#load}
+	 */
+	public void setUsageIndex(UsageIndex usageIndex) {
+		this.usageIndex = usageIndex;
+	}
+	
 	public InfoStorage getInfoStorage() {
 		return infoStorage;
 	}
 	
+	/**
+	 * @return null if passes profiling disabled
+	 */
+	@Nullable
+	public PassesProfiler getPassesProfiler() {
+		return passesProfiler;
+	}
+	
 	public CacheStorage getCacheStorage() {
 		return cacheStorage;
 	}
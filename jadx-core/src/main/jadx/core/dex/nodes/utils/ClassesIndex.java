@@ -0,0 +1,190 @@
+package jadx.core.dex.nodes.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Hash indexes for class search by original full name, alias full name and short name.
+ * <br>
+ * Indexes built lazily on first search.
+ * Indexes dropped on classes list change (see {@link #invalidate()}),
+ * original names indexes rebuilt after class original name change (see {@link #onNameChange()}),
+ * alias index rebuilt after any class alias or name change (see {@link #onAliasChange()}).
+ * If several classes have same name, first one from classes list returned (same as linear search).
+ */
+public class ClassesIndex {
+	private final RootNode root;
+	/**
+	 * Incremented on class alias or name change, used to drop outdated alias index
+	 */
+	private final AtomicInteger aliasesVersion = new AtomicInteger();
+	/**
+	 * Incremented on class original name change, used to drop outdated original names index
+	 */
+	private final AtomicInteger namesVersion = new AtomicInteger();
+
+	private volatile OrigNamesIndex origNamesIndex;
+	private volatile AliasIndex aliasIndex;
+
+	public ClassesIndex(RootNode root) {
+		this.root = root;
+	}
+
+	@Nullable
+	public ClassNode searchByOrigFullName(String fullName) {
+		return getOrigNamesIndex().fullNames.get(fullName);
+	}
+
+	@Nullable
+	public ClassNode searchByAliasFullName(String aliasFullName) {
+		return getAliasIndex().aliases.get(aliasFullName);
+	}
+
+	/**
+	 * Search by original or alias full name.
+	 * If different classes match by original and alias name, class placed first in classes list returned.
+	 */
+	@Nullable
+	public ClassNode searchByFullNameOrAlias(String fullName) {
+		OrigNamesIndex origIndex = getOrigNamesIndex();
+		ClassNode origCls = origIndex.fullNames.get(fullName);
+		ClassNode aliasCls = getAliasIndex().aliases.get(fullName);
+		if (origCls == null || aliasCls == null || origCls == aliasCls) {
+			return origCls != null ? origCls : aliasCls;
+		}
+		Integer origPos = origIndex.positions.get(origCls);
+		Integer aliasPos = origIndex.positions.get(aliasCls);
+		if (origPos == null || aliasPos == null) {
+			// indexes built from different classes lists, list changed concurrently
+			return origCls;
+		}
+		return aliasPos < origPos ? aliasCls : origCls;
+	}
+
+	/**
+	 * Search by original short name
+	 */
+	public List<ClassNode> searchByShortName(String shortName) {
+		List<ClassNode> list = getOrigNamesIndex().shortNames.get(shortName);
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Should be called after alias change of existing class info
+	 */
+	public void onAliasChange() {
+		aliasesVersion.incrementAndGet();
+	}
+
+	/**
+	 * Should be called after original name change of existing class info (like conversion to inner class).
+	 * Alias full name also depends on original name, so alias index rebuilt too.
+	 */
+	public void onNameChange() {
+		namesVersion.incrementAndGet();
+		aliasesVersion.incrementAndGet();
+	}
+
+	/**
+	 * Should be called after classes list change
+	 */
+	public void invalidate() {
+		origNamesIndex = null;
+		aliasIndex = null;
+	}
+
+	private OrigNamesIndex getOrigNamesIndex() {
+		OrigNamesIndex index = origNamesIndex;
+		if (index == null || index.version != namesVersion.get()) {
+			synchronized (this) {
+				index = origNamesIndex;
+				int version = namesVersion.get();
+				if (index == null || index.version != version) {
+					index = new OrigNamesIndex(root.getClasses(), version);
+					origNamesIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	private AliasIndex getAliasIndex() {
+		AliasIndex index = aliasIndex;
+		if (index == null || index.version != aliasesVersion.get()) {
+			synchronized (this) {
+				index = aliasIndex;
+				int version = aliasesVersion.get();
+				if (index == null || index.version != version) {
+					// version read before build: concurrent rename will cause rebuild on next search
+					index = new AliasIndex(root.getClasses(), version);
+					aliasIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	private static final class AliasIndex {
+		private final Map<String, ClassNode> aliases;
+		private final int version;
+
+		AliasIndex(List<ClassNode> classes, int version) {
+			this.version = version;
+			this.aliases = new HashMap<>(classes.size());
+			for (ClassNode cls : classes) {
+				String aliasFullName = cls.getClassInfo().getAliasFullName();
+				if (!aliases.containsKey(aliasFullName)) {
+					aliases.put(aliasFullName, cls);
+				}
+			}
+		}
+	}
+
+	private static final class OrigNamesIndex {
+		private final Map<String, ClassNode> fullNames;
+		private final Map<String, List<ClassNode>> shortNames;
+		/**
+		 * Class position in classes list, used to resolve original and alias names collisions
+		 */
+		private final Map<ClassNode, Integer> positions;
+		private final int version;
+
+		OrigNamesIndex(List<ClassNode> classes, int version) {
+			this.version = version;
+			int count = classes.size();
+			fullNames = new HashMap<>(count);
+			shortNames = new HashMap<>(count);
+			positions = new IdentityHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				ClassNode cls = classes.get(i);
+				positions.put(cls, i);
+				ClassInfo clsInfo = cls.getClassInfo();
+				String fullName = clsInfo.getFullName();
+				if (!fullNames.containsKey(fullName)) {
+					fullNames.put(fullName, cls);
+				}
+				String shortName = clsInfo.getShortName();
+				List<ClassNode> list = shortNames.get(shortName);
+				if (list == null) {
+					list = new ArrayList<>(1);
+					shortNames.put(shortName, list);
+				}
+				list.add(cls);
+			}
+		}
+	}
+}
@@ -1,46 +1,126 @@
 package jadx.core.dex.visitors;
 
+import jadx.core.Jadx;
 import jadx.core.dex.attributes.AType;
+import jadx.core.dex.attributes.nodes.JadxError;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.utils.DebugChecks;
+import jadx.core.utils.MethodBudget;
+import jadx.core.utils.PassesProfiler;
+import jadx.core.utils.exceptions.JadxBudgetExceededException;
 
 import java.util.*;
 
 public class DepthTraversal {
 
 	public static void visit(IDexTreeVisitor visitor, ClassNode cls) {
-    try {
-        if (visitor.visit(cls)) {
-            List<ClassNode> innerClasses = cls.getInnerClasses();
-            for (ClassNode inCls : innerClasses) {
-                visit(visitor, inCls);
-            }
-
-            List<MethodNode> methods = cls.getMethods();
-            for (MethodNode mth : methods) {
-                visit(visitor, mth);
-            }
-        }
-    } catch (StackOverflowError e) {
-        cls.addError("StackOverflowError in pass: " + visitor.getClass().getSimpleName(), e);
-    } catch (Exception e) {
-        cls.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
-    }
-}
+		PassesProfiler profiler = cls.root().getPassesProfiler();
+		if (profiler == null) {
+			visitCls(visitor, cls);
+			return;
+		}
+		long startTime = profiler.start();
+		long startAlloc = profiler.startAlloc();
+		try {
+			visitCls(visitor, cls);
+		} finally {
+			profiler.finish(visitor, startTime, startAlloc);
+		}
+	}
 
 	public static void visit(IDexTreeVisitor visitor, MethodNode mth) {
+		PassesProfiler profiler = mth.root().getPassesProfiler();
+		if (profiler == null) {
+			visitMth(visitor, mth);
+			return;
+		}
+		long startTime = profiler.start();
+		long startAlloc = profiler.startAlloc();
+		try {
+			visitMth(visitor, mth);
+		} finally {
+			profiler.finish(visitor, startTime, startAlloc);
+		}
+	}
+
+	private static void visitCls(IDexTreeVisitor visitor, ClassNode cls) {
 		try {
-			if (mth.contains(AType.JADX_ERROR)) {
-				return;
+			if (visitor.visit(cls)) {
+				List<ClassNode> innerClasses = cls.getInnerClasses();
+				for (ClassNode inCls : innerClasses) {
+					visitCls(visitor, inCls);
+				}
+
+				List<MethodNode> methods = cls.getMethods();
+				for (MethodNode mth : methods) {
+					visitMth(visitor, mth);
+				}
 			}
+		} catch (StackOverflowError e) {
+			cls.addError("StackOverflowError in pass: " + visitor.getClass().getSimpleName(), e);
+		} catch (Exception e) {
+			cls.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
+		}
+	}
+
+	private static void visitMth(IDexTreeVisitor visitor, MethodNode mth) {
+		if (mth.contains(AType.JADX_ERROR)) {
+			return;
+		}
+		MethodBudget budget = mth.getBudget();
+		try {
+			budget.startPass();
 			visitor.visit(mth);
 			if (DebugChecks.checksEnabled) {
 				DebugChecks.runChecksAfterVisitor(mth, visitor);
 			}
 		} catch (StackOverflowError | Exception e) {
-			mth.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
+			if (!budget.isExceeded()) {
+				mth.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
+			}
+		} finally {
+			budget.finishPass();
+		}
+		if (budget.isExceeded()) {
+			// budget exception can be caught and reported by pass itself, so check budget state directly
+			processInFallbackMode(mth, visitor, budget);
+		}
+	}
+
+	/**
+	 * Drop all processing results and reload method with fallback mode passes.
+	 * Added budget error skip remaining passes and switch code generation to fallback mode,
+	 * so it added even if reload failed (code generator will report missing instructions).
+	 */
+	private static void processInFallbackMode(MethodNode mth, IDexTreeVisitor visitor, MethodBudget budget) {
+		String reason = budget.getExceedReason();
+		try {
+			mth.unload();
+			mth.load();
+			// fallback passes are simple and linear, don't switch to fallback mode again
+			mth.setBudget(MethodBudget.unlimited());
+			for (IDexTreeVisitor fallbackPass : Jadx.getFallbackPassesList()) {
+				// errors in fallback passes attached to method, next passes skipped
+				visit(fallbackPass, mth);
+			}
+		} catch (Exception e) {
+			mth.addError("Method reload in fallback mode failed after processing budget exceeded: " + reason, e);
+		}
+		mth.addError("Method processing budget exceeded in pass: " + visitor.getClass().getSimpleName()
+				+ ", code generated in fallback mode", new JadxBudgetExceededException(reason));
+	}
+
+	/**
+	 * Check if method processing was stopped by budget and method reloaded in fallback mode
+	 */
+	public static boolean isProcessedInFallbackMode(MethodNode mth) {
+		for (JadxError error : mth.getAll(AType.JADX_ERROR)) {
+			if (error.getCause() instanceof JadxBudgetExceededException) {
+				return true;
+			}
 		}
+		return false;
 	}
 
 	private DepthTraversal() {
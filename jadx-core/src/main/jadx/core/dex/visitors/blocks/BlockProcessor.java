@@ -214,7 +214,7 @@ public class BlockProcessor extends AbstractVisitor {
 	private static void markLoops(MethodNode mth) {
     for (BlockNode block : mth.getBasicBlocks()) {
         for (BlockNode successor : block.getSuccessors()) {
-            if (block.getDoms().get(successor.getId()) || block == successor) {
+            if (block.isDominator(successor) || block == successor) {
                 successor.add(AFlag.LOOP_START);
                 block.add(AFlag.LOOP_END);
 
@@ -620,6 +620,7 @@ private static void removeUnreachableBlocks(MethodNode mth) {
         block.remove(AFlag.LOOP_END);
         block.setDoms(null);
         block.setIDom(null);
+        block.setDomTreeInterval(-1, -1);
         block.setDomFrontier(null);
         block.getDominatesOn().clear();
     }
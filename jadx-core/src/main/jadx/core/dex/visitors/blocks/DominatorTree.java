@@ -1,11 +1,10 @@
 package jadx.core.dex.visitors.blocks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 
-import org.jetbrains.annotations.NotNull;
-
 import jadx.core.dex.nodes.BlockNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.utils.BlockUtils;
@@ -13,18 +12,19 @@ import jadx.core.utils.EmptyBitSet;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 /**
- * Build dominator tree based on the algorithm described in paper:
- * Cooper, Keith D.; Harvey, Timothy J; Kennedy, Ken (2001).
- * "A Simple, Fast Dominance Algorithm"
- * http://www.hipersoft.rice.edu/grads/publications/dom14.pdf
+ * Build dominator tree using Semi-NCA algorithm (simplified Lengauer-Tarjan) described in:
+ * Loukas Georgiadis, "Linear-Time Algorithms for Dominators and Related Problems" (2005)
+ * <br>
+ * All work done on int arrays indexed by DFS preorder numbers,
+ * dominators sets ({@link BlockNode#getDoms()}) built lazily only if requested,
+ * dominance checks use dominator tree walk intervals.
  */
-@SuppressWarnings("JavadocLinkAsPlainText")
 public class DominatorTree {
 
 	public static void compute(MethodNode mth) {
 		List<BlockNode> sorted = sortBlocks(mth);
-		BlockNode[] doms = build(sorted);
-		apply(sorted, doms);
+		int[] idoms = build(sorted);
+		apply(sorted, idoms);
 	}
 
 	private static List<BlockNode> sortBlocks(MethodNode mth) {
@@ -38,96 +38,163 @@ public class DominatorTree {
 		return sorted;
 	}
 
-	@NotNull
-	private static BlockNode[] build(List<BlockNode> sorted) {
-		int blocksCount = sorted.size();
-		BlockNode[] doms = new BlockNode[blocksCount];
-		doms[0] = sorted.get(0);
-		boolean changed = true;
-		while (changed) {
-			changed = false;
-			for (int blockId = 1; blockId < blocksCount; blockId++) {
-				BlockNode b = sorted.get(blockId);
-				List<BlockNode> preds = b.getPredecessors();
-				int pickedPred = -1;
-				BlockNode newIDom = null;
-				for (BlockNode pred : preds) {
-					int id = pred.getId();
-					if (doms[id] != null) {
-						newIDom = pred;
-						pickedPred = id;
-						break;
-					}
-				}
-				if (newIDom == null) {
-					throw new JadxRuntimeException("No predecessors for block: " + b);
-				}
-				for (BlockNode predBlock : preds) {
-					int predId = predBlock.getId();
-					if (predId == pickedPred) {
-						continue;
-					}
-					if (doms[predId] != null) {
-						newIDom = intersect(sorted, doms, predBlock, newIDom);
-					}
-				}
-				if (doms[blockId] != newIDom) {
-					doms[blockId] = newIDom;
-					changed = true;
+	/**
+	 * @return immediate dominator id for every block id (-1 for enter block)
+	 */
+	private static int[] build(List<BlockNode> sorted) {
+		int count = sorted.size();
+		// DFS preorder numbering, blocks ids (from 'sortBlocks') not suitable: it is not strict DFS order
+		int[] num = new int[count];
+		int[] vertex = new int[count];
+		int[] parent = new int[count];
+		dfs(sorted, num, vertex, parent);
+
+		int[] semi = new int[count];
+		int[] label = new int[count];
+		int[] ancestor = new int[count];
+		int[] idom = new int[count];
+		for (int i = 0; i < count; i++) {
+			semi[i] = i;
+			label[i] = i;
+			ancestor[i] = parent[i];
+			idom[i] = parent[i];
+		}
+		int[] stack = new int[count];
+		// semidominators, vertices with number > i already linked to parents
+		for (int i = count - 1; i > 0; i--) {
+			int s = parent[i];
+			for (BlockNode pred : sorted.get(vertex[i]).getPredecessors()) {
+				int u = eval(num[pred.getId()], i + 1, semi, label, ancestor, stack);
+				if (semi[u] < s) {
+					s = semi[u];
 				}
 			}
+			semi[i] = s;
 		}
-		return doms;
+		// immediate dominator: nearest common ancestor of parent and semidominator
+		for (int i = 1; i < count; i++) {
+			int sdom = semi[i];
+			int candidate = idom[i];
+			while (candidate > sdom) {
+				candidate = idom[candidate];
+			}
+			idom[i] = candidate;
+		}
+		int[] result = new int[count];
+		result[vertex[0]] = -1;
+		for (int i = 1; i < count; i++) {
+			result[vertex[i]] = vertex[idom[i]];
+		}
+		return result;
 	}
 
-	private static BlockNode intersect(List<BlockNode> sorted, BlockNode[] doms, BlockNode b1, BlockNode b2) {
-		int f1 = b1.getId();
-		int f2 = b2.getId();
-		while (f1 != f2) {
-			while (f1 > f2) {
-				f1 = doms[f1].getId();
+	private static void dfs(List<BlockNode> sorted, int[] num, int[] vertex, int[] parent) {
+		int count = sorted.size();
+		Arrays.fill(num, -1);
+		int[] stack = new int[count];
+		int[] succPos = new int[count];
+		int top = 0;
+		int next = 0;
+		stack[0] = 0;
+		num[0] = next;
+		vertex[next] = 0;
+		parent[next] = -1;
+		next++;
+		while (top >= 0) {
+			int blockId = stack[top];
+			List<BlockNode> successors = sorted.get(blockId).getSuccessors();
+			int pos = succPos[blockId];
+			if (pos == successors.size()) {
+				top--;
+				continue;
 			}
-			while (f2 > f1) {
-				f2 = doms[f2].getId();
+			succPos[blockId] = pos + 1;
+			int succId = successors.get(pos).getId();
+			if (num[succId] == -1) {
+				num[succId] = next;
+				vertex[next] = succId;
+				parent[next] = num[blockId];
+				next++;
+				stack[++top] = succId;
 			}
 		}
-		return sorted.get(f1);
+		if (next != count) {
+			throw new JadxRuntimeException("Found unreachable blocks");
+		}
 	}
 
-	private static void apply(List<BlockNode> sorted, BlockNode[] doms) {
+	/**
+	 * Return vertex with minimal semidominator on path to root of linked forest
+	 * with path compression (only vertices with number >= lastLinked are linked).
+	 */
+	private static int eval(int v, int lastLinked, int[] semi, int[] label, int[] ancestor, int[] stack) {
+		if (ancestor[v] < lastLinked) {
+			return label[v];
+		}
+		int size = 0;
+		int x = v;
+		do {
+			stack[size++] = x;
+			x = ancestor[x];
+		} while (ancestor[x] >= lastLinked);
+		int p = x;
+		int pLabel = label[p];
+		do {
+			x = stack[--size];
+			ancestor[x] = ancestor[p];
+			int xLabel = label[x];
+			if (semi[pLabel] < semi[xLabel]) {
+				label[x] = pLabel;
+			} else {
+				pLabel = xLabel;
+			}
+			p = x;
+		} while (size > 0);
+		return label[x];
+	}
+
+	private static void apply(List<BlockNode> sorted, int[] idoms) {
+		int blocksCount = sorted.size();
 		BlockNode enterBlock = sorted.get(0);
 		enterBlock.setDoms(EmptyBitSet.EMPTY);
 		enterBlock.setIDom(null);
-		int blocksCount = sorted.size();
 		for (int i = 1; i < blocksCount; i++) {
 			BlockNode block = sorted.get(i);
-			BlockNode idom = doms[i];
+			BlockNode idom = sorted.get(idoms[i]);
 			block.setIDom(idom);
 			idom.addDominatesOn(block);
-			BitSet domBS = collectDoms(doms, idom);
-			domBS.clear(i);
-			block.setDoms(domBS);
+			// build on request
+			block.setDoms(null);
 		}
+		numberDomTree(enterBlock, blocksCount);
 	}
 
-	private static BitSet collectDoms(BlockNode[] doms, BlockNode idom) {
-		BitSet domBS = new BitSet(doms.length);
-		BlockNode nextIDom = idom;
-		while (true) {
-			int id = nextIDom.getId();
-			if (domBS.get(id)) {
-				break;
-			}
-			domBS.set(id);
-			BitSet curDoms = nextIDom.getDoms();
-			if (curDoms != null) {
-				// use already collected set
-				domBS.or(curDoms);
-				break;
+	/**
+	 * Set enter/exit positions of dominator tree walk
+	 */
+	private static void numberDomTree(BlockNode enterBlock, int blocksCount) {
+		BlockNode[] stack = new BlockNode[blocksCount];
+		int[] childPos = new int[blocksCount];
+		int[] in = new int[blocksCount];
+		int top = 0;
+		int counter = 0;
+		stack[0] = enterBlock;
+		in[enterBlock.getId()] = counter++;
+		while (top >= 0) {
+			BlockNode block = stack[top];
+			int id = block.getId();
+			List<BlockNode> children = block.getDominatesOn();
+			int pos = childPos[id];
+			if (pos == children.size()) {
+				block.setDomTreeInterval(in[id], counter++);
+				top--;
+				continue;
 			}
-			nextIDom = doms[id];
+			childPos[id] = pos + 1;
+			BlockNode child = children.get(pos);
+			in[child.getId()] = counter++;
+			stack[++top] = child;
 		}
-		return domBS;
 	}
 
 	public static void computeDominanceFrontier(MethodNode mth) {
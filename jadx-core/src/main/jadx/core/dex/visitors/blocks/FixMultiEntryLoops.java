@@ -73,7 +73,7 @@ public class FixMultiEntryLoops {
 		BlockNode header = e.getEnd();
 		BlockNode loopEnd = e.getStart();
 		return header == loopEnd
-				|| loopEnd.getDoms().get(header.getId()); // header dominates loop end
+				|| loopEnd.isDominator(header); // header dominates loop end
 	}
 
 	private enum BlockColor {
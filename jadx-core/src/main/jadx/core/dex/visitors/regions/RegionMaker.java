@@ -45,6 +45,7 @@ import jadx.core.dex.trycatch.ExcHandlerAttr;
 import jadx.core.dex.trycatch.ExceptionHandler;
 import jadx.core.dex.trycatch.TryCatchBlockAttr;
 import jadx.core.utils.BlockUtils;
+import jadx.core.utils.MethodBudget;
 import jadx.core.utils.RegionUtils;
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.JadxOverflowException;
@@ -63,6 +64,7 @@ public class RegionMaker {
 	
 	private final MethodNode mth;
 	private final int regionsLimit;
+	private final MethodBudget budget;
 	private final BitSet processedBlocks;
 	private int regionsCount;
 	
@@ -71,6 +73,7 @@ public class RegionMaker {
 		int blocksCount = mth.getBasicBlocks().size();
 		this.processedBlocks = new BitSet(blocksCount);
 		this.regionsLimit = blocksCount * 100;
+		this.budget = mth.getBudget();
 	}
 	
 	public Region makeRegion(BlockNode startBlock, RegionStack stack) {
@@ -94,6 +97,7 @@ public class RegionMaker {
 		while (next != null) {
 			next = traverse(r, next, stack);
 			regionsCount++;
+			budget.step();
 			if (regionsCount > regionsLimit) {
 				throw new JadxOverflowException("Regions count limit reached");
 			}
@@ -1,6 +1,6 @@
 package jadx.core.dex.visitors.ssa;
 
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -11,42 +11,98 @@ import jadx.core.dex.instructions.args.RegisterArg;
 import jadx.core.dex.nodes.BlockNode;
 import jadx.core.dex.nodes.InsnNode;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.MethodBudget;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
+/**
+ * Registers liveness analysis.
+ * <br>
+ * All sets stored as rows of one flat {@code long[]} bit matrix:
+ * uses, defs and live-in sets (row per block, bit per register)
+ * and assign blocks (row per register, bit per block).
+ * Matrix buffer reused by next analysis in same thread, call {@link #release()} after use.
+ */
 public class LiveVarAnalysis {
 	private static final Logger LOG = LoggerFactory.getLogger(LiveVarAnalysis.class);
 
+	/**
+	 * Don't keep bigger buffers (8 MB) in thread local cache
+	 */
+	private static final int MAX_CACHED_BUFFER_SIZE = 1024 * 1024;
+
+	private static final ThreadLocal<long[]> BUFFER_CACHE = new ThreadLocal<>();
+
 	private final MethodNode mth;
 
-	private BitSet[] uses;
-	private BitSet[] defs;
-	private BitSet[] liveIn;
-	private BitSet[] assignBlocks;
+	private int blocksCount;
+	private int regsCount;
+	/**
+	 * Words count in block row (registers bits)
+	 */
+	private int regWords;
+	/**
+	 * Words count in register row (blocks bits)
+	 */
+	private int blockWords;
+
+	private long[] data;
+	private int usesStart;
+	private int defsStart;
+	private int liveInStart;
+	private int assignStart;
 
 	public LiveVarAnalysis(MethodNode mth) {
 		this.mth = mth;
 	}
 
 	public void runAnalysis() {
-		int bbCount = mth.getBasicBlocks().size();
-		int regsCount = mth.getRegsCount();
-		this.uses = initBitSetArray(bbCount, regsCount);
-		this.defs = initBitSetArray(bbCount, regsCount);
-		this.assignBlocks = initBitSetArray(regsCount, bbCount);
+		this.blocksCount = mth.getBasicBlocks().size();
+		this.regsCount = mth.getRegsCount();
+		this.regWords = wordsCount(regsCount);
+		this.blockWords = wordsCount(blocksCount);
+		int blockMatrixSize = blocksCount * regWords;
+		this.usesStart = 0;
+		this.defsStart = blockMatrixSize;
+		this.liveInStart = blockMatrixSize * 2;
+		this.assignStart = blockMatrixSize * 3;
+		long size = (long) blockMatrixSize * 3 + (long) regsCount * blockWords;
+		if (size > Integer.MAX_VALUE) {
+			throw new JadxRuntimeException("Live variable analysis: method too big, blocks: " + blocksCount
+					+ ", registers: " + regsCount);
+		}
+		this.data = allocBuffer((int) size);
 		fillBasicBlockInfo();
 		processLiveInfo();
 	}
 
-	public BitSet getAssignBlocks(int regNum) {
-		return assignBlocks[regNum];
+	/**
+	 * Return matrix buffer into thread cache, analysis results can't be used after this call
+	 */
+	public void release() {
+		long[] buffer = data;
+		if (buffer != null) {
+			data = null;
+			if (buffer.length <= MAX_CACHED_BUFFER_SIZE) {
+				BUFFER_CACHE.set(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Iterate over blocks with assign to register, same as {@link java.util.BitSet#nextSetBit(int)}
+	 *
+	 * @return next block id (starting from {@code fromBlockId}) or -1
+	 */
+	public int nextAssignBlock(int regNum, int fromBlockId) {
+		return nextSetBit(data, assignStart + regNum * blockWords, blockWords, fromBlockId);
 	}
 
 	public boolean isLive(int blockId, int regNum) {
-		if (blockId >= liveIn.length) {
-			LOG.warn("LiveVarAnalysis: out of bounds block: {}, max: {}", blockId, liveIn.length);
+		if (blockId >= blocksCount) {
+			LOG.warn("LiveVarAnalysis: out of bounds block: {}, max: {}", blockId, blocksCount);
 			return false;
 		}
-		return liveIn[blockId].get(regNum);
+		return getBit(data, liveInStart + blockId * regWords, regNum);
 	}
 
 	public boolean isLive(BlockNode block, int regNum) {
@@ -54,67 +110,135 @@ public class LiveVarAnalysis {
 	}
 
 	private void fillBasicBlockInfo() {
+		long[] arr = data;
 		for (BlockNode block : mth.getBasicBlocks()) {
 			int blockId = block.getId();
-			BitSet gen = uses[blockId];
-			BitSet kill = defs[blockId];
+			int gen = usesStart + blockId * regWords;
+			int kill = defsStart + blockId * regWords;
 			for (InsnNode insn : block.getInstructions()) {
-				for (InsnArg arg : insn.getArguments()) {
+				int argsCount = insn.getArgsCount();
+				for (int i = 0; i < argsCount; i++) {
+					InsnArg arg = insn.getArg(i);
 					if (arg.isRegister()) {
 						int regNum = ((RegisterArg) arg).getRegNum();
-						if (!kill.get(regNum)) {
-							gen.set(regNum);
+						if (!getBit(arr, kill, regNum)) {
+							setBit(arr, gen, regNum);
 						}
 					}
 				}
 				RegisterArg result = insn.getResult();
 				if (result != null) {
 					int regNum = result.getRegNum();
-					kill.set(regNum);
-					assignBlocks[regNum].set(blockId);
+					setBit(arr, kill, regNum);
+					setBit(arr, assignStart + regNum * blockWords, blockId);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Backward data flow with blocks worklist:
+	 * liveIn(b) = uses(b) | (union of liveIn(s) for successors s) & ~defs(b),
+	 * predecessors added to worklist only if block live-in set changed.
+	 */
 	private void processLiveInfo() {
-		int bbCount = mth.getBasicBlocks().size();
-		int regsCount = mth.getRegsCount();
-		BitSet[] liveInBlocks = initBitSetArray(bbCount, regsCount);
 		List<BlockNode> blocks = mth.getBasicBlocks();
-		int blocksCount = blocks.size();
-		int iterationsLimit = blocksCount * 10;
-		boolean changed;
-		int k = 0;
-		do {
-			changed = false;
-			for (BlockNode block : blocks) {
-				int blockId = block.getId();
-				BitSet prevIn = liveInBlocks[blockId];
-				BitSet newIn = new BitSet(regsCount);
-				for (BlockNode successor : block.getSuccessors()) {
-					newIn.or(liveInBlocks[successor.getId()]);
+		long[] arr = data;
+		int words = regWords;
+		// circular queue, every block at most once
+		int[] queue = new int[blocksCount];
+		boolean[] inQueue = new boolean[blocksCount];
+		int head = 0;
+		int queued = 0;
+		// start from last blocks, exit usually there
+		for (int id = blocksCount - 1; id >= 0; id--) {
+			queue[queued++] = id;
+			inQueue[id] = true;
+		}
+		long processLimit = (long) blocksCount * blocksCount * 10;
+		long processed = 0;
+		MethodBudget budget = mth.getBudget();
+		while (queued != 0) {
+			budget.step();
+			int blockId = queue[head];
+			head = head + 1 == blocksCount ? 0 : head + 1;
+			queued--;
+			inQueue[blockId] = false;
+
+			BlockNode block = blocks.get(blockId);
+			List<BlockNode> successors = block.getSuccessors();
+			int succCount = successors.size();
+			int liveIn = liveInStart + blockId * words;
+			int uses = usesStart + blockId * words;
+			int defs = defsStart + blockId * words;
+			boolean changed = false;
+			for (int w = 0; w < words; w++) {
+				long out = 0;
+				for (int s = 0; s < succCount; s++) {
+					out |= arr[liveInStart + successors.get(s).getId() * words + w];
 				}
-				newIn.andNot(defs[blockId]);
-				newIn.or(uses[blockId]);
-				if (!prevIn.equals(newIn)) {
+				long newIn = out & ~arr[defs + w] | arr[uses + w];
+				if (newIn != arr[liveIn + w]) {
+					arr[liveIn + w] = newIn;
 					changed = true;
-					liveInBlocks[blockId] = newIn;
 				}
 			}
-			if (k++ > iterationsLimit) {
+			if (changed) {
+				List<BlockNode> predecessors = block.getPredecessors();
+				int predCount = predecessors.size();
+				for (int p = 0; p < predCount; p++) {
+					int predId = predecessors.get(p).getId();
+					if (!inQueue[predId]) {
+						inQueue[predId] = true;
+						int tail = head + queued;
+						queue[tail >= blocksCount ? tail - blocksCount : tail] = predId;
+						queued++;
+					}
+				}
+			}
+			if (++processed > processLimit) {
 				throw new JadxRuntimeException("Live variable analysis reach iterations limit, blocks count: " + blocksCount);
 			}
-		} while (changed);
+		}
+	}
+
+	private static long[] allocBuffer(int size) {
+		long[] cached = BUFFER_CACHE.get();
+		if (cached != null && cached.length >= size) {
+			// buffer in use until release
+			BUFFER_CACHE.set(null);
+			Arrays.fill(cached, 0, size, 0L);
+			return cached;
+		}
+		return new long[size];
+	}
+
+	private static int wordsCount(int bitsCount) {
+		return (bitsCount + 63) >>> 6;
+	}
+
+	private static boolean getBit(long[] arr, int rowStart, int bit) {
+		return (arr[rowStart + (bit >>> 6)] & (1L << bit)) != 0;
+	}
 
-		this.liveIn = liveInBlocks;
+	private static void setBit(long[] arr, int rowStart, int bit) {
+		arr[rowStart + (bit >>> 6)] |= 1L << bit;
 	}
 
-	private static BitSet[] initBitSetArray(int length, int bitsCount) {
-		BitSet[] array = new BitSet[length];
-		for (int i = 0; i < length; i++) {
-			array[i] = new BitSet(bitsCount);
+	private static int nextSetBit(long[] arr, int rowStart, int rowWords, int fromBit) {
+		int w = fromBit >>> 6;
+		if (w >= rowWords) {
+			return -1;
+		}
+		long word = arr[rowStart + w] & (-1L << fromBit);
+		while (true) {
+			if (word != 0) {
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++w == rowWords) {
+				return -1;
+			}
+			word = arr[rowStart + w];
 		}
-		return array;
 	}
 }
@@ -23,6 +23,7 @@ import jadx.core.dex.visitors.JadxVisitor;
 import jadx.core.dex.visitors.blocks.BlockProcessor;
 import jadx.core.utils.InsnList;
 import jadx.core.utils.InsnRemover;
+import jadx.core.utils.MethodBudget;
 import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
@@ -52,10 +53,15 @@ public class SSATransform extends AbstractVisitor {
 			return;
 		}
 		LiveVarAnalysis la = new LiveVarAnalysis(mth);
-		la.runAnalysis();
-		int regsCount = mth.getRegsCount();
-		for (int i = 0; i < regsCount; i++) {
-			placePhi(mth, i, la);
+		try {
+			la.runAnalysis();
+			PhiPlaceState state = new PhiPlaceState(mth.getBasicBlocks().size());
+			int regsCount = mth.getRegsCount();
+			for (int i = 0; i < regsCount; i++) {
+				placePhi(mth, i, la, state);
+			}
+		} finally {
+			la.release();
 		}
 		renameVariables(mth);
 		
@@ -63,9 +69,11 @@ public class SSATransform extends AbstractVisitor {
 		removeBlockerInsns(mth);
 		markThisArgs(mth.getThisArg());
 		
+		MethodBudget budget = mth.getBudget();
 		boolean repeatFix;
 		int k = 0;
 		do {
+			budget.step(mth.getSVars().size());
 			repeatFix = fixUselessPhi(mth);
 			if (k++ > 50) {
 				throw new JadxRuntimeException("Phi nodes fix limit reached!");
@@ -76,29 +84,49 @@ public class SSATransform extends AbstractVisitor {
 		removeUnusedInvokeResults(mth);
 	}
 	
-	private static void placePhi(MethodNode mth, int regNum, LiveVarAnalysis la) {
+	/**
+	 * Work arrays for phi placement shared by all registers.
+	 * Marks store register number + 1, so arrays don't need clearing between registers.
+	 */
+	private static final class PhiPlaceState {
+		private final int[] hasPhiMark;
+		private final int[] processedMark;
+		private final int[] workList;
+
+		PhiPlaceState(int blocksCount) {
+			this.hasPhiMark = new int[blocksCount];
+			this.processedMark = new int[blocksCount];
+			this.workList = new int[blocksCount];
+		}
+	}
+	
+	private static void placePhi(MethodNode mth, int regNum, LiveVarAnalysis la, PhiPlaceState state) {
 		List<BlockNode> blocks = mth.getBasicBlocks();
-		int blocksCount = blocks.size();
-		BitSet hasPhi = new BitSet(blocksCount);
-		BitSet processed = new BitSet(blocksCount);
-		Deque<BlockNode> workList = new ArrayDeque<>();
-		
-		BitSet assignBlocks = la.getAssignBlocks(regNum);
-		for (int id = assignBlocks.nextSetBit(0); id >= 0; id = assignBlocks.nextSetBit(id + 1)) {
-			processed.set(id);
-			workList.add(blocks.get(id));
+		int mark = regNum + 1;
+		int[] hasPhi = state.hasPhiMark;
+		int[] processed = state.processedMark;
+		// every block added at most once, so stack can't overflow
+		int[] workList = state.workList;
+		int size = 0;
+		for (int id = la.nextAssignBlock(regNum, 0); id >= 0; id = la.nextAssignBlock(regNum, id + 1)) {
+			processed[id] = mark;
+			workList[size++] = id;
+		}
+		if (size == 0) {
+			return;
 		}
-		while (!workList.isEmpty()) {
-			BlockNode block = workList.pop();
+		MethodBudget budget = mth.getBudget();
+		while (size != 0) {
+			budget.step();
+			BlockNode block = blocks.get(workList[--size]);
 			BitSet domFrontier = block.getDomFrontier();
 			for (int id = domFrontier.nextSetBit(0); id >= 0; id = domFrontier.nextSetBit(id + 1)) {
-				if (!hasPhi.get(id) && la.isLive(id, regNum)) {
-					BlockNode df = blocks.get(id);
-					addPhi(mth, df, regNum);
-					hasPhi.set(id);
-					if (!processed.get(id)) {
-						processed.set(id);
-						workList.add(df);
+				if (hasPhi[id] != mark && la.isLive(id, regNum)) {
+					addPhi(mth, blocks.get(id), regNum);
+					hasPhi[id] = mark;
+					if (processed[id] != mark) {
+						processed[id] = mark;
+						workList[size++] = id;
 					}
 				}
 			}
@@ -138,7 +166,9 @@ public class SSATransform extends AbstractVisitor {
 		
 		Deque<RenameState> stack = new ArrayDeque<>();
 		stack.push(initState);
+		MethodBudget budget = mth.getBudget();
 		while (!stack.isEmpty()) {
+			budget.step();
 			RenameState state = stack.pop();
 			renameVarsInBlock(mth, state);
 			for (BlockNode dominated : state.getBlock().getDominatesOn()) {
@@ -60,6 +60,7 @@ import jadx.core.utils.InsnList;
 import jadx.core.utils.InsnUtils;
 import jadx.core.utils.ListUtils;
 import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxBudgetExceededException;
 import jadx.core.utils.exceptions.JadxOverflowException;
 
 @JadxVisitor(
@@ -111,6 +112,8 @@ public final class TypeInferenceVisitor extends AbstractVisitor {
 					return;
 				}
 			}
+		} catch (JadxBudgetExceededException e) {
+			throw e;
 		} catch (Exception e) {
 			mth.addError("Type inference failed with exception", e);
 		}
@@ -22,6 +22,7 @@ import jadx.core.dex.instructions.args.SSAVar;
 import jadx.core.dex.nodes.InsnNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.visitors.typeinference.*;
+import jadx.core.utils.MethodBudget;
 
 /**
  * Slow and memory consuming multi-variable type search algorithm.
@@ -135,9 +136,11 @@ public class TypeSearch {
 			var.reset();
 		}
 		// check all types combinations
+		MethodBudget budget = mth.getBudget();
 		int n = 0;
 		int i = 0;
 		while (!fullCheck(vars)) {
+			budget.step();
 			TypeSearchVarInfo first = vars.get(i);
 			if (first.nextType()) {
 				int k = i + 1;
@@ -7,6 +7,7 @@ import java.util.*;
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.instructions.args.InsnArg;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.MethodBudget;
 import jadx.core.utils.exceptions.JadxOverflowException;
 
 public class TypeUpdateInfo {
@@ -14,14 +15,17 @@ public class TypeUpdateInfo {
 	private final TypeUpdateFlags flags;
 	private final List<TypeUpdateEntry> updates = new ArrayList<>();
 	private final int updatesLimitCount;
+	private final MethodBudget budget;
 	
 	public TypeUpdateInfo(MethodNode mth, TypeUpdateFlags flags) {
 		this.mth = mth;
 		this.flags = flags;
+		this.budget = mth.getBudget();
 		this.updatesLimitCount = mth.getInsnsCount() * 5; // maximum registers count to update at once
 	}
 	
 	public void requestUpdate(InsnArg arg, ArgType changeType) {
+		budget.step();
 		updates.add(new TypeUpdateEntry(arg, changeType));
 	}
 	
@@ -0,0 +1,548 @@
+package jadx.core.dex.visitors.usage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.custom.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.plugins.input.data.ICallSite;
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IMethodHandle;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.insns.InsnData;
+import jadx.api.plugins.input.insns.Opcode;
+import jadx.api.plugins.input.insns.custom.ICustomPayload;
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.input.InsnDataUtils;
+
+/**
+ * Cross-reference index built directly from methods instructions (without decompilation):
+ * field reads and writes, method calls and class usages with instruction offsets.
+ * <br>
+ * Classes, methods and fields identified by dense int ids, references for every target
+ * stored in compressed rows (start index per target + flat arrays of source method ids and offsets),
+ * so lookup is a simple array slice.
+ * Only references to loaded (app) classes, methods and fields are collected.
+ */
+public class UsageIndex {
+	private static final Logger LOG = LoggerFactory.getLogger(UsageIndex.class);
+
+	private static final byte[] MAGIC = { 'J', 'U', 'I', 'D' };
+	private static final int DATA_FORMAT_VERSION = 1;
+
+	public enum RefKind {
+		FIELD_READ,
+		FIELD_WRITE,
+		METHOD_CALL,
+		CLASS_USE
+	}
+
+	private static final RefKind[] KINDS = RefKind.values();
+
+	private final ClassNode[] classes;
+	private final MethodNode[] methods;
+	private final FieldNode[] fields;
+	private final Map<ClassNode, Integer> classIds;
+	private final Map<MethodNode, Integer> methodIds;
+	private final Map<FieldNode, Integer> fieldIds;
+
+	/**
+	 * Compressed rows for every reference kind
+	 */
+	private final RefsTable[] tables = new RefsTable[KINDS.length];
+
+	private UsageIndex(ClassNode[] classes, MethodNode[] methods, FieldNode[] fields) {
+		this.classes = classes;
+		this.methods = methods;
+		this.fields = fields;
+		this.classIds = buildIdsMap(classes);
+		this.methodIds = buildIdsMap(methods);
+		this.fieldIds = buildIdsMap(fields);
+	}
+
+	public static UsageIndex build(RootNode root) {
+		long start = System.currentTimeMillis();
+		UsageIndex index = newIndex(root);
+		MethodNode[] methods = index.methods;
+		int threads = Math.max(1, root.getArgs().getThreadsCount());
+		int chunkSize = Math.max(64, methods.length / (threads * 4) + 1);
+		List<Callable<RefsBuffer>> tasks = new ArrayList<>();
+		for (int from = 0; from < methods.length; from += chunkSize) {
+			final int chunkStart = from;
+			final int chunkEnd = Math.min(methods.length, from + chunkSize);
+			final UsageIndex idx = index;
+			tasks.add(new Callable<RefsBuffer>() {
+				@Override
+				public RefsBuffer call() {
+					return idx.scanMethods(root, chunkStart, chunkEnd);
+				}
+			});
+		}
+		List<RefsBuffer> buffers = new ArrayList<>(tasks.size());
+		if (threads == 1 || tasks.size() <= 1) {
+			for (Callable<RefsBuffer> task : tasks) {
+				try {
+					buffers.add(task.call());
+				} catch (Exception e) {
+					throw new JadxRuntimeException("Usage index build failed", e);
+				}
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+			try {
+				for (Future<RefsBuffer> result : executor.invokeAll(tasks)) {
+					buffers.add(result.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new JadxRuntimeException("Usage index build interrupted", e);
+			} catch (ExecutionException e) {
+				throw new JadxRuntimeException("Usage index build failed", e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		index.fillTables(buffers);
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Usage index built in {} ms: {}", System.currentTimeMillis() - start, index);
+		}
+		return index;
+	}
+
+	private static UsageIndex newIndex(RootNode root) {
+		List<ClassNode> clsList = root.getClasses();
+		List<MethodNode> mthList = new ArrayList<>();
+		List<FieldNode> fldList = new ArrayList<>();
+		for (ClassNode cls : clsList) {
+			mthList.addAll(cls.getMethods());
+			fldList.addAll(cls.getFields());
+		}
+		return new UsageIndex(clsList.toArray(new ClassNode[0]),
+				mthList.toArray(new MethodNode[0]),
+				fldList.toArray(new FieldNode[0]));
+	}
+
+	private RefsBuffer scanMethods(RootNode root, int start, int end) {
+		RefsBuffer buffer = new RefsBuffer();
+		for (int id = start; id < end; id++) {
+			MethodNode mth = methods[id];
+			ICodeReader codeReader = mth.getCodeReader();
+			if (mth.isNoCode() || codeReader == null) {
+				continue;
+			}
+			try {
+				// use copy: method reader can be used concurrently by decompilation
+				codeReader.copy().visitInstructions(new InsnsScanner(root, id, buffer));
+			} catch (Exception e) {
+				LOG.warn("Usage index: failed to scan method: {}", mth, e);
+			}
+		}
+		return buffer;
+	}
+
+	private final class InsnsScanner implements Consumer<InsnData> {
+		private final RootNode root;
+		private final int mthId;
+		private final RefsBuffer buffer;
+
+		InsnsScanner(RootNode root, int mthId, RefsBuffer buffer) {
+			this.root = root;
+			this.mthId = mthId;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void accept(InsnData insnData) {
+			Opcode opcode = insnData.getOpcode();
+			if (opcode == Opcode.UNKNOWN) {
+				return;
+			}
+			int offset = insnData.getOffset();
+			switch (insnData.getIndexType()) {
+				case TYPE_REF: {
+					insnData.decode();
+					ArgType type = ArgType.parse(insnData.getIndexAsType());
+					if (type.isArray()) {
+						type = type.getArrayRootElement();
+					}
+					if (type.isObject()) {
+						add(RefKind.CLASS_USE, classIds.get(root.resolveClass(type)), offset);
+					}
+					break;
+				}
+				case FIELD_REF: {
+					insnData.decode();
+					FieldNode fld = root.resolveField(FieldInfo.fromRef(root, insnData.getIndexAsField()));
+					if (fld != null) {
+						boolean write = opcode == Opcode.IPUT || opcode == Opcode.SPUT;
+						add(write ? RefKind.FIELD_WRITE : RefKind.FIELD_READ, fieldIds.get(fld), offset);
+					}
+					break;
+				}
+				case METHOD_REF: {
+					insnData.decode();
+					ICustomPayload payload = insnData.getPayload();
+					IMethodRef mthRef = payload != null ? (IMethodRef) payload : insnData.getIndexAsMethod();
+					addMethodCall(mthRef, offset);
+					break;
+				}
+				case CALL_SITE: {
+					insnData.decode();
+					ICallSite callSite = InsnDataUtils.getCallSite(insnData);
+					IMethodHandle methodHandle = InsnDataUtils.getMethodHandleAt(callSite, 4);
+					if (methodHandle != null) {
+						addMethodCall(methodHandle.getMethodRef(), offset);
+					}
+					break;
+				}
+				default:
+					break;
+			}
+		}
+
+		private void addMethodCall(IMethodRef mthRef, int offset) {
+			// resolved through superclasses and interfaces (same as in UsageInfoVisitor),
+			// so call of inherited method using subclass reference recorded for declaring method
+			MethodNode mth = root.resolveMethod(MethodInfo.fromRef(root, mthRef));
+			if (mth != null) {
+				add(RefKind.METHOD_CALL, methodIds.get(mth), offset);
+			}
+		}
+
+		private void add(RefKind kind, @Nullable Integer targetId, int offset) {
+			if (targetId != null) {
+				buffer.add(kind.ordinal(), targetId, mthId, offset);
+			}
+		}
+	}
+
+	private void fillTables(List<RefsBuffer> buffers) {
+		for (RefKind kind : KINDS) {
+			int targetsCount = getTargetsCount(kind);
+			int kindIdx = kind.ordinal();
+			int[] starts = new int[targetsCount + 1];
+			for (RefsBuffer buffer : buffers) {
+				int[] data = buffer.data;
+				for (int i = 0; i < buffer.size; i += 4) {
+					if (data[i] == kindIdx) {
+						starts[data[i + 1] + 1]++;
+					}
+				}
+			}
+			for (int t = 0; t < targetsCount; t++) {
+				starts[t + 1] += starts[t];
+			}
+			int total = starts[targetsCount];
+			int[] srcMethods = new int[total];
+			int[] offsets = new int[total];
+			int[] fillPos = Arrays.copyOf(starts, targetsCount);
+			// buffers in methods order, so references for every target also sorted by source method
+			for (RefsBuffer buffer : buffers) {
+				int[] data = buffer.data;
+				for (int i = 0; i < buffer.size; i += 4) {
+					if (data[i] == kindIdx) {
+						int pos = fillPos[data[i + 1]]++;
+						srcMethods[pos] = data[i + 2];
+						offsets[pos] = data[i + 3];
+					}
+				}
+			}
+			tables[kindIdx] = new RefsTable(starts, srcMethods, offsets);
+		}
+	}
+
+	private int getTargetsCount(RefKind kind) {
+		switch (kind) {
+			case FIELD_READ:
+			case FIELD_WRITE:
+				return fields.length;
+			case METHOD_CALL:
+				return methods.length;
+			case CLASS_USE:
+				return classes.length;
+			default:
+				throw new JadxRuntimeException("Unknown reference kind: " + kind);
+		}
+	}
+
+	public List<UsageRef> getFieldReads(FieldNode fld) {
+		return getRefs(RefKind.FIELD_READ, fieldIds.get(fld));
+	}
+
+	public List<UsageRef> getFieldWrites(FieldNode fld) {
+		return getRefs(RefKind.FIELD_WRITE, fieldIds.get(fld));
+	}
+
+	public List<UsageRef> getMethodCalls(MethodNode mth) {
+		return getRefs(RefKind.METHOD_CALL, methodIds.get(mth));
+	}
+
+	public List<UsageRef> getClassUses(ClassNode cls) {
+		return getRefs(RefKind.CLASS_USE, classIds.get(cls));
+	}
+
+	public int getRefsCount(RefKind kind, int targetId) {
+		int[] starts = tables[kind.ordinal()].starts;
+		return starts[targetId + 1] - starts[targetId];
+	}
+
+	/**
+	 * Raw access for bulk queries: reference sources are stored at
+	 * {@code [getRefsStart(kind, id), getRefsStart(kind, id + 1))} in
+	 * {@link #getSourceMethodIds(RefKind)} and {@link #getOffsets(RefKind)} arrays.
+	 */
+	public int getRefsStart(RefKind kind, int targetId) {
+		return tables[kind.ordinal()].starts[targetId];
+	}
+
+	public int[] getSourceMethodIds(RefKind kind) {
+		return tables[kind.ordinal()].srcMethods;
+	}
+
+	public int[] getOffsets(RefKind kind) {
+		return tables[kind.ordinal()].offsets;
+	}
+
+	public int getClassId(ClassNode cls) {
+		return getId(classIds, cls);
+	}
+
+	public int getMethodId(MethodNode mth) {
+		return getId(methodIds, mth);
+	}
+
+	public int getFieldId(FieldNode fld) {
+		return getId(fieldIds, fld);
+	}
+
+	public ClassNode getClassById(int id) {
+		return classes[id];
+	}
+
+	public MethodNode getMethodById(int id) {
+		return methods[id];
+	}
+
+	public FieldNode getFieldById(int id) {
+		return fields[id];
+	}
+
+	private List<UsageRef> getRefs(RefKind kind, @Nullable Integer targetId) {
+		if (targetId == null) {
+			return Collections.emptyList();
+		}
+		RefsTable table = tables[kind.ordinal()];
+		int start = table.starts[targetId];
+		int end = table.starts[targetId + 1];
+		if (start == end) {
+			return Collections.emptyList();
+		}
+		List<UsageRef> list = new ArrayList<>(end - start);
+		for (int i = start; i < end; i++) {
+			list.add(new UsageRef(methods[table.srcMethods[i]], table.offsets[i]));
+		}
+		return list;
+	}
+
+	private static <T> int getId(Map<T, Integer> map, T node) {
+		Integer id = map.get(node);
+		return id == null ? -1 : id;
+	}
+
+	private static <T> Map<T, Integer> buildIdsMap(T[] nodes) {
+		Map<T, Integer> map = new IdentityHashMap<>(nodes.length);
+		for (int i = 0; i < nodes.length; i++) {
+			map.put(nodes[i], i);
+		}
+		return map;
+	}
+
+	/**
+	 * Save index, nodes stored by names and resolved on load,
+	 * so saved data can be used only with same inputs.
+	 */
+	public void save(DataOutputStream out) throws IOException {
+		out.write(MAGIC);
+		out.writeInt(DATA_FORMAT_VERSION);
+		out.writeInt(classes.length);
+		for (ClassNode cls : classes) {
+			out.writeUTF(cls.getRawName());
+		}
+		out.writeInt(methods.length);
+		for (MethodNode mth : methods) {
+			out.writeInt(classIds.get(mth.getParentClass()));
+			out.writeUTF(mth.getMethodInfo().getShortId());
+		}
+		out.writeInt(fields.length);
+		for (FieldNode fld : fields) {
+			out.writeInt(classIds.get(fld.getParentClass()));
+			out.writeUTF(fld.getFieldInfo().getShortId());
+		}
+		for (RefsTable table : tables) {
+			writeInts(out, table.starts);
+			writeInts(out, table.srcMethods);
+			writeInts(out, table.offsets);
+		}
+	}
+
+	/**
+	 * Load index saved by {@link #save(DataOutputStream)}
+	 *
+	 * @return null if saved data not match loaded classes
+	 */
+	@Nullable
+	public static UsageIndex load(DataInputStream in, RootNode root) throws IOException {
+		byte[] magic = new byte[MAGIC.length];
+		in.readFully(magic);
+		if (!Arrays.equals(magic, MAGIC) || in.readInt() != DATA_FORMAT_VERSION) {
+			return null;
+		}
+		ClassNode[] classes = new ClassNode[in.readInt()];
+		for (int i = 0; i < classes.length; i++) {
+			ClassNode cls = root.resolveClass(ClassInfo.fromName(root, in.readUTF()));
+			if (cls == null) {
+				return null;
+			}
+			classes[i] = cls;
+		}
+		MethodNode[] methods = new MethodNode[in.readInt()];
+		for (int i = 0; i < methods.length; i++) {
+			ClassNode cls = classes[in.readInt()];
+			MethodNode mth = cls.searchMethodByShortId(in.readUTF());
+			if (mth == null) {
+				return null;
+			}
+			methods[i] = mth;
+		}
+		FieldNode[] fields = new FieldNode[in.readInt()];
+		for (int i = 0; i < fields.length; i++) {
+			ClassNode cls = classes[in.readInt()];
+			FieldNode fld = cls.searchFieldByShortId(in.readUTF());
+			if (fld == null) {
+				return null;
+			}
+			fields[i] = fld;
+		}
+		UsageIndex index = new UsageIndex(classes, methods, fields);
+		for (int k = 0; k < KINDS.length; k++) {
+			int[] starts = readInts(in);
+			int[] srcMethods = readInts(in);
+			int[] offsets = readInts(in);
+			index.tables[k] = new RefsTable(starts, srcMethods, offsets);
+		}
+		return index;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] arr) throws IOException {
+		out.writeInt(arr.length);
+		for (int v : arr) {
+			out.writeInt(v);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] arr = new int[in.readInt()];
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = in.readInt();
+		}
+		return arr;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("UsageIndex{classes=").append(classes.length)
+				.append(", methods=").append(methods.length)
+				.append(", fields=").append(fields.length);
+		for (RefKind kind : KINDS) {
+			RefsTable table = tables[kind.ordinal()];
+			if (table != null) {
+				sb.append(", ").append(kind.name().toLowerCase()).append('=').append(table.srcMethods.length);
+			}
+		}
+		return sb.append('}').toString();
+	}
+
+	public static final class UsageRef {
+		private final MethodNode mth;
+		private final int offset;
+
+		UsageRef(MethodNode mth, int offset) {
+			this.mth = mth;
+			this.offset = offset;
+		}
+
+		/**
+		 * Method with reference instruction
+		 */
+		public MethodNode getMth() {
+			return mth;
+		}
+
+		/**
+		 * Instruction offset in method code units
+		 */
+		public int getOffset() {
+			return offset;
+		}
+
+		@Override
+		public String toString() {
+			return mth + " at 0x" + Integer.toHexString(offset);
+		}
+	}
+
+	private static final class RefsTable {
+		private final int[] starts;
+		private final int[] srcMethods;
+		private final int[] offsets;
+
+		RefsTable(int[] starts, int[] srcMethods, int[] offsets) {
+			this.starts = starts;
+			this.srcMethods = srcMethods;
+			this.offsets = offsets;
+		}
+	}
+
+	/**
+	 * Collected references, 4 ints per reference: kind, target id, source method id, offset
+	 */
+	private static final class RefsBuffer {
+		private int[] data = new int[256];
+		private int size;
+
+		void add(int kind, int target, int srcMth, int offset) {
+			if (size + 4 > data.length) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			data[size] = kind;
+			data[size + 1] = target;
+			data[size + 2] = srcMth;
+			data[size + 3] = offset;
+			size += 4;
+		}
+	}
+}
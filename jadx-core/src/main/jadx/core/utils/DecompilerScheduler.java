@@ -3,8 +3,12 @@ package jadx.core.utils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.jetbrains.annotations.NotNull;
@@ -13,6 +17,9 @@ import org.slf4j.LoggerFactory;
 
 import jadx.api.IDecompileScheduler;
 import jadx.api.JavaClass;
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public class DecompilerScheduler implements IDecompileScheduler {
@@ -20,6 +27,30 @@ public class DecompilerScheduler implements IDecompileScheduler {
 	
 	private static final int MERGED_BATCH_SIZE = 16;
 	private static final boolean DEBUG_BATCHES = false;
+
+	/**
+	 * Cost model constants, cost unit is one instruction code unit.
+	 * Blocks count and processing time grow faster than method size
+	 * (SSA, type inference and regions making work over blocks and variables),
+	 * so big methods get additional quadratic part.
+	 */
+	private static final int MTH_BASE_COST = 4;
+	private static final int SUPERLINEAR_COST_SCALE = 1000;
+	private static final int TRY_COST = 50;
+	/**
+	 * Read tries count only for methods bigger than this (small methods don't change schedule)
+	 */
+	private static final int TRIES_CHECK_MIN_INSNS = 64;
+
+	/**
+	 * Merged batch closed after reaching this cost, so expensive classes don't pile up in one batch
+	 */
+	private static final long MERGED_BATCH_MAX_COST = 20_000;
+
+	/**
+	 * Classes with method bigger than this always processed in own batch
+	 */
+	private static final int GIANT_METHOD_INSNS = 10_000;
 	
 	@Override
 	public List<List<JavaClass>> buildBatches(List<JavaClass> classes) {
@@ -42,102 +73,234 @@ public class DecompilerScheduler implements IDecompileScheduler {
 	/**
 	* Put classes with many dependencies at the end.
 	* Build batches for dependencies of single class to avoid locking from another thread.
+	* Classes with giant methods (also found in dependencies) isolated in own batches and put first,
+	* so they start early and don't delay the end of decompilation.
+	* Merged batches of independent classes go next, sorted by estimated cost: most expensive first
+	* (longest processing time first). Batches with dependencies keep order by dependencies count
+	* and stay at the end, as before, so most of their dependencies already processed when they start.
 	*/
-	public class SortedHashSet<T> extends HashSet<T> {
-		private final Comparator<? super T> comparator;
-		
-		public SortedHashSet(int initialCapacity, Comparator<? super T> comparator) {
-			super(initialCapacity);
-			this.comparator = comparator;
-		}
-		
-		@Override
-		public boolean add(T element) {
-			boolean added = super.add(element);
-			if (added) {
-				List<T> list = new ArrayList<>(this);
-				list.sort(comparator);
-				clear();
-				super.addAll(list);
-			}
-			return added;
-		}
-	}
-	
 	public List<List<JavaClass>> internalBatches(List<JavaClass> classes) {
 		List<DepInfo> deps = sumDependencies(classes);
-		Set<JavaClass> added = new SortedHashSet<>(classes.size(), new Comparator<JavaClass>() {
-			@Override
-			public int compare(JavaClass o1, JavaClass o2) {
-				return Integer.compare(o1.getTotalDepsCount(), o2.getTotalDepsCount());
-			}
-		});
-		
-		Comparator<JavaClass> cmpDepSize = new Comparator<JavaClass>() {
-			@Override
-			public int compare(JavaClass o1, JavaClass o2) {
-				return Integer.compare(o1.getTotalDepsCount(), o2.getTotalDepsCount());
-			}
-		};
-		List<List<JavaClass>> result = new ArrayList<>();
+		Map<JavaClass, Long> costs = new HashMap<>(classes.size());
+		Set<JavaClass> added = new HashSet<>(classes.size());
+		List<List<JavaClass>> giantBatches = new ArrayList<>();
+		List<List<JavaClass>> mergedBatches = new ArrayList<>();
+		List<List<JavaClass>> depsBatches = new ArrayList<>();
 		List<JavaClass> mergedBatch = new ArrayList<>(MERGED_BATCH_SIZE);
-		
+		long mergedBatchCost = 0;
 		for (DepInfo depInfo : deps) {
 			JavaClass cls = depInfo.getCls();
 			if (!added.add(cls)) {
 				continue;
 			}
 			int depsSize = cls.getTotalDepsCount();
-			
+			boolean giant = hasGiantMethod(cls.getClassNode());
 			if (depsSize == 0) {
+				if (giant) {
+					giantBatches.add(Collections.singletonList(cls));
+					continue;
+				}
 				// add classes without dependencies in merged batch
 				mergedBatch.add(cls);
-				if (mergedBatch.size() >= MERGED_BATCH_SIZE) {
-					result.add(new ArrayList<>(mergedBatch));
-					mergedBatch.clear();
+				mergedBatchCost += getCost(costs, cls);
+				if (mergedBatch.size() >= MERGED_BATCH_SIZE || mergedBatchCost >= MERGED_BATCH_MAX_COST) {
+					mergedBatches.add(mergedBatch);
+					mergedBatch = new ArrayList<>(MERGED_BATCH_SIZE);
+					mergedBatchCost = 0;
 				}
 			} else {
-				/* Traditional Method instead of  Lambda Expression*/
-				/* By @developer-krushna*/
-				List<JavaClass> batch = new ArrayList<>(depsSize + 1);
+				List<JavaClass> batchDeps = new ArrayList<>(depsSize);
 				for (JavaClass dep : cls.getDependencies()) {
 					JavaClass topDep = dep.getTopParentClass();
-					if (!added.contains(topDep)) {
-						batch.add(topDep);
-						added.add(topDep);
-					}
-				}
-				
-				// Custom sorting logic without using sort method or lambda expression
-				for (int i = 0; i < batch.size(); i++) {
-					for (int j = i + 1; j < batch.size(); j++) {
-						JavaClass dep1 = batch.get(i);
-						JavaClass dep2 = batch.get(j);
-						if (cmpDepSize.compare(dep1, dep2) > 0) {
-							// Swap elements in the list
-							JavaClass temp = batch.get(i);
-							batch.set(i, batch.get(j));
-							batch.set(j, temp);
+					if (added.add(topDep)) {
+						if (!giant && hasGiantMethod(topDep.getClassNode())) {
+							// start giant dependency early in own batch
+							giantBatches.add(Collections.singletonList(topDep));
+						} else {
+							batchDeps.add(topDep);
 						}
 					}
 				}
-				
+				List<JavaClass> batch = orderByDependencies(batchDeps);
 				batch.add(cls);
-				result.add(new ArrayList<>(batch));
+				if (giant) {
+					// dependencies of giant class processed in same batch before it
+					giantBatches.add(batch);
+				} else {
+					depsBatches.add(batch);
+				}
 			}
 		}
-		
 		if (!mergedBatch.isEmpty()) {
-			result.add(new ArrayList<>(mergedBatch));
+			mergedBatches.add(mergedBatch);
 		}
-		
+		sortByCost(giantBatches, costs);
+		sortByCost(mergedBatches, costs);
+		List<List<JavaClass>> result = new ArrayList<>(giantBatches.size() + mergedBatches.size() + depsBatches.size());
+		result.addAll(giantBatches);
+		result.addAll(mergedBatches);
+		result.addAll(depsBatches);
 		if (DEBUG_BATCHES) {
 			dumpBatchesStats(classes, result, deps);
 		}
-		
 		return result;
 	}
-	
+
+	/**
+	 * Stable sort by batch cost in descending order
+	 */
+	private static void sortByCost(List<List<JavaClass>> batches, Map<JavaClass, Long> costs) {
+		if (batches.size() < 2) {
+			return;
+		}
+		final Map<List<JavaClass>, Long> batchCosts = new IdentityHashMap<>(batches.size());
+		for (List<JavaClass> batch : batches) {
+			long cost = 0;
+			for (JavaClass cls : batch) {
+				cost += getCost(costs, cls);
+			}
+			batchCosts.put(batch, cost);
+		}
+		Collections.sort(batches, new Comparator<List<JavaClass>>() {
+			@Override
+			public int compare(List<JavaClass> b1, List<JavaClass> b2) {
+				return Long.compare(batchCosts.get(b2), batchCosts.get(b1));
+			}
+		});
+	}
+
+	private static long getCost(Map<JavaClass, Long> costs, JavaClass cls) {
+		Long cost = costs.get(cls);
+		if (cost == null) {
+			cost = estimateCost(cls.getClassNode());
+			costs.put(cls, cost);
+		}
+		return cost;
+	}
+
+	/**
+	 * Estimate class processing cost (including inner classes) without code loading
+	 */
+	public static long estimateCost(ClassNode cls) {
+		long cost = 0;
+		for (MethodNode mth : cls.getMethods()) {
+			cost += estimateCost(mth);
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			cost += estimateCost(innerCls);
+		}
+		return cost;
+	}
+
+	public static long estimateCost(MethodNode mth) {
+		if (mth.isNoCode()) {
+			return 1;
+		}
+		long insns = mth.getInsnsCount();
+		long cost = MTH_BASE_COST + insns + insns * insns / SUPERLINEAR_COST_SCALE;
+		ICodeReader codeReader = mth.getCodeReader();
+		if (insns >= TRIES_CHECK_MIN_INSNS && codeReader != null) {
+			try {
+				// use copy: tries reading change reader position
+				cost += (long) TRY_COST * codeReader.copy().getTries().size();
+			} catch (Exception e) {
+				LOG.debug("Failed to read tries for cost estimation in method: {}", mth, e);
+			}
+		}
+		return cost;
+	}
+
+	private static boolean hasGiantMethod(ClassNode cls) {
+		for (MethodNode mth : cls.getMethods()) {
+			if (mth.getInsnsCount() > GIANT_METHOD_INSNS) {
+				return true;
+			}
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			if (hasGiantMethod(innerCls)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* Topological order of classes in batch (dependencies first),
+	* classes without order constraints (or in dependency cycle) sorted by dependencies count.
+	*/
+	private static List<JavaClass> orderByDependencies(List<JavaClass> batchClasses) {
+		int count = batchClasses.size();
+		List<JavaClass> ordered = new ArrayList<>(count + 1);
+		if (count < 2) {
+			ordered.addAll(batchClasses);
+			return ordered;
+		}
+		Map<JavaClass, BatchNode> nodes = new HashMap<>(count);
+		for (JavaClass cls : batchClasses) {
+			nodes.put(cls, new BatchNode(cls));
+		}
+		for (BatchNode node : nodes.values()) {
+			for (JavaClass dep : node.cls.getDependencies()) {
+				BatchNode depNode = nodes.get(dep.getTopParentClass());
+				if (depNode != null && depNode != node) {
+					depNode.usedBy.add(node);
+					node.pendingDeps++;
+				}
+			}
+		}
+		PriorityQueue<BatchNode> ready = new PriorityQueue<>(count, BATCH_NODE_CMP);
+		PriorityQueue<BatchNode> waiting = new PriorityQueue<>(count, BATCH_NODE_CMP);
+		for (BatchNode node : nodes.values()) {
+			if (node.pendingDeps == 0) {
+				ready.add(node);
+			} else {
+				waiting.add(node);
+			}
+		}
+		while (ordered.size() < count) {
+			BatchNode node = ready.poll();
+			if (node == null) {
+				// dependency cycle: take any waiting class with the smallest dependencies count
+				node = waiting.poll();
+			}
+			if (node.done) {
+				continue;
+			}
+			node.done = true;
+			ordered.add(node.cls);
+			for (BatchNode user : node.usedBy) {
+				if (!user.done && --user.pendingDeps == 0) {
+					ready.add(user);
+				}
+			}
+		}
+		return ordered;
+	}
+
+	private static final Comparator<BatchNode> BATCH_NODE_CMP = new Comparator<BatchNode>() {
+		@Override
+		public int compare(BatchNode o1, BatchNode o2) {
+			int cmp = Integer.compare(o1.depsCount, o2.depsCount);
+			if (cmp != 0) {
+				return cmp;
+			}
+			return o1.cls.getClassNode().compareTo(o2.cls.getClassNode());
+		}
+	};
+
+	private static final class BatchNode {
+		private final JavaClass cls;
+		private final int depsCount;
+		private final List<BatchNode> usedBy = new ArrayList<>(2);
+		private int pendingDeps;
+		private boolean done;
+
+		private BatchNode(JavaClass cls) {
+			this.cls = cls;
+			this.depsCount = cls.getTotalDepsCount();
+		}
+	}
+
 	private static List<DepInfo> sumDependencies(List<JavaClass> classes) {
 		List<DepInfo> deps = new ArrayList<>(classes.size());
 		for (JavaClass cls : classes) {
@@ -184,28 +347,20 @@ public class DecompilerScheduler implements IDecompileScheduler {
 	}
 	
 	private static List<List<JavaClass>> buildFallback(List<JavaClass> classes) {
-		// Custom sorting logic without using sort method or lambda expression
-		for (int i = 0; i < classes.size(); i++) {
-			for (int j = i + 1; j < classes.size(); j++) {
-				JavaClass c1 = classes.get(i);
-				JavaClass c2 = classes.get(j);
-				if (Integer.compare(c1.getClassNode().getTotalDepsCount(), c2.getClassNode().getTotalDepsCount()) > 0) {
-					// Swap elements in the list
-					JavaClass temp = classes.get(i);
-					classes.set(i, classes.get(j));
-					classes.set(j, temp);
-				}
+		List<JavaClass> sorted = new ArrayList<>(classes);
+		Collections.sort(sorted, new Comparator<JavaClass>() {
+			@Override
+			public int compare(JavaClass c1, JavaClass c2) {
+				return Integer.compare(c1.getTotalDepsCount(), c2.getTotalDepsCount());
 			}
+		});
+		List<List<JavaClass>> result = new ArrayList<>(sorted.size());
+		for (JavaClass javaClass : sorted) {
+			result.add(Collections.singletonList(javaClass));
 		}
-		
-		List<List<JavaClass>> result = new ArrayList<>();
-		for (JavaClass javaClass : classes) {
-			List<JavaClass> innerList = Collections.singletonList(javaClass);
-			result.add(innerList);
-		}
-		
 		return result;
 	}
+
 	private void dumpBatchesStats(List<JavaClass> classes, List<List<JavaClass>> result, List<DepInfo> deps) {
 		int clsInBatches = 0;
 		int totalBatchSize = result.size();
@@ -15,6 +15,7 @@ import jadx.core.dex.attributes.IAttributeNode;
 import jadx.core.dex.attributes.nodes.JadxError;
 import jadx.core.dex.nodes.IDexNode;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.exceptions.JadxBudgetExceededException;
 import jadx.core.utils.exceptions.JadxOverflowException;
 
 public class ErrorsCounter {
@@ -25,6 +26,7 @@ public class ErrorsCounter {
 	private int errorsCount;
 	private final Set<IAttributeNode> warnNodes = new HashSet<>();
 	private int warnsCount;
+	private final Set<IAttributeNode> budgetExceededNodes = new HashSet<>();
 
 	public static <N extends IDexNode & IAttributeNode> String error(N node, String warnMsg, Throwable th) {
 		return node.root().getErrorsCounter().addError(node, warnMsg, th);
@@ -53,7 +55,12 @@ public class ErrorsCounter {
 		} else if (e instanceof JadxOverflowException) {
 			// don't print full stack trace
 			String details = e.getMessage();
-			e = new JadxOverflowException(details);
+			if (e instanceof JadxBudgetExceededException) {
+				budgetExceededNodes.add(node);
+				e = new JadxBudgetExceededException(details);
+			} else {
+				e = new JadxOverflowException(details);
+			}
 			if (details == null || details.isEmpty()) {
 				LOG.error("{}", msg);
 			} else {
@@ -88,6 +95,17 @@ public class ErrorsCounter {
 		if (getWarnsCount() > 0) {
 			LOG.warn("{} warnings in {} nodes", getWarnsCount(), warnNodes.size());
 		}
+		if (!budgetExceededNodes.isEmpty()) {
+			LOG.warn("{} methods exceed processing budget and generated in fallback mode:", budgetExceededNodes.size());
+			List<String> methods = new ArrayList<>(budgetExceededNodes.size());
+			for (IAttributeNode node : budgetExceededNodes) {
+				methods.add(node.toString());
+			}
+			Collections.sort(methods);
+			for (String mth : methods) {
+				LOG.warn("  {}", mth);
+			}
+		}
 	}
 
 	public int getErrorCount() {
@@ -105,4 +123,11 @@ public class ErrorsCounter {
 	public Set<IAttributeNode> getWarnNodes() {
 		return warnNodes;
 	}
+
+	/**
+	 * Methods which exceed processing budget (see {@link jadx.core.utils.MethodBudget})
+	 */
+	public Set<IAttributeNode> getBudgetExceededNodes() {
+		return budgetExceededNodes;
+	}
 }
@@ -0,0 +1,114 @@
+package jadx.core.utils;
+
+import jadx.api.JadxArgs;
+import jadx.core.utils.exceptions.JadxBudgetExceededException;
+
+/**
+ * Cooperative per-method processing budget.
+ * <br>
+ * Time spent in method passes accumulated by {@link jadx.core.dex.visitors.DepthTraversal},
+ * heavy loops (type inference, SSA, regions making) report work by {@link #step()}.
+ * After budget exceed every next step throws {@link JadxBudgetExceededException},
+ * so exception can't be lost in passes with own error handling.
+ * <br>
+ * Not thread safe: method processed only by one thread at once.
+ */
+public final class MethodBudget {
+	/**
+	 * Check time on every 1024 steps, {@link System#nanoTime()} too slow for every step
+	 */
+	private static final int TIME_CHECK_STEPS = 1024;
+
+	private static final MethodBudget UNLIMITED = new MethodBudget(0, 0);
+
+	private final long timeLimitNanos;
+	private final long stepsLimit;
+
+	private long usedTimeNanos;
+	private long passStartNanos;
+	private long steps;
+	private long nextTimeCheck = TIME_CHECK_STEPS;
+	private String exceedReason;
+
+	private MethodBudget(long timeLimitMs, long stepsLimit) {
+		this.timeLimitNanos = timeLimitMs * 1_000_000L;
+		this.stepsLimit = stepsLimit;
+	}
+
+	public static MethodBudget build(JadxArgs args) {
+		long timeLimit = args.getMethodTimeBudget();
+		long stepsLimit = args.getMethodStepsBudget();
+		if (timeLimit <= 0 && stepsLimit <= 0) {
+			return UNLIMITED;
+		}
+		return new MethodBudget(Math.max(0, timeLimit), Math.max(0, stepsLimit));
+	}
+
+	public static MethodBudget unlimited() {
+		return UNLIMITED;
+	}
+
+	public boolean isUnlimited() {
+		return this == UNLIMITED;
+	}
+
+	public void startPass() {
+		if (timeLimitNanos != 0) {
+			passStartNanos = System.nanoTime();
+		}
+	}
+
+	public void finishPass() {
+		if (timeLimitNanos != 0 && passStartNanos != 0) {
+			usedTimeNanos += System.nanoTime() - passStartNanos;
+			passStartNanos = 0;
+			if (exceedReason == null && usedTimeNanos > timeLimitNanos) {
+				exceedReason = "time limit " + timeLimitNanos / 1_000_000L + " ms";
+			}
+		}
+	}
+
+	public void step() {
+		step(1);
+	}
+
+	public void step(int count) {
+		if (this == UNLIMITED) {
+			return;
+		}
+		steps += count;
+		if (exceedReason != null) {
+			throw new JadxBudgetExceededException("Method processing budget exceeded: " + exceedReason);
+		}
+		if (stepsLimit != 0 && steps > stepsLimit) {
+			exceed("steps limit " + stepsLimit);
+		}
+		if (timeLimitNanos != 0 && steps >= nextTimeCheck) {
+			nextTimeCheck = steps + TIME_CHECK_STEPS;
+			if (passStartNanos != 0 && usedTimeNanos + System.nanoTime() - passStartNanos > timeLimitNanos) {
+				exceed("time limit " + timeLimitNanos / 1_000_000L + " ms");
+			}
+		}
+	}
+
+	private void exceed(String reason) {
+		exceedReason = reason;
+		throw new JadxBudgetExceededException("Method processing budget exceeded: " + reason);
+	}
+
+	public boolean isExceeded() {
+		return exceedReason != null;
+	}
+
+	public String getExceedReason() {
+		return exceedReason;
+	}
+
+	public long getSteps() {
+		return steps;
+	}
+
+	public long getUsedTimeMs() {
+		return usedTimeNanos / 1_000_000L;
+	}
+}
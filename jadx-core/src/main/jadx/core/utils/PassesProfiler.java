@@ -0,0 +1,238 @@
+package jadx.core.utils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.dex.visitors.IDexTreeVisitor;
+
+/**
+ * Collect wall time, calls count and allocated bytes for every decompilation pass
+ * and for main decompiler stages (inputs load, classes load, code generation).
+ * Results printed in same format for every run, so can be compared across versions.
+ * <br>
+ * Enabled by {@code JadxArgs.setProfilePasses(true)}, if disabled instance not created at all.
+ * Allocated bytes available only on JVMs with {@code com.sun.management.ThreadMXBean}
+ * (not available on Android), otherwise reported as -1.
+ */
+public class PassesProfiler {
+	private static final Logger LOG = LoggerFactory.getLogger(PassesProfiler.class);
+
+	public static final String STAGE_LOAD_INPUTS = "load inputs";
+	public static final String STAGE_LOAD_CLASSES = "load classes";
+	public static final String STAGE_INIT = "init classpath and passes";
+	public static final String STAGE_CODEGEN = "codegen";
+
+	private final ConcurrentMap<String, PassStats> statsMap = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, PassStats> stagesMap = new ConcurrentHashMap<>();
+	@Nullable
+	private final AllocCounter allocCounter = AllocCounter.build();
+
+	public long start() {
+		return System.nanoTime();
+	}
+
+	public long startAlloc() {
+		return allocCounter != null ? allocCounter.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	public void finish(IDexTreeVisitor visitor, long startTime, long startAlloc) {
+		long time = System.nanoTime() - startTime;
+		long alloc = -1;
+		if (allocCounter != null && startAlloc != -1) {
+			long endAlloc = allocCounter.getCurrentThreadAllocatedBytes();
+			if (endAlloc != -1) {
+				alloc = endAlloc - startAlloc;
+			}
+		}
+		getStats(statsMap, visitor.getClass().getSimpleName()).add(time, alloc);
+	}
+
+	public void finishStage(String stage, long startTime, long startAlloc) {
+		long time = System.nanoTime() - startTime;
+		long alloc = -1;
+		if (allocCounter != null && startAlloc != -1) {
+			long endAlloc = allocCounter.getCurrentThreadAllocatedBytes();
+			if (endAlloc != -1) {
+				alloc = endAlloc - startAlloc;
+			}
+		}
+		getStats(stagesMap, stage).add(time, alloc);
+	}
+
+	private static PassStats getStats(ConcurrentMap<String, PassStats> map, String name) {
+		PassStats stats = map.get(name);
+		if (stats != null) {
+			return stats;
+		}
+		PassStats newStats = new PassStats(name);
+		PassStats prev = map.putIfAbsent(name, newStats);
+		return prev != null ? prev : newStats;
+	}
+
+	/**
+	 * Collected passes stats sorted by total time (descending)
+	 */
+	public List<PassStats> getStats() {
+		return sortByTime(statsMap);
+	}
+
+	/**
+	 * Collected stages stats sorted by total time (descending).
+	 * Stages can run in parallel (codegen), so sum of times can be greater than wall time.
+	 */
+	public List<PassStats> getStagesStats() {
+		return sortByTime(stagesMap);
+	}
+
+	private static List<PassStats> sortByTime(ConcurrentMap<String, PassStats> map) {
+		List<PassStats> list = new ArrayList<>(map.values());
+		Collections.sort(list, new Comparator<PassStats>() {
+			@Override
+			public int compare(PassStats a, PassStats b) {
+				return Long.compare(b.getTimeNanos(), a.getTimeNanos());
+			}
+		});
+		return list;
+	}
+
+	public boolean isAllocTracked() {
+		return allocCounter != null;
+	}
+
+	public void reset() {
+		statsMap.clear();
+		stagesMap.clear();
+	}
+
+	public String buildReport() {
+		StringBuilder sb = new StringBuilder();
+		appendReport(sb, "Stages", getStagesStats());
+		sb.append('\n');
+		appendReport(sb, "Passes", getStats());
+		return sb.toString();
+	}
+
+	private static void appendReport(StringBuilder sb, String title, List<PassStats> list) {
+		long totalTime = 0;
+		for (PassStats stats : list) {
+			totalTime += stats.getTimeNanos();
+		}
+		sb.append(title).append(" stats (total: ").append(TimeUnit.NANOSECONDS.toMillis(totalTime)).append(" ms):");
+		for (PassStats stats : list) {
+			double percent = totalTime == 0 ? 0 : stats.getTimeNanos() * 100.0 / totalTime;
+			sb.append("\n  ").append(String.format("%-40s %8d ms %5.1f%% %10d calls",
+					stats.getName(), TimeUnit.NANOSECONDS.toMillis(stats.getTimeNanos()), percent, stats.getCalls()));
+			if (stats.getAllocatedBytes() != -1) {
+				sb.append(String.format(" %10d KB", stats.getAllocatedBytes() / 1024));
+			}
+		}
+	}
+
+	public void printReport() {
+		if (!statsMap.isEmpty() || !stagesMap.isEmpty()) {
+			LOG.info("{}", buildReport());
+		}
+	}
+
+	public static final class PassStats {
+		private final String name;
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong timeNanos = new AtomicLong();
+		private final AtomicLong allocatedBytes = new AtomicLong();
+		private volatile boolean allocUnknown;
+
+		private PassStats(String name) {
+			this.name = name;
+		}
+
+		private void add(long time, long alloc) {
+			calls.incrementAndGet();
+			timeNanos.addAndGet(time);
+			if (alloc >= 0) {
+				allocatedBytes.addAndGet(alloc);
+			} else {
+				allocUnknown = true;
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCalls() {
+			return calls.get();
+		}
+
+		public long getTimeNanos() {
+			return timeNanos.get();
+		}
+
+		/**
+		 * @return allocated bytes or -1 if not supported
+		 */
+		public long getAllocatedBytes() {
+			return allocUnknown ? -1 : allocatedBytes.get();
+		}
+
+		@Override
+		public String toString() {
+			return name + ": calls=" + getCalls()
+					+ ", time=" + TimeUnit.NANOSECONDS.toMillis(getTimeNanos()) + "ms"
+					+ ", alloc=" + getAllocatedBytes();
+		}
+	}
+
+	/**
+	 * Access to {@code com.sun.management.ThreadMXBean.getThreadAllocatedBytes(long)} by reflection,
+	 * because management API not available on all platforms.
+	 */
+	private static final class AllocCounter {
+		private final Object threadMXBean;
+		private final Method getAllocatedBytes;
+
+		@Nullable
+		static AllocCounter build() {
+			try {
+				Class<?> factoryCls = Class.forName("java.lang.management.ManagementFactory");
+				Object bean = factoryCls.getMethod("getThreadMXBean").invoke(null);
+				Class<?> beanCls = Class.forName("com.sun.management.ThreadMXBean");
+				if (!beanCls.isInstance(bean)) {
+					return null;
+				}
+				Method isSupported = beanCls.getMethod("isThreadAllocatedMemorySupported");
+				if (!((Boolean) isSupported.invoke(bean))) {
+					return null;
+				}
+				beanCls.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+				return new AllocCounter(bean, beanCls.getMethod("getThreadAllocatedBytes", long.class));
+			} catch (Throwable e) {
+				LOG.debug("Allocated bytes tracking not supported: {}", e.toString());
+				return null;
+			}
+		}
+
+		private AllocCounter(Object threadMXBean, Method getAllocatedBytes) {
+			this.threadMXBean = threadMXBean;
+			this.getAllocatedBytes = getAllocatedBytes;
+		}
+
+		long getCurrentThreadAllocatedBytes() {
+			try {
+				return (Long) getAllocatedBytes.invoke(threadMXBean, Thread.currentThread().getId());
+			} catch (Exception e) {
+				return -1;
+			}
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package jadx.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.custom.Consumer;
+
+import jadx.api.ICodeCache;
+import jadx.api.JavaClass;
+import jadx.core.ProcessClass;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+
+/**
+ * Executor for save tasks based on {@link ForkJoinPool}.
+ * <br>
+ * Decompilation batches split into tasks for every class,
+ * dependencies processed in separate tasks shared between all classes,
+ * so idle workers can steal parts of big batches
+ * and every dependency processed only once.
+ */
+public class WorkStealingExecutor extends ForkJoinPool {
+
+	private final ProcessClass processClass;
+	private final ICodeCache codeCache;
+
+	private final ConcurrentMap<ClassNode, ForkJoinTask<Void>> depTasks = new ConcurrentHashMap<>();
+
+	private final AtomicLong tasksCount = new AtomicLong();
+	private final AtomicLong completedTasksCount = new AtomicLong();
+
+	public WorkStealingExecutor(RootNode root, int threadsCount) {
+		super(threadsCount);
+		this.processClass = root.getProcessClasses();
+		this.codeCache = root.getCodeCache();
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		tasksCount.incrementAndGet();
+		super.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				} finally {
+					completedTasksCount.incrementAndGet();
+				}
+			}
+		});
+	}
+
+	public Runnable buildBatchTask(final List<JavaClass> batch, final Consumer<JavaClass> saveAction) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				List<ClassTask> tasks = new ArrayList<>(batch.size());
+				for (JavaClass cls : batch) {
+					tasks.add(new ClassTask(cls, saveAction));
+				}
+				ForkJoinTask.invokeAll(tasks);
+			}
+		};
+	}
+
+	/**
+	 * Number of tasks submitted by {@link #execute(Runnable)}
+	 */
+	public long getTaskCount() {
+		return tasksCount.get();
+	}
+
+	public long getCompletedTaskCount() {
+		return completedTasksCount.get();
+	}
+
+	private ForkJoinTask<Void> getDepTask(ClassNode dep, List<ForkJoinTask<Void>> newTasks) {
+		ForkJoinTask<Void> task = depTasks.get(dep);
+		if (task != null) {
+			return task;
+		}
+		ForkJoinTask<Void> newTask = new DepTask(dep);
+		ForkJoinTask<Void> prevTask = depTasks.putIfAbsent(dep, newTask);
+		if (prevTask != null) {
+			return prevTask;
+		}
+		newTasks.add(newTask);
+		return newTask;
+	}
+
+	private final class DepTask extends RecursiveAction {
+		private static final long serialVersionUID = 4021738502174955619L;
+
+		private final ClassNode dep;
+
+		private DepTask(ClassNode dep) {
+			this.dep = dep;
+		}
+
+		@Override
+		protected void compute() {
+			processClass.processDependency(dep);
+		}
+	}
+
+	private final class ClassTask extends RecursiveAction {
+		private static final long serialVersionUID = -1658249373910286304L;
+
+		private final JavaClass cls;
+		private final Consumer<JavaClass> saveAction;
+
+		private ClassTask(JavaClass cls, Consumer<JavaClass> saveAction) {
+			this.cls = cls;
+			this.saveAction = saveAction;
+		}
+
+		@Override
+		protected void compute() {
+			ClassNode clsNode = cls.getClassNode();
+			List<ClassNode> deps = clsNode.getDependencies();
+			if (!deps.isEmpty() && !codeCache.contains(clsNode.getRawName())) {
+				List<ForkJoinTask<Void>> newTasks = new ArrayList<>();
+				List<ForkJoinTask<Void>> waitTasks = new ArrayList<>(deps.size());
+				for (ClassNode dep : deps) {
+					waitTasks.add(getDepTask(dep, newTasks));
+				}
+				for (ForkJoinTask<Void> newTask : newTasks) {
+					newTask.fork();
+				}
+				for (ForkJoinTask<Void> waitTask : waitTasks) {
+					// join help to execute pending tasks instead of blocking
+					waitTask.join();
+				}
+			}
+			saveAction.accept(cls);
+		}
+	}
+}
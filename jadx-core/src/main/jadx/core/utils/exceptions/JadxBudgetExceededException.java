@@ -0,0 +1,13 @@
+package jadx.core.utils.exceptions;
+
+/**
+ * Thrown when method processing exceeds its time or steps budget (see {@link jadx.core.utils.MethodBudget})
+ */
+public class JadxBudgetExceededException extends JadxOverflowException {
+
+	private static final long serialVersionUID = -3806431925018470567L;
+
+	public JadxBudgetExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,186 @@
+package jadx.core.utils.files;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.plugins.utils.StoredZipEntries;
+
+/**
+ * Pool of opened zip files, allows to read central directory only once
+ * for all entries loaded from same file.
+ * <br>
+ * Handles are reference counted: file kept open after last release and closed only on pool close
+ * (or on last release if pool already closed).
+ * {@link ZipFile} is thread-safe, so same handle can be used from several threads.
+ */
+public class ZipFilePool implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(ZipFilePool.class);
+
+	private final Map<File, Handle> handles = new HashMap<>();
+	private boolean closed;
+
+	public Handle acquire(File file) throws IOException {
+		File key = file.getAbsoluteFile();
+		synchronized (handles) {
+			if (!closed) {
+				Handle handle = handles.get(key);
+				if (handle != null) {
+					handle.refCount++;
+					return handle;
+				}
+			}
+		}
+		// open outside of lock, only first open can be done twice
+		ZipFile zipFile = new ZipFile(key);
+		synchronized (handles) {
+			if (closed) {
+				// pool closed: return not pooled handle, will be closed on release
+				Handle handle = new Handle(this, key, zipFile);
+				handle.refCount = 1;
+				handle.pooled = false;
+				return handle;
+			}
+			Handle handle = handles.get(key);
+			if (handle == null) {
+				handle = new Handle(this, key, zipFile);
+				handles.put(key, handle);
+			} else {
+				closeQuietly(zipFile);
+			}
+			handle.refCount++;
+			return handle;
+		}
+	}
+
+	private void release(Handle handle) {
+		boolean closeFile;
+		synchronized (handles) {
+			handle.refCount--;
+			closeFile = handle.refCount == 0 && !handle.pooled;
+		}
+		if (closeFile) {
+			closeQuietly(handle.zipFile);
+		}
+	}
+
+	public int size() {
+		synchronized (handles) {
+			return handles.size();
+		}
+	}
+
+	@Override
+	public void close() {
+		List<ZipFile> toClose = new ArrayList<>();
+		synchronized (handles) {
+			closed = true;
+			for (Handle handle : handles.values()) {
+				handle.pooled = false;
+				if (handle.refCount == 0) {
+					toClose.add(handle.zipFile);
+				}
+			}
+			handles.clear();
+		}
+		for (ZipFile zipFile : toClose) {
+			closeQuietly(zipFile);
+		}
+	}
+
+	/**
+	 * Reopen pool after close (used on decompiler reload)
+	 */
+	public void reset() {
+		close();
+		synchronized (handles) {
+			closed = false;
+		}
+	}
+
+	private static Map<String, StoredZipEntries.Entry> loadStoredEntries(File file) throws IOException {
+		try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+			List<StoredZipEntries.Entry> entries = StoredZipEntries.collect(channel);
+			if (entries.isEmpty()) {
+				return Collections.emptyMap();
+			}
+			Map<String, StoredZipEntries.Entry> map = new HashMap<>(entries.size());
+			for (StoredZipEntries.Entry entry : entries) {
+				map.put(entry.getName(), entry);
+			}
+			return map;
+		}
+	}
+
+	private static void closeQuietly(ZipFile zipFile) {
+		try {
+			zipFile.close();
+		} catch (Exception e) {
+			LOG.warn("Failed to close zip file: {}", zipFile.getName(), e);
+		}
+	}
+
+	public static final class Handle implements Closeable {
+		private final ZipFilePool pool;
+		private final File file;
+		private final ZipFile zipFile;
+		private int refCount;
+		private boolean pooled = true;
+		private volatile Map<String, StoredZipEntries.Entry> storedEntries;
+
+		private Handle(ZipFilePool pool, File file, ZipFile zipFile) {
+			this.pool = pool;
+			this.file = file;
+			this.zipFile = zipFile;
+		}
+
+		public ZipFile getZipFile() {
+			return zipFile;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * Location of stored (not compressed) entry data in zip file.
+		 * Central directory parsed once on first call and shared by all users of this handle.
+		 *
+		 * @return null if entry not found, compressed or zip format not supported
+		 */
+		@Nullable
+		public StoredZipEntries.Entry getStoredEntry(String entryName) throws IOException {
+			Map<String, StoredZipEntries.Entry> map = storedEntries;
+			if (map == null) {
+				synchronized (this) {
+					map = storedEntries;
+					if (map == null) {
+						map = loadStoredEntries(file);
+						storedEntries = map;
+					}
+				}
+			}
+			return map.get(entryName);
+		}
+
+		/**
+		 * Release handle, should be called once for every {@link ZipFilePool#acquire(File)}
+		 */
+		@Override
+		public void close() {
+			pool.release(this);
+		}
+	}
+}
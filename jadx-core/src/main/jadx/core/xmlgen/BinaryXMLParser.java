@@ -1,5 +1,6 @@
 package jadx.core.xmlgen;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import jadx.api.ICodeInfo;
 import jadx.api.ICodeWriter;
 import jadx.api.ResourcesLoader;
+import jadx.api.plugins.utils.CommonFileUtils;
 import jadx.core.dex.info.ConstStorage;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.RootNode;
@@ -70,9 +72,10 @@ public class BinaryXMLParser extends CommonBinaryParser {
 	}
 
 	public synchronized ICodeInfo parse(InputStream inputStream) throws IOException {
-		is = new ParserStream(inputStream);
-		if (!isBinaryXml()) {
-			return ResourcesLoader.loadToCodeWriter(inputStream);
+		byte[] data = CommonFileUtils.loadBytes(inputStream);
+		is = new ByteBufferParserStream(data);
+		if (data.length < 4 || !isBinaryXml()) {
+			return ResourcesLoader.loadToCodeWriter(new ByteArrayInputStream(data));
 		}
 		nsMapGenerated = new HashSet<>();
 		nsMap = new HashMap<>();
@@ -0,0 +1,138 @@
+package jadx.core.xmlgen;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.jetbrains.annotations.NotNull;
+
+import jadx.api.plugins.utils.CommonFileUtils;
+
+/**
+ * {@link ParserStream} backed by {@link ByteBuffer} (heap or memory-mapped).
+ * <br>
+ * Values read directly from buffer in little-endian order without per-byte virtual calls,
+ * int arrays copied in bulk. Unlike stream based parser, mark/reset supported for any data
+ * and also restore current position.
+ */
+public class ByteBufferParserStream extends ParserStream {
+
+	private static final int[] EMPTY_INT_ARRAY = new int[0];
+	private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+	private final ByteBuffer buf;
+	private int markPos = -1;
+
+	public ByteBufferParserStream(@NotNull ByteBuffer buffer) {
+		this.buf = buffer.slice();
+		this.buf.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public ByteBufferParserStream(byte[] data) {
+		this(ByteBuffer.wrap(data));
+	}
+
+	public static ByteBufferParserStream fromStream(InputStream inputStream) throws IOException {
+		return new ByteBufferParserStream(CommonFileUtils.loadBytes(inputStream));
+	}
+
+	@Override
+	public long getPos() {
+		return buf.position();
+	}
+
+	public int size() {
+		return buf.limit();
+	}
+
+	@Override
+	public int readInt8() throws IOException {
+		if (!buf.hasRemaining()) {
+			// same as InputStream.read() on end of stream
+			return -1;
+		}
+		return buf.get() & 0xFF;
+	}
+
+	@Override
+	public int readInt16() throws IOException {
+		ensureRemaining(2);
+		return buf.getShort() & 0xFFFF;
+	}
+
+	@Override
+	public int readInt32() throws IOException {
+		ensureRemaining(4);
+		return buf.getInt();
+	}
+
+	@Override
+	public int[] readInt32Array(int count) throws IOException {
+		if (count == 0) {
+			return EMPTY_INT_ARRAY;
+		}
+		ensureRemaining((long) count * 4);
+		int[] arr = new int[count];
+		buf.asIntBuffer().get(arr);
+		buf.position(buf.position() + count * 4);
+		return arr;
+	}
+
+	@Override
+	public byte[] readInt8Array(int count) throws IOException {
+		if (count == 0) {
+			return EMPTY_BYTE_ARRAY;
+		}
+		if (buf.remaining() < count) {
+			throw new IOException("No data, can't read " + count + " bytes");
+		}
+		byte[] arr = new byte[count];
+		buf.get(arr);
+		return arr;
+	}
+
+	@Override
+	public void skip(long count) throws IOException {
+		if (count > buf.remaining()) {
+			throw new IOException("No data, can't skip " + count + " bytes");
+		}
+		buf.position(buf.position() + (int) count);
+	}
+
+	@Override
+	public void mark(int len) {
+		markPos = buf.position();
+	}
+
+	@Override
+	public void reset() throws IOException {
+		if (markPos == -1) {
+			throw new IOException("Reset without mark");
+		}
+		buf.position(markPos);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		if (len < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (buf.remaining() < len) {
+			throw new EOFException();
+		}
+		buf.get(b, off, len);
+	}
+
+	private void ensureRemaining(long count) throws EOFException {
+		if (buf.remaining() < count) {
+			throw new EOFException("No data, can't read " + count + " bytes at offset: 0x" + Integer.toHexString(buf.position()));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "pos: 0x" + Integer.toHexString(buf.position()) + ", size: 0x" + Integer.toHexString(buf.limit());
+	}
+}
@@ -22,6 +22,13 @@ public class ParserStream {
 		this.input = inputStream;
 	}
 
+	/**
+	 * For subclasses with own data source, all read methods must be overridden
+	 */
+	protected ParserStream() {
+		this.input = null;
+	}
+
 	public long getPos() {
 		return readPos;
 	}
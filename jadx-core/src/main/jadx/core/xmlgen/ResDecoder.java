@@ -5,11 +5,29 @@ import java.io.InputStream;
 
 import jadx.api.ResourceFile;
 import jadx.api.ResourceType;
+import jadx.api.ResourcesLoader;
 import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public class ResDecoder {
 
+	/**
+	 * Decode resources table, binary table stored without compression parsed directly from mapped file
+	 */
+	public static IResParser decode(RootNode root, ResourceFile resFile) throws JadxException {
+		if (resFile.getOriginalName().endsWith(".arsc")) {
+			return ResourcesLoader.decodeMapped(resFile,
+					buf -> {
+						ResTableParser parser = new ResTableParser(root);
+						parser.decode(buf);
+						return parser;
+					},
+					(size, is) -> decode(root, resFile, is));
+		}
+		return ResourcesLoader.decodeStream(resFile, (size, is) -> decode(root, resFile, is));
+	}
+
 	public static IResParser decode(RootNode root, ResourceFile resFile, InputStream is) throws IOException {
 		if (resFile.getType() != ResourceType.ARSC) {
 			throw new IllegalArgumentException("Unexpected resource type for decode: " + resFile.getType() + ", expect ARSC");
@@ -3,6 +3,7 @@ package jadx.core.xmlgen;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.android.aapt.ConfigurationOuterClass.Configuration;
@@ -20,6 +21,7 @@ import com.android.aapt.Resources.Style;
 import com.android.aapt.Resources.Styleable;
 import com.android.aapt.Resources.Type;
 import com.android.aapt.Resources.Value;
+import com.custom.Consumer;
 
 import jadx.api.ICodeInfo;
 import jadx.core.dex.nodes.RootNode;
@@ -38,12 +40,28 @@ public class ResProtoParser implements IResParser {
 	}
 
 	public ResContainer decodeFiles(InputStream inputStream) throws IOException {
+		final List<ResContainer> xmlFiles = new ArrayList<>();
+		ResContainer resTable = decodeFiles(inputStream, new Consumer<ResContainer>() {
+			@Override
+			public void accept(ResContainer file) {
+				xmlFiles.add(file);
+			}
+		});
+		return ResContainer.resourceTable(resTable.getName(), xmlFiles, resTable.getText());
+	}
+
+	/**
+	 * Decode table and pass generated values files to consumer one by one,
+	 * returned container don't hold sub files.
+	 */
+	public ResContainer decodeFiles(InputStream inputStream, Consumer<ResContainer> filesConsumer) throws IOException {
 		decode(inputStream);
 		ValuesParser vp = new ValuesParser(new String[0], resStorage.getResourcesNames());
 		ResXmlGen resGen = new ResXmlGen(resStorage, vp);
+
 		ICodeInfo content = XmlGenUtils.makeXmlDump(root.makeCodeWriter(), resStorage);
-		List<ResContainer> xmlFiles = resGen.makeResourcesXml();
-		return ResContainer.resourceTable("res", xmlFiles, content);
+		resGen.makeResourcesXml(filesConsumer);
+		return ResContainer.resourceTable("res", Collections.<ResContainer>emptyList(), content);
 	}
 
 	@Override
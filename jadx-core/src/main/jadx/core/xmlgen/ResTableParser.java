@@ -2,7 +2,9 @@ package jadx.core.xmlgen;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -12,6 +14,8 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.custom.Consumer;
+
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,20 +88,64 @@ public class ResTableParser extends CommonBinaryParser implements IResParser {
 
 	@Override
 	public void decode(InputStream inputStream) throws IOException {
-		is = new ParserStream(inputStream);
+		decode(ByteBufferParserStream.fromStream(inputStream));
+	}
+
+	/**
+	 * Decode table from buffer (heap or memory-mapped) without data copy
+	 */
+	public void decode(ByteBuffer buffer) throws IOException {
+		decode(new ByteBufferParserStream(buffer));
+	}
+
+	private void decode(ByteBufferParserStream stream) throws IOException {
+		is = stream;
 		decodeTableChunk();
 		resStorage.finish();
 	}
 
 	public ResContainer decodeFiles(InputStream inputStream) throws IOException {
 		decode(inputStream);
+		return collectFiles();
+	}
+
+	public ResContainer decodeFiles(ByteBuffer buffer) throws IOException {
+		decode(buffer);
+		return collectFiles();
+	}
+
+	/**
+	 * Decode table and pass generated values files to consumer one by one,
+	 * returned container don't hold sub files.
+	 */
+	public ResContainer decodeFiles(InputStream inputStream, Consumer<ResContainer> filesConsumer) throws IOException {
+		decode(inputStream);
+		return makeFiles(filesConsumer);
+	}
+
+	public ResContainer decodeFiles(ByteBuffer buffer, Consumer<ResContainer> filesConsumer) throws IOException {
+		decode(buffer);
+		return makeFiles(filesConsumer);
+	}
+
+	private ResContainer collectFiles() {
+		final List<ResContainer> xmlFiles = new ArrayList<>();
+		ResContainer resTable = makeFiles(new Consumer<ResContainer>() {
+			@Override
+			public void accept(ResContainer file) {
+				xmlFiles.add(file);
+			}
+		});
+		return ResContainer.resourceTable(resTable.getName(), xmlFiles, resTable.getText());
+	}
 
+	private ResContainer makeFiles(Consumer<ResContainer> filesConsumer) {
 		ValuesParser vp = new ValuesParser(strings, resStorage.getResourcesNames());
 		ResXmlGen resGen = new ResXmlGen(resStorage, vp);
 
 		ICodeInfo content = XmlGenUtils.makeXmlDump(root.makeCodeWriter(), resStorage);
-		List<ResContainer> xmlFiles = resGen.makeResourcesXml();
-		return ResContainer.resourceTable("res", xmlFiles, content);
+		resGen.makeResourcesXml(filesConsumer);
+		return ResContainer.resourceTable("res", Collections.<ResContainer>emptyList(), content);
 	}
 
 	void decodeTableChunk() throws IOException {
@@ -2,14 +2,14 @@ package jadx.core.xmlgen;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+
+import com.custom.Consumer;
 
-import jadx.api.ICodeInfo;
 import jadx.api.ICodeWriter;
 import jadx.api.impl.SimpleCodeWriter;
 import jadx.core.utils.StringUtils;
@@ -49,34 +49,50 @@ public class ResXmlGen {
 	}
 
 	public List<ResContainer> makeResourcesXml() {
-		Map<String, ICodeWriter> contMap = new HashMap<>();
+		final List<ResContainer> files = new ArrayList<>();
+		makeResourcesXml(new Consumer<ResContainer>() {
+			@Override
+			public void accept(ResContainer file) {
+				files.add(file);
+			}
+		});
+		return files;
+	}
+
+	/**
+	 * Generate values files one by one (sorted by file name) and pass to consumer.
+	 * Only entries grouping is kept in memory, so text of already consumed files can be released.
+	 */
+	public void makeResourcesXml(Consumer<ResContainer> consumer) {
+		Map<String, List<ResourceEntry>> entriesByFile = new TreeMap<>();
 		for (ResourceEntry ri : resStorage.getResources()) {
 			if (SKIP_RES_TYPES.contains(ri.getTypeName())) {
 				continue;
 			}
 			String fn = getFileName(ri);
-			ICodeWriter cw = contMap.get(fn);
-			if (cw == null) {
-				cw = new SimpleCodeWriter();
-				cw.add("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
-				cw.startLine("<resources>");
-				cw.incIndent();
-				contMap.put(fn, cw);
+			List<ResourceEntry> entries = entriesByFile.get(fn);
+			if (entries == null) {
+				entries = new ArrayList<>();
+				entriesByFile.put(fn, entries);
 			}
-			addValue(cw, ri);
+			entries.add(ri);
+		}
+		for (Map.Entry<String, List<ResourceEntry>> entry : entriesByFile.entrySet()) {
+			consumer.accept(makeValuesFile(entry.getKey(), entry.getValue()));
 		}
+	}
 
-		List<ResContainer> files = new ArrayList<>(contMap.size());
-		for (Map.Entry<String, ICodeWriter> entry : contMap.entrySet()) {
-			String fileName = entry.getKey();
-			ICodeWriter content = entry.getValue();
-			content.decIndent();
-			content.startLine("</resources>");
-			ICodeInfo codeInfo = content.finish();
-			files.add(ResContainer.textResource(fileName, codeInfo));
+	private ResContainer makeValuesFile(String fileName, List<ResourceEntry> entries) {
+		ICodeWriter cw = new SimpleCodeWriter();
+		cw.add("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
+		cw.startLine("<resources>");
+		cw.incIndent();
+		for (ResourceEntry ri : entries) {
+			addValue(cw, ri);
 		}
-		Collections.sort(files);
-		return files;
+		cw.decIndent();
+		cw.startLine("</resources>");
+		return ResContainer.textResource(fileName, cw.finish());
 	}
 
 	private void addValue(ICodeWriter cw, ResourceEntry ri) {
@@ -2,18 +2,18 @@ package jadx.core.xmlgen;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+
+import com.custom.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.api.ResourceFile;
+import jadx.api.ResourceType;
 import jadx.api.ResourcesLoader;
 import jadx.api.plugins.utils.ZipSecurity;
 import jadx.core.dex.visitors.SaveCode;
 import jadx.core.utils.exceptions.JadxException;
-import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.utils.files.FileUtils;
 
 public class ResourcesSaver implements Runnable {
@@ -30,7 +30,17 @@ public class ResourcesSaver implements Runnable {
 	@Override
 	public void run() {
 		try {
-			saveResources(resourceFile.loadContent());
+			if (resourceFile.getType() == ResourceType.ARSC) {
+				// save values files right after generation, don't keep all of them in memory
+				saveResources(resourceFile.loadContent(new Consumer<ResContainer>() {
+					@Override
+					public void accept(ResContainer subFile) {
+						saveResources(subFile);
+					}
+				}));
+			} else {
+				saveResources(resourceFile.loadContent());
+			}
 		} catch (Throwable e) {
 			LOG.warn("Failed to save resource: {}", resourceFile.getOriginalName(), e);
 		}
@@ -93,15 +103,6 @@ public class ResourcesSaver implements Runnable {
 	}
 
 	private void saveResourceFile(ResourceFile resFile, File outFile) throws JadxException {
-		ResourcesLoader.decodeStream(resFile, (size, is) -> {
-			Path target = outFile.toPath();
-			try {
-				Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
-			} catch (Exception e) {
-				Files.deleteIfExists(target); // delete partially written file
-				throw new JadxRuntimeException("Resource file save error", e);
-			}
-			return null;
-		});
+		ResourcesLoader.saveRawResource(resFile, outFile);
 	}
 }
@@ -1,15 +1,21 @@
 package jadx.plugins.input.dex;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.api.plugins.utils.CommonFileUtils;
+import jadx.api.plugins.utils.StoredZipEntries;
 import jadx.api.plugins.utils.ZipSecurity;
 import jadx.plugins.input.dex.sections.DexConsts;
 import jadx.plugins.input.dex.utils.DexCheckSum;
@@ -45,6 +51,12 @@ public class DexFileLoader {
 	}
 	
 	private List<DexReader> loadDexFromFile(File file) {
+		if (options.isUseMmap()) {
+			List<DexReader> mapped = loadMappedDexFromFile(file);
+			if (mapped != null) {
+				return mapped;
+			}
+		}
 		try (InputStream inputStream = new FileInputStream(file)) {
 			return load(file, inputStream, file.getAbsolutePath());
 		} catch (Exception e) {
@@ -82,12 +94,83 @@ public class DexFileLoader {
 		return new DexReader(getNextUniqId(), fileName, content);
 	}
 	
+	public DexReader loadDexReader(String fileName, ByteBuffer content) {
+		if (options.isVerifyChecksum()) {
+			DexCheckSum.verify(content);
+		}
+		return new DexReader(getNextUniqId(), fileName, content);
+	}
+	
+	/**
+	 * Map dex file or stored (not compressed) dex entries from zip file into memory.
+	 * Compressed zip entries still loaded using streams.
+	 * Zip entries processed in same order as without mapping, so dex ids and duplicated classes resolution not changed.
+	 *
+	 * @return null if file can't be mapped
+	 */
+	@Nullable
+	private List<DexReader> loadMappedDexFromFile(File file) {
+		String fileName = file.getAbsolutePath();
+		try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+			long size = channel.size();
+			if (size < DexConsts.MAX_MAGIC_SIZE || size > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer magic = readHeader(channel, DexConsts.MAX_MAGIC_SIZE);
+			if (isStartWithBytes(magic, DexConsts.DEX_FILE_MAGIC) || fileName.endsWith(".dex")) {
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+				return Collections.singletonList(loadDexReader(fileName, buf));
+			}
+			if (isStartWithBytes(magic, DexConsts.ZIP_FILE_MAGIC) || CommonFileUtils.isZipFileExt(fileName)) {
+				Map<String, ByteBuffer> mappedEntries = new HashMap<>();
+				for (StoredZipEntries.Entry entry : StoredZipEntries.collect(channel)) {
+					String entryName = entry.getName();
+					if (!entryName.endsWith(".dex") || entry.getSize() < DexConsts.MAX_MAGIC_SIZE
+							|| !ZipSecurity.isValidZipEntryName(entryName)) {
+						continue;
+					}
+					MappedByteBuffer entryBuf = channel.map(FileChannel.MapMode.READ_ONLY, entry.getDataOffset(), entry.getSize());
+					if (isStartWithBytes(entryBuf, DexConsts.DEX_FILE_MAGIC)) {
+						mappedEntries.put(entryName, entryBuf);
+					}
+				}
+				return collectDexFromZip(file, mappedEntries);
+			}
+			return Collections.emptyList();
+		} catch (Exception e) {
+			LOG.warn("Failed to map file: {}, fallback to read", fileName, e);
+			return null;
+		}
+	}
+	
+	private static ByteBuffer readHeader(FileChannel channel, int size) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(size);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) == -1) {
+				break;
+			}
+		}
+		return header;
+	}
+	
 	private List<DexReader> collectDexFromZip(File file) {
-		List<DexReader> result = new ArrayList<>();
+		return collectDexFromZip(file, Collections.<String, ByteBuffer>emptyMap());
+	}
+	
+	/**
+	 * @param mappedEntries already mapped zip entries, used instead of entry stream
+	 */
+	private List<DexReader> collectDexFromZip(File file, final Map<String, ByteBuffer> mappedEntries) {
+		final List<DexReader> result = new ArrayList<>();
 		try {
 			ZipSecurity.readZipEntries(file, (entry, in) -> {
 				try {
-					result.addAll(load(null, in, entry.getName()));
+					ByteBuffer mappedBuf = mappedEntries.get(entry.getName());
+					if (mappedBuf != null) {
+						result.add(loadDexReader(entry.getName(), mappedBuf));
+					} else {
+						result.addAll(load(null, in, entry.getName()));
+					}
 				} catch (Exception e) {
 					LOG.error("Failed to read zip entry: {}", entry, e);
 				}
@@ -111,6 +194,19 @@ public class DexFileLoader {
 		return true;
 	}
 	
+	private static boolean isStartWithBytes(ByteBuffer buf, byte[] expectedBytes) {
+		int len = expectedBytes.length;
+		if (buf.capacity() < len) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			if (buf.get(i) != expectedBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	private static byte[] readAllBytes(InputStream in) throws IOException {
 		ByteArrayOutputStream buf = new ByteArrayOutputStream();
 		byte[] data = new byte[8192];
@@ -1,7 +1,6 @@
 package jadx.plugins.input.dex;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -13,22 +12,36 @@ public class DexInputOptions extends BaseOptionsParser {
 
 	private static final String VERIFY_CHECKSUM_OPT = DexInputPlugin.PLUGIN_ID + ".verify-checksum";
 
+	private static final String USE_MMAP_OPT = DexInputPlugin.PLUGIN_ID + ".use-mmap";
+
 	private boolean verifyChecksum = true;
+	private boolean useMmap = false;
 
 	public void apply(Map<String, String> options) {
 		verifyChecksum = getBooleanOption(options, VERIFY_CHECKSUM_OPT, true);
+		useMmap = getBooleanOption(options, USE_MMAP_OPT, false);
 	}
 
 	public List<OptionDescription> buildOptionsDescriptions() {
-		return Collections.singletonList(
+		return Arrays.<OptionDescription>asList(
 				new JadxOptionDescription(
 						VERIFY_CHECKSUM_OPT,
 						"verify dex file checksum before load",
 						"yes",
+						Arrays.asList("yes", "no")),
+				new JadxOptionDescription(
+						USE_MMAP_OPT,
+						"memory-map dex files (and stored dex entries in zip) instead of reading into heap,"
+								+ " smali code generation will copy whole dex into heap for every call",
+						"no",
 						Arrays.asList("yes", "no")));
 	}
 
 	public boolean isVerifyChecksum() {
 		return verifyChecksum;
 	}
+
+	public boolean isUseMmap() {
+		return useMmap;
+	}
 }
@@ -2,6 +2,8 @@ package jadx.plugins.input.dex;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import com.custom.Consumer;
 
@@ -43,4 +45,21 @@ public class DexLoadResult implements ILoadResult {
 	public boolean isEmpty() {
 		return dexReaders.isEmpty();
 	}
+
+	@Override
+	public List<ILoadResult> splitClassesSources() {
+		if (dexReaders.size() <= 1) {
+			return Collections.<ILoadResult>singletonList(this);
+		}
+		List<ILoadResult> list = new ArrayList<>(dexReaders.size());
+		for (DexReader dexReader : dexReaders) {
+			list.add(new DexLoadResult(Collections.singletonList(dexReader), null));
+		}
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		return dexReaders.size() == 1 ? dexReaders.get(0).toString() : dexReaders.toString();
+	}
 }
@@ -6,6 +6,7 @@ import com.custom.Consumer;
 import jadx.api.plugins.input.data.IClassData;
 import jadx.plugins.input.dex.sections.DexClassData;
 import jadx.plugins.input.dex.sections.DexHeader;
+import jadx.plugins.input.dex.sections.DexStringsCache;
 import jadx.plugins.input.dex.sections.SectionReader;
 import jadx.plugins.input.dex.sections.annotations.AnnotationsParser;
 
@@ -14,12 +15,18 @@ public class DexReader {
 	private final String inputFileName;
 	private final ByteBuffer buf;
 	private final DexHeader header;
+	private final DexStringsCache stringsCache;
 
 	public DexReader(int uniqId, String inputFileName, byte[] content) {
+		this(uniqId, inputFileName, ByteBuffer.wrap(content));
+	}
+
+	public DexReader(int uniqId, String inputFileName, ByteBuffer buf) {
 		this.uniqId = uniqId;
 		this.inputFileName = inputFileName;
-		this.buf = ByteBuffer.wrap(content);
+		this.buf = buf;
 		this.header = new DexHeader(new SectionReader(this, 0));
+		this.stringsCache = new DexStringsCache(header);
 	}
 
 	public void visitClasses(Consumer<IClassData> consumer) {
@@ -41,10 +48,30 @@ public class DexReader {
 		return buf;
 	}
 
+	/**
+	 * Dex file content as byte array.
+	 * For memory-mapped files content copied on every call and not retained,
+	 * so caller should drop result as soon as possible.
+	 */
+	public byte[] getContentBytes() {
+		if (buf.hasArray() && buf.arrayOffset() == 0 && buf.array().length == buf.capacity()) {
+			return buf.array();
+		}
+		byte[] copy = new byte[buf.capacity()];
+		ByteBuffer dup = buf.duplicate();
+		dup.clear();
+		dup.get(copy);
+		return copy;
+	}
+
 	public DexHeader getHeader() {
 		return header;
 	}
 
+	public DexStringsCache getStringsCache() {
+		return stringsCache;
+	}
+
 	public String getInputFileName() {
 		return inputFileName;
 	}
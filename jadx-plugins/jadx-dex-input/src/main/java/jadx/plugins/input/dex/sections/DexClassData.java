@@ -207,7 +207,8 @@ public class DexClassData implements IClassData {
 
 	@Override
 	public String getDisassembledCode() {
-		byte[] dexBuf = in.getDexReader().getBuf().array();
+		// baksmali needs byte array, for memory-mapped dex this is temporary copy
+		byte[] dexBuf = in.getDexReader().getContentBytes();
 		return SmaliUtils.getSmaliCode(dexBuf, getClassDefOffset());
 	}
 
@@ -7,6 +7,7 @@ public class DexHeader {
 	private final int classDefsSize;
 	private final int classDefsOff;
 	private final int stringIdsOff;
+	private final int stringIdsSize;
 	private final int typeIdsOff;
 	private final int typeIdsSize;
 	private final int fieldIdsSize;
@@ -34,7 +35,7 @@ public class DexHeader {
 		int linkSize = buf.readInt();
 		int linkOff = buf.readInt();
 		int mapListOff = buf.readInt();
-		int stringIdsSize = buf.readInt();
+		stringIdsSize = buf.readInt();
 		stringIdsOff = buf.readInt();
 		typeIdsSize = buf.readInt();
 		typeIdsOff = buf.readInt();
@@ -88,6 +89,10 @@ public class DexHeader {
 		return stringIdsOff;
 	}
 
+	public int getStringIdsSize() {
+		return stringIdsSize;
+	}
+
 	public int getTypeIdsOff() {
 		return typeIdsOff;
 	}
@@ -0,0 +1,41 @@
+package jadx.plugins.input.dex.sections;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Lazily filled cache for decoded strings and types of one dex file.
+ * <br>
+ * Shared by all section readers of dex file.
+ * Strings are immutable, so racy writes are safe: in worst case same string decoded twice.
+ */
+public class DexStringsCache {
+	private final String[] strings;
+	private final String[] types;
+
+	public DexStringsCache(DexHeader header) {
+		this.strings = new String[Math.max(0, header.getStringIdsSize())];
+		this.types = new String[Math.max(0, header.getTypeIdsSize())];
+	}
+
+	@Nullable
+	public String getString(int idx) {
+		return idx >= 0 && idx < strings.length ? strings[idx] : null;
+	}
+
+	public void putString(int idx, String str) {
+		if (idx >= 0 && idx < strings.length) {
+			strings[idx] = str;
+		}
+	}
+
+	@Nullable
+	public String getType(int idx) {
+		return idx >= 0 && idx < types.length ? types[idx] : null;
+	}
+
+	public void putType(int idx, String type) {
+		if (idx >= 0 && idx < types.length) {
+			types[idx] = type;
+		}
+	}
+}
@@ -159,10 +159,19 @@ public class SectionReader {
 		if (idx == NO_INDEX) {
 			return null;
 		}
+		DexStringsCache cache = dexReader.getStringsCache();
+		String type = cache.getType(idx);
+		if (type != null) {
+			return type;
+		}
 		int typeIdsOff = dexReader.getHeader().getTypeIdsOff();
 		absPos(typeIdsOff + idx * 4);
 		int strIdx = readInt();
-		return getString(strIdx);
+		type = getString(strIdx);
+		if (type != null) {
+			cache.putType(idx, type);
+		}
+		return type;
 	}
 
 	@Nullable
@@ -170,12 +179,18 @@ public class SectionReader {
 		if (idx == NO_INDEX) {
 			return null;
 		}
-		// TODO: make string pool cache?
+		DexStringsCache cache = dexReader.getStringsCache();
+		String str = cache.getString(idx);
+		if (str != null) {
+			return str;
+		}
 		int stringIdsOff = dexReader.getHeader().getStringIdsOff();
 		absPos(stringIdsOff + idx * 4);
 		int strOff = readInt();
 		absPos(strOff);
-		return MUtf8.decode(this);
+		str = MUtf8.decode(this);
+		cache.putString(idx, str);
+		return str;
 	}
 
 	public IFieldRef getFieldRef(int idx) {
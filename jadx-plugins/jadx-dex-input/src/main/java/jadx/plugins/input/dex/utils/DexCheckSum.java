@@ -8,6 +8,7 @@ import jadx.plugins.input.dex.DexException;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 
 public class DexCheckSum {
+	private static final int CHUNK_SIZE = 8 * 1024;
 
 	public static void verify(byte[] content) {
 		int len = content.length;
@@ -22,4 +23,33 @@ public class DexCheckSum {
 			throw new DexException(String.format("Bad checksum: 0x%08x, expected: 0x%08x", fileChecksum, checksum));
 		}
 	}
+
+	/**
+	 * Verify checksum without copying whole buffer (for memory-mapped files)
+	 */
+	public static void verify(ByteBuffer content) {
+		if (content.hasArray()) {
+			verify(content.array());
+			return;
+		}
+		int len = content.capacity();
+		if (len < 12) {
+			throw new DexException("Dex file truncated, length: " + len);
+		}
+		ByteBuffer buf = content.duplicate();
+		buf.order(LITTLE_ENDIAN);
+		int checksum = buf.getInt(8);
+		Adler32 adler32 = new Adler32();
+		byte[] chunk = new byte[CHUNK_SIZE];
+		buf.position(12);
+		while (buf.hasRemaining()) {
+			int count = Math.min(chunk.length, buf.remaining());
+			buf.get(chunk, 0, count);
+			adler32.update(chunk, 0, count);
+		}
+		int fileChecksum = (int) (adler32.getValue());
+		if (checksum != fileChecksum) {
+			throw new DexException(String.format("Bad checksum: 0x%08x, expected: 0x%08x", fileChecksum, checksum));
+		}
+	}
 }